@@ -0,0 +1,17 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la caché de permisos efectivos por (usuario, cliente)
+ * @param maximumSize número máximo de entradas
+ * @param ttl tiempo de vida de cada entrada desde que se carga
+ */
+@ConfigurationProperties(prefix = "auth.permissions.cache")
+public record EffectivePermissionCacheProperties(
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("PT10M") Duration ttl) {
+}
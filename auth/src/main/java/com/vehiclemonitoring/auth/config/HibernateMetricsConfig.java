@@ -0,0 +1,22 @@
+package com.vehiclemonitoring.auth.config;
+
+import io.micrometer.core.instrument.Tags;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publica en Micrometer las estadísticas de Hibernate, incluidos aciertos, fallos y
+ * escrituras por región de la caché de segundo nivel y de la caché de consultas
+ * (requiere {@code hibernate.generate_statistics=true})
+ */
+@Configuration
+public class HibernateMetricsConfig {
+
+    @Bean
+    public HibernateMetrics hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "auth", Tags.empty());
+    }
+}
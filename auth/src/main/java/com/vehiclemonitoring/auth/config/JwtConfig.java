@@ -0,0 +1,69 @@
+package com.vehiclemonitoring.auth.config;
+
+import com.vehiclemonitoring.auth.security.jwt.JwtEngine;
+import com.vehiclemonitoring.auth.security.jwt.JwtSigningKeys;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Configuración del motor JWT: carga las claves una sola vez al arrancar
+ */
+@Configuration
+public class JwtConfig {
+
+    private static final int MIN_HMAC_SECRET_BYTES = 32;
+
+    @Bean
+    public JwtEngine jwtEngine(JwtProperties properties) {
+        return new JwtEngine(signingKeys(properties));
+    }
+
+    private static JwtSigningKeys signingKeys(JwtProperties properties) {
+        switch (properties.algorithm()) {
+            case HS256:
+                return JwtSigningKeys.hmac(hmacSecret(properties.hmacSecret()), properties.keyId());
+            case ES256:
+                if (properties.ecPublicKey() == null) {
+                    throw new IllegalStateException("auth.jwt.ec-public-key es obligatorio para ES256");
+                }
+                try {
+                    KeyFactory keyFactory = KeyFactory.getInstance("EC");
+                    PublicKey publicKey = keyFactory.generatePublic(
+                            new X509EncodedKeySpec(Base64.getDecoder().decode(properties.ecPublicKey())));
+                    PrivateKey privateKey = properties.ecPrivateKey() == null ? null : keyFactory.generatePrivate(
+                            new PKCS8EncodedKeySpec(Base64.getDecoder().decode(properties.ecPrivateKey())));
+                    return JwtSigningKeys.ecdsa(privateKey, publicKey, properties.keyId());
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("Claves ES256 inválidas", e);
+                }
+            default:
+                throw new IllegalStateException("Algoritmo JWT no soportado: " + properties.algorithm());
+        }
+    }
+
+    // El secreto llega de AUTH_JWT_HMAC_SECRET; sin él, o si es corto, la aplicación no arranca
+    private static byte[] hmacSecret(String secret) {
+        if (secret == null || secret.isBlank() || secret.startsWith("${")) {
+            throw new IllegalStateException("auth.jwt.hmac-secret es obligatorio para HS256: defina AUTH_JWT_HMAC_SECRET");
+        }
+        byte[] decoded;
+        try {
+            decoded = Base64.getDecoder().decode(secret.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("auth.jwt.hmac-secret no es base64 válido", e);
+        }
+        if (decoded.length < MIN_HMAC_SECRET_BYTES) {
+            throw new IllegalStateException("auth.jwt.hmac-secret debe tener al menos " + MIN_HMAC_SECRET_BYTES +
+                    " bytes (tiene " + decoded.length + ")");
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,28 @@
+package com.vehiclemonitoring.auth.config;
+
+import com.vehiclemonitoring.auth.security.jwt.JwtAlgorithm;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de emisión y verificación de tokens JWT
+ * @param algorithm algoritmo de firma (HS256 o ES256)
+ * @param hmacSecret secreto HS256 en base64
+ * @param ecPrivateKey clave privada ES256 PKCS#8 en base64
+ * @param ecPublicKey clave pública ES256 X.509 en base64
+ * @param keyId identificador de la clave publicado en la cabecera (kid)
+ * @param accessTokenTtl vigencia de los tokens de acceso
+ * @param refreshTokenTtl vigencia de los tokens de refresco
+ */
+@ConfigurationProperties(prefix = "auth.jwt")
+public record JwtProperties(
+        @DefaultValue("HS256") JwtAlgorithm algorithm,
+        String hmacSecret,
+        String ecPrivateKey,
+        String ecPublicKey,
+        String keyId,
+        @DefaultValue("PT15M") Duration accessTokenTtl,
+        @DefaultValue("P30D") Duration refreshTokenTtl) {
+}
@@ -0,0 +1,17 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la escritura agrupada de {@code users.last_login}
+ * @param maxStaleness retraso máximo con el que un inicio de sesión llega a la base de datos
+ * @param batchSize número máximo de usuarios por sentencia UPDATE
+ */
+@ConfigurationProperties(prefix = "auth.users.last-login")
+public record LastLoginProperties(
+        @DefaultValue("PT30S") Duration maxStaleness,
+        @DefaultValue("1000") int batchSize) {
+}
@@ -0,0 +1,27 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del limitador de intentos de inicio de sesión
+ * @param enabled si está desactivado, todos los intentos se permiten
+ * @param window duración de la ventana deslizante
+ * @param accountLimit intentos por ventana para un mismo email en un cliente
+ * @param sourceLimit intentos por ventana desde una misma dirección de origen
+ * @param baseLockout duración del primer bloqueo al superar un límite; se duplica con cada reincidencia. 0 desactiva el bloqueo
+ * @param maxLockout duración máxima de un bloqueo
+ * @param maximumKeys número máximo de claves en memoria para cada límite (cuentas y orígenes)
+ */
+@ConfigurationProperties(prefix = "auth.login.rate-limit")
+public record LoginRateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT1M") Duration window,
+        @DefaultValue("10") int accountLimit,
+        @DefaultValue("100") int sourceLimit,
+        @DefaultValue("PT30S") Duration baseLockout,
+        @DefaultValue("PT1H") Duration maxLockout,
+        @DefaultValue("1000000") long maximumKeys) {
+}
@@ -0,0 +1,30 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del hash de contraseñas y de su pool de trabajo
+ * @param iterations iteraciones de PBKDF2 para los hashes nuevos; los hashes con otro valor se rehacen al iniciar sesión
+ * @param saltBytes longitud de la sal en bytes
+ * @param workers hilos dedicados al hash; 0 usa el número de procesadores
+ * @param queueCapacity operaciones que pueden esperar turno; con la cola llena se rechazan
+ * @param deadline tiempo máximo que una petición espera el resultado, cola incluida
+ */
+@ConfigurationProperties(prefix = "auth.passwords")
+public record PasswordHashingProperties(
+        @DefaultValue("600000") int iterations,
+        @DefaultValue("16") int saltBytes,
+        @DefaultValue("0") int workers,
+        @DefaultValue("256") int queueCapacity,
+        @DefaultValue("PT2S") Duration deadline) {
+
+    /**
+     * @return número efectivo de hilos del pool
+     */
+    public int effectiveWorkers() {
+        return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+}
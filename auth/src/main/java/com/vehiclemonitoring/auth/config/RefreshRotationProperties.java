@@ -0,0 +1,16 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la rotación de refresh tokens
+ * @param reuseGrace ventana tras una rotación en la que volver a presentar el token anterior
+ *                   se trata como un reintento concurrente y no como reutilización
+ */
+@ConfigurationProperties(prefix = "auth.tokens.rotation")
+public record RefreshRotationProperties(
+        @DefaultValue("PT5S") Duration reuseGrace) {
+}
@@ -0,0 +1,19 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del índice en memoria de tokens revocados
+ * @param expectedRevocations número esperado de revocaciones vivas (dimensiona el filtro de Bloom)
+ * @param falsePositiveRate tasa de falsos positivos del filtro de Bloom
+ * @param sweepInterval intervalo entre barridos de entradas expiradas
+ */
+@ConfigurationProperties(prefix = "auth.revocation")
+public record RevocationIndexProperties(
+        @DefaultValue("100000") long expectedRevocations,
+        @DefaultValue("0.001") double falsePositiveRate,
+        @DefaultValue("PT1M") Duration sweepInterval) {
+}
@@ -0,0 +1,17 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del índice de búsqueda en memoria de usuarios, roles y clientes
+ * @param enabled si está desactivado, las búsquedas van siempre a la base de datos
+ * @param rebuildInterval cada cuánto se reconstruye el índice desde la base de datos
+ */
+@ConfigurationProperties(prefix = "auth.search")
+public record SearchIndexProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT30M") Duration rebuildInterval) {
+}
@@ -0,0 +1,27 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del límite de sesiones concurrentes por usuario.
+ * Una sesión es un refresh token activo.
+ * @param maxPerUser número máximo de sesiones activas por usuario; 0 desactiva el límite
+ * @param policy qué hacer al alcanzar el límite
+ * @param reconcileInterval cada cuánto se corrigen los contadores contra la base de datos
+ */
+@ConfigurationProperties(prefix = "auth.sessions")
+public record SessionLimitProperties(
+        @DefaultValue("0") int maxPerUser,
+        @DefaultValue("REJECT_NEWEST") Policy policy,
+        @DefaultValue("PT10M") Duration reconcileInterval) {
+
+    public enum Policy {
+        /** Se rechaza el inicio de sesión nuevo */
+        REJECT_NEWEST,
+        /** Se revocan las sesiones más antiguas para hacer sitio a la nueva */
+        EVICT_OLDEST
+    }
+}
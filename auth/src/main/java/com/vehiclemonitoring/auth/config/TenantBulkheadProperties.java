@@ -0,0 +1,28 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de los compartimentos (bulkheads) por cliente sobre el pool de conexiones
+ * @param enabled si está desactivado, las operaciones no se limitan
+ * @param maxPerTenant operaciones de base de datos simultáneas por cliente
+ * @param maxBulkPerTenant de ellas, cuántas pueden ser exportaciones o importaciones masivas
+ * @param criticalReserve conexiones del pool reservadas para inicios de sesión y validaciones; orientativa,
+ *                        los escritores en segundo plano no pasan por los compartimentos
+ * @param maxWait tiempo máximo de espera por un hueco antes de rechazar la operación
+ * @param maxTenants compartimentos de cliente que se mantienen a la vez
+ * @param idleTimeout tiempo sin uso tras el que se descarta el compartimento de un cliente y sus métricas
+ */
+@ConfigurationProperties(prefix = "auth.db.bulkhead")
+public record TenantBulkheadProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("8") int maxPerTenant,
+        @DefaultValue("2") int maxBulkPerTenant,
+        @DefaultValue("4") int criticalReserve,
+        @DefaultValue("PT2S") Duration maxWait,
+        @DefaultValue("10000") long maxTenants,
+        @DefaultValue("PT10M") Duration idleTimeout) {
+}
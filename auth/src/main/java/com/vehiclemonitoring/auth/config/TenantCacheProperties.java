@@ -0,0 +1,17 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la caché de descriptores de cliente
+ * @param maximumSize número máximo de clientes en caché
+ * @param ttl tiempo de vida de cada descriptor; red de seguridad para cambios hechos fuera del servicio
+ */
+@ConfigurationProperties(prefix = "auth.tenants.cache")
+public record TenantCacheProperties(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("PT1M") Duration ttl) {
+}
@@ -0,0 +1,19 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la rueda temporal que sigue la expiración de los tokens vivos
+ * @param tick resolución de la rueda y periodo de avance
+ * @param wheelSize ranuras por nivel (potencia de dos)
+ * @param levels número de niveles; el rango cubierto es {@code tick * wheelSize^levels}
+ */
+@ConfigurationProperties(prefix = "auth.tokens.expiry")
+public record TokenExpiryProperties(
+        @DefaultValue("PT1S") Duration tick,
+        @DefaultValue("64") int wheelSize,
+        @DefaultValue("4") int levels) {
+}
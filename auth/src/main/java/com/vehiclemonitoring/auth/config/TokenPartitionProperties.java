@@ -0,0 +1,30 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del particionado por rango de {@code auth.jwt_tokens}
+ * @param enabled activa el gestor de particiones (la tabla debe estar particionada)
+ * @param granularity tamaño de cada partición; debe coincidir con las particiones ya creadas
+ * @param precreate número de particiones futuras que se mantienen creadas
+ * @param retention tiempo que se conserva una partición después de que expire su último token
+ * @param detachConcurrently usa DETACH PARTITION CONCURRENTLY (PostgreSQL 14+)
+ * @param checkInterval intervalo entre revisiones de particiones
+ */
+@ConfigurationProperties(prefix = "auth.tokens.partitioning")
+public record TokenPartitionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("DAILY") Granularity granularity,
+        @DefaultValue("7") int precreate,
+        @DefaultValue("P1D") Duration retention,
+        @DefaultValue("true") boolean detachConcurrently,
+        @DefaultValue("PT1H") Duration checkInterval) {
+
+    public enum Granularity {
+        DAILY,
+        WEEKLY
+    }
+}
@@ -0,0 +1,34 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la purga de tokens expirados y revocados
+ * @param enabled activa la purga programada; desactivada por defecto porque necesita la tabla
+ *                de {@code db/token_purge_checkpoints.sql}, que no crea el arranque
+ * @param interval intervalo entre ejecuciones
+ * @param expiredRetention tiempo que se conservan los tokens después de expirar
+ * @param revokedRetention tiempo que se conservan los tokens revocados (ya expirados)
+ * @param initialChunkSize filas por DELETE al iniciar una ejecución
+ * @param minChunkSize tamaño mínimo de lote
+ * @param maxChunkSize tamaño máximo de lote
+ * @param targetLatency latencia objetivo de cada DELETE; el lote se ajusta para acercarse a ella
+ * @param dutyCycle fracción del tiempo que la purga ocupa la base de datos (0, 1]
+ * @param maxRunDuration duración máxima de una ejecución; el resto se reanuda en la siguiente
+ */
+@ConfigurationProperties(prefix = "auth.purge")
+public record TokenPurgeProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("PT5M") Duration interval,
+        @DefaultValue("PT1H") Duration expiredRetention,
+        @DefaultValue("P1D") Duration revokedRetention,
+        @DefaultValue("1000") int initialChunkSize,
+        @DefaultValue("100") int minChunkSize,
+        @DefaultValue("10000") int maxChunkSize,
+        @DefaultValue("200ms") Duration targetLatency,
+        @DefaultValue("0.5") double dutyCycle,
+        @DefaultValue("PT10M") Duration maxRunDuration) {
+}
@@ -0,0 +1,32 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la escritura diferida por lotes de tokens JWT
+ * @param mode modo de durabilidad
+ * @param capacity capacidad del buffer de tokens pendientes
+ * @param batchSize número máximo de filas por lote
+ * @param flushInterval espera máxima para completar un lote antes de escribirlo
+ * @param offerTimeout tiempo que un emisor espera por hueco cuando el buffer está lleno
+ * @param syncTimeout tiempo máximo que un emisor en modo SYNC espera la confirmación de su token
+ */
+@ConfigurationProperties(prefix = "auth.tokens.write-behind")
+public record TokenWriteBehindProperties(
+        @DefaultValue("SYNC") DurabilityMode mode,
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("5ms") Duration flushInterval,
+        @DefaultValue("100ms") Duration offerTimeout,
+        @DefaultValue("5s") Duration syncTimeout) {
+
+    public enum DurabilityMode {
+        /** El emisor espera a que el lote que contiene su token se confirme en la base de datos */
+        SYNC,
+        /** El emisor continúa al encolar el token; se confirma con el siguiente lote */
+        GROUP_COMMIT
+    }
+}
@@ -0,0 +1,17 @@
+package com.vehiclemonitoring.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la caché negativa de búsquedas de usuario por email
+ * @param negativeMaximumSize número máximo de pares (email, cliente) inexistentes recordados
+ * @param negativeTtl tiempo durante el que se recuerda que un par no existe
+ */
+@ConfigurationProperties(prefix = "auth.users.lookup")
+public record UserLookupProperties(
+        @DefaultValue("100000") long negativeMaximumSize,
+        @DefaultValue("PT5M") Duration negativeTtl) {
+}
@@ -0,0 +1,102 @@
+package com.vehiclemonitoring.auth.controller;
+
+import com.vehiclemonitoring.auth.dto.ClientSummary;
+import com.vehiclemonitoring.auth.dto.RoleSummary;
+import com.vehiclemonitoring.auth.dto.SearchHit;
+import com.vehiclemonitoring.auth.pagination.CursorPage;
+import com.vehiclemonitoring.auth.pagination.PageRequests;
+import com.vehiclemonitoring.auth.repository.projection.UserListItem;
+import com.vehiclemonitoring.auth.service.DirectoryService;
+import com.vehiclemonitoring.auth.service.TenantBulkhead;
+import com.vehiclemonitoring.auth.service.TenantDirectory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Endpoints de listado de clientes y de sus usuarios y roles, paginados por cursor,
+ * y de búsqueda de autocompletado. Las rutas de un cliente se resuelven con
+ * {@link TenantDirectory}: un cliente inexistente o desactivado responde 404.
+ */
+@RestController
+@RequestMapping("/api/clients")
+public class ClientController {
+
+    private final DirectoryService directoryService;
+    private final TenantDirectory tenantDirectory;
+    private final TenantBulkhead bulkhead;
+
+    public ClientController(DirectoryService directoryService, TenantDirectory tenantDirectory,
+                            TenantBulkhead bulkhead) {
+        this.directoryService = directoryService;
+        this.tenantDirectory = tenantDirectory;
+        this.bulkhead = bulkhead;
+    }
+
+    // Los listados globales no son de ningún cliente: cuentan en el compartimento sin cliente
+    @GetMapping
+    public CursorPage<ClientSummary> list(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        return bulkhead.call(null, TenantBulkhead.Workload.STANDARD,
+                () -> directoryService.clients(PageRequests.cursor(cursor), PageRequests.clamp(limit)));
+    }
+
+    @GetMapping("/search")
+    public List<SearchHit> search(@RequestParam("q") String query,
+                                  @RequestParam(required = false) Integer limit) {
+        return bulkhead.call(null, TenantBulkhead.Workload.STANDARD,
+                () -> directoryService.searchClients(query, PageRequests.clamp(limit)));
+    }
+
+    @GetMapping("/{clientId}/users")
+    public CursorPage<UserListItem> users(@PathVariable UUID clientId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        UUID tenant = tenantDirectory.requireActive(clientId).id();
+        return bulkhead.call(tenant, TenantBulkhead.Workload.STANDARD,
+                () -> directoryService.users(tenant, PageRequests.cursor(cursor), PageRequests.clamp(limit)));
+    }
+
+    // Las búsquedas pasan por el compartimento aunque el índice en memoria las resuelva:
+    // mientras no está cargado consultan la base de datos
+    @GetMapping("/{clientId}/users/search")
+    public List<UserListItem> searchUsers(@PathVariable UUID clientId,
+                                          @RequestParam("q") String query,
+                                          @RequestParam(required = false) Integer limit) {
+        UUID tenant = tenantDirectory.requireActive(clientId).id();
+        return bulkhead.call(tenant, TenantBulkhead.Workload.STANDARD,
+                () -> directoryService.searchUsers(tenant, query, PageRequests.clamp(limit)));
+    }
+
+    @GetMapping("/{clientId}/users/suggest")
+    public List<SearchHit> suggestUsers(@PathVariable UUID clientId,
+                                        @RequestParam("q") String query,
+                                        @RequestParam(required = false) Integer limit) {
+        UUID tenant = tenantDirectory.requireActive(clientId).id();
+        return bulkhead.call(tenant, TenantBulkhead.Workload.STANDARD,
+                () -> directoryService.suggestUsers(tenant, query, PageRequests.clamp(limit)));
+    }
+
+    @GetMapping("/{clientId}/roles")
+    public CursorPage<RoleSummary> roles(@PathVariable UUID clientId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        UUID tenant = tenantDirectory.requireActive(clientId).id();
+        return bulkhead.call(tenant, TenantBulkhead.Workload.STANDARD,
+                () -> directoryService.roles(tenant, PageRequests.cursor(cursor), PageRequests.clamp(limit)));
+    }
+
+    @GetMapping("/{clientId}/roles/search")
+    public List<SearchHit> searchRoles(@PathVariable UUID clientId,
+                                       @RequestParam("q") String query,
+                                       @RequestParam(required = false) Integer limit) {
+        UUID tenant = tenantDirectory.requireActive(clientId).id();
+        return bulkhead.call(tenant, TenantBulkhead.Workload.STANDARD,
+                () -> directoryService.searchRoles(tenant, query, PageRequests.clamp(limit)));
+    }
+}
@@ -0,0 +1,51 @@
+package com.vehiclemonitoring.auth.controller;
+
+import com.vehiclemonitoring.auth.service.ExportService;
+import com.vehiclemonitoring.auth.service.TenantDirectory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Endpoints de exportación en NDJSON; la respuesta se escribe a medida que se leen las filas.
+ * Solo para clientes activos según {@link TenantDirectory}.
+ */
+@RestController
+@RequestMapping("/api/clients/{clientId}/exports")
+public class ExportController {
+
+    private final ExportService exportService;
+    private final TenantDirectory tenantDirectory;
+
+    public ExportController(ExportService exportService, TenantDirectory tenantDirectory) {
+        this.exportService = exportService;
+        this.tenantDirectory = tenantDirectory;
+    }
+
+    @GetMapping("/tokens")
+    public ResponseEntity<StreamingResponseBody> tokens(
+            @PathVariable UUID clientId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since) {
+        UUID tenant = tenantDirectory.requireActive(clientId).id();
+        return ndjson(out -> exportService.exportTokens(tenant, since, out));
+    }
+
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> users(@PathVariable UUID clientId) {
+        UUID tenant = tenantDirectory.requireActive(clientId).id();
+        return ndjson(out -> exportService.exportUsers(tenant, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,51 @@
+package com.vehiclemonitoring.auth.controller;
+
+import com.vehiclemonitoring.auth.dto.TokenSummary;
+import com.vehiclemonitoring.auth.pagination.CursorPage;
+import com.vehiclemonitoring.auth.pagination.PageRequests;
+import com.vehiclemonitoring.auth.service.DirectoryService;
+import com.vehiclemonitoring.auth.service.TenantBulkhead;
+import com.vehiclemonitoring.auth.service.TenantDirectory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Endpoints de consulta sobre un usuario
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+
+    private final DirectoryService directoryService;
+    private final TenantDirectory tenantDirectory;
+    private final TenantBulkhead bulkhead;
+
+    public UserController(DirectoryService directoryService, TenantDirectory tenantDirectory,
+                          TenantBulkhead bulkhead) {
+        this.directoryService = directoryService;
+        this.tenantDirectory = tenantDirectory;
+        this.bulkhead = bulkhead;
+    }
+
+    @GetMapping("/{userId}/tokens")
+    public CursorPage<TokenSummary> tokens(@PathVariable UUID userId,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit) {
+        // El cliente del usuario se busca en el compartimento sin cliente, y el listado se
+        // atribuye después al compartimento de ese cliente
+        UUID clientId = bulkhead.call(null, TenantBulkhead.Workload.STANDARD,
+                () -> directoryService.userClientId(userId)).orElse(null);
+        if (clientId == null) {
+            return new CursorPage<>(List.of(), null);
+        }
+        UUID tenant = tenantDirectory.requireActive(clientId).id();
+        return bulkhead.call(tenant, TenantBulkhead.Workload.STANDARD,
+                () -> directoryService.tokens(userId, PageRequests.cursor(cursor), PageRequests.clamp(limit)));
+    }
+}
@@ -0,0 +1,17 @@
+package com.vehiclemonitoring.auth.dto;
+
+import com.vehiclemonitoring.auth.model.Client;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Vista de un cliente expuesta por la API REST
+ */
+public record ClientSummary(UUID id, String name, String slug, Boolean isActive, OffsetDateTime createdAt) {
+
+    public static ClientSummary from(Client client) {
+        return new ClientSummary(client.getId(), client.getName(), client.getSlug(), client.getIsActive(),
+                client.getCreatedAt());
+    }
+}
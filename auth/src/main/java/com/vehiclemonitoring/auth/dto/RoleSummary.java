@@ -0,0 +1,17 @@
+package com.vehiclemonitoring.auth.dto;
+
+import com.vehiclemonitoring.auth.model.Role;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Vista de un rol expuesta por la API REST
+ */
+public record RoleSummary(UUID id, String name, String description, Boolean isSystem, OffsetDateTime createdAt) {
+
+    public static RoleSummary from(Role role) {
+        return new RoleSummary(role.getId(), role.getName(), role.getDescription(), role.getIsSystem(),
+                role.getCreatedAt());
+    }
+}
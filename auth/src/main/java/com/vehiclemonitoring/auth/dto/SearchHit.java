@@ -0,0 +1,12 @@
+package com.vehiclemonitoring.auth.dto;
+
+import java.util.UUID;
+
+/**
+ * Resultado de una búsqueda de autocompletado
+ * @param id ID de la entidad encontrada
+ * @param title campo principal (email o nombre)
+ * @param subtitle campo secundario (nombre completo, descripción o slug)
+ */
+public record SearchHit(UUID id, String title, String subtitle) {
+}
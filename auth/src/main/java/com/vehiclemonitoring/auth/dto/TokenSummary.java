@@ -0,0 +1,18 @@
+package com.vehiclemonitoring.auth.dto;
+
+import com.vehiclemonitoring.auth.model.JwtToken;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Vista de un token emitido expuesta por la API REST; no incluye el token firmado
+ */
+public record TokenSummary(UUID id, String jti, String tokenType, OffsetDateTime issuedAt, OffsetDateTime expiresAt,
+                           OffsetDateTime revokedAt, String replacedByJti) {
+
+    public static TokenSummary from(JwtToken token) {
+        return new TokenSummary(token.getId(), token.getJti(), token.getTokenType(), token.getIssuedAt(),
+                token.getExpiresAt(), token.getRevokedAt(), token.getReplacedByJti());
+    }
+}
@@ -0,0 +1,14 @@
+package com.vehiclemonitoring.auth.event;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado cuando se crea, modifica o elimina un cliente
+ * @param id ID del cliente
+ * @param slug slug del cliente tras el cambio
+ * @param isActive estado del cliente tras el cambio
+ * @param metadata metadatos JSON del cliente tras el cambio
+ * @param removed true si el cliente se ha eliminado
+ */
+public record ClientChangedEvent(UUID id, String slug, Boolean isActive, String metadata, boolean removed) {
+}
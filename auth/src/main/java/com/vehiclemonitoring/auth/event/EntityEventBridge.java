@@ -0,0 +1,187 @@
+package com.vehiclemonitoring.auth.event;
+
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.JwtToken;
+import com.vehiclemonitoring.auth.model.Permission;
+import com.vehiclemonitoring.auth.model.Role;
+import com.vehiclemonitoring.auth.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Puente entre los eventos de Hibernate y los eventos de aplicación de Spring.
+ * Traduce los cambios persistidos sobre las entidades en eventos de dominio que
+ * los componentes en memoria consumen con {@code @TransactionalEventListener}.
+ */
+@Component
+public class EntityEventBridge implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String USER_ROLES = User.class.getName() + ".roles";
+    private static final String ROLE_PERMISSIONS = Role.class.getName() + ".permissions";
+    private static final Set<String> SEARCHABLE = Set.of("email", "fullName", "name", "description", "slug", "client");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher publisher;
+
+    public EntityEventBridge(EntityManagerFactory entityManagerFactory, ApplicationEventPublisher publisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.publisher = publisher;
+    }
+
+    @PostConstruct
+    void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof JwtToken token) {
+            if (token.isRevoked()) {
+                publisher.publishEvent(new JwtTokenRevokedEvent(token.getJti(), token.getUser().getId(),
+                    token.getTokenType(), token.getExpiresAt()));
+            } else {
+                publisher.publishEvent(new JwtTokenIssuedEvent(token.getJti(), token.getUser().getId(),
+                        token.getTokenType(), token.getExpiresAt()));
+            }
+        } else {
+            publishClientChanged(event.getEntity(), false);
+            publishSearchable(event.getEntity(), false);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof JwtToken token && token.isRevoked() && !wasRevoked(event)) {
+            publisher.publishEvent(new JwtTokenRevokedEvent(token.getJti(), token.getUser().getId(),
+                    token.getTokenType(), token.getExpiresAt()));
+        } else if (entity instanceof Permission permission) {
+            publisher.publishEvent(new PermissionCatalogChangedEvent(permission.getId()));
+        } else {
+            publishClientChanged(entity, false);
+            if (searchableChanged(event)) {
+                publishSearchable(entity, false);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Permission permission) {
+            publisher.publishEvent(new PermissionCatalogChangedEvent(permission.getId()));
+        } else {
+            publishClientChanged(event.getEntity(), true);
+            publishSearchable(event.getEntity(), true);
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollectionChanged(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void onCollectionChanged(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        if (!(event.getAffectedOwnerIdOrNull() instanceof UUID ownerId)) {
+            return;
+        }
+        if (USER_ROLES.equals(role)) {
+            publisher.publishEvent(new UserRolesChangedEvent(ownerId));
+        } else if (ROLE_PERMISSIONS.equals(role)) {
+            publisher.publishEvent(new RolePermissionsChangedEvent(ownerId));
+        }
+    }
+
+    private void publishClientChanged(Object entity, boolean removed) {
+        if (entity instanceof Client client) {
+            publisher.publishEvent(new ClientChangedEvent(client.getId(), client.getSlug(), client.getIsActive(),
+                    client.getMetadata(), removed));
+        }
+    }
+
+    private void publishSearchable(Object entity, boolean removed) {
+        SearchableEntityChangedEvent change;
+        if (entity instanceof User user) {
+            change = new SearchableEntityChangedEvent(SearchableEntityChangedEvent.Kind.USER, user.getId(),
+                    user.getClient().getId(), user.getEmail(), user.getFullName(), removed);
+        } else if (entity instanceof Role role) {
+            change = new SearchableEntityChangedEvent(SearchableEntityChangedEvent.Kind.ROLE, role.getId(),
+                    role.getClient().getId(), role.getName(), role.getDescription(), removed);
+        } else if (entity instanceof Client client) {
+            change = new SearchableEntityChangedEvent(SearchableEntityChangedEvent.Kind.CLIENT, client.getId(),
+                    client.getId(), client.getName(), client.getSlug(), removed);
+        } else {
+            return;
+        }
+        publisher.publishEvent(change);
+    }
+
+    // Evita publicar cambios de búsqueda en actualizaciones frecuentes como lastLogin
+    private static boolean searchableChanged(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (SEARCHABLE.contains(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean wasRevoked(PostUpdateEvent event) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            return false;
+        }
+        int index = event.getPersister().getEntityMetamodel().getPropertyIndex("revokedAt");
+        return oldState[index] != null;
+    }
+}
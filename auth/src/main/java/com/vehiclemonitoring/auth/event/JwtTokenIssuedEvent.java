@@ -0,0 +1,14 @@
+package com.vehiclemonitoring.auth.event;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Evento publicado cuando se persiste un token JWT nuevo no revocado
+ * @param jti identificador único del token
+ * @param userId ID del usuario propietario
+ * @param tokenType tipo de token
+ * @param expiresAt fecha de expiración del token, o null si no expira
+ */
+public record JwtTokenIssuedEvent(String jti, UUID userId, String tokenType, OffsetDateTime expiresAt) {
+}
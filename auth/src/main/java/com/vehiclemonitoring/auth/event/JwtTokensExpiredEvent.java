@@ -0,0 +1,20 @@
+package com.vehiclemonitoring.auth.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Evento publicado en lotes cuando vence un conjunto de tokens seguidos por la rueda temporal.
+ * Puede incluir tokens revocados antes de expirar: los consumidores deben ser idempotentes.
+ * @param tokens tokens expirados
+ */
+public record JwtTokensExpiredEvent(List<ExpiredToken> tokens) {
+
+    /**
+     * @param jti identificador único del token
+     * @param userId ID del usuario propietario
+     * @param tokenType tipo de token
+     */
+    public record ExpiredToken(String jti, UUID userId, String tokenType) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.vehiclemonitoring.auth.event;
+
+import com.vehiclemonitoring.auth.repository.projection.RevokedJti;
+
+import java.util.List;
+
+/**
+ * Evento publicado tras una revocación masiva de tokens con una única sentencia UPDATE.
+ * Las sentencias masivas no pasan por los listeners de Hibernate, así que este evento
+ * sustituye a los {@link JwtTokenRevokedEvent} individuales.
+ * @param tokens tokens revocados con su fecha de expiración
+ */
+public record JwtTokensRevokedEvent(List<RevokedJti> tokens) {
+}
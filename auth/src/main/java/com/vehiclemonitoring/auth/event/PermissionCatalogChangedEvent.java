@@ -0,0 +1,10 @@
+package com.vehiclemonitoring.auth.event;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado cuando un permiso se modifica o se elimina del catálogo
+ * @param permissionId ID del permiso
+ */
+public record PermissionCatalogChangedEvent(UUID permissionId) {
+}
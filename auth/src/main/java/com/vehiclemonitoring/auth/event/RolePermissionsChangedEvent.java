@@ -0,0 +1,10 @@
+package com.vehiclemonitoring.auth.event;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado cuando cambian las filas de {@code role_permissions} de un rol
+ * @param roleId ID del rol
+ */
+public record RolePermissionsChangedEvent(UUID roleId) {
+}
@@ -0,0 +1,20 @@
+package com.vehiclemonitoring.auth.event;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado cuando cambian los campos buscables de un usuario, rol o cliente
+ * @param kind tipo de entidad
+ * @param id ID de la entidad
+ * @param clientId cliente al que pertenece la entidad; para un cliente, su propio ID
+ * @param primary campo principal (email, nombre del rol o del cliente)
+ * @param secondary campo secundario (nombre completo, descripción o slug)
+ * @param removed true si la entidad se ha eliminado
+ */
+public record SearchableEntityChangedEvent(Kind kind, UUID id, UUID clientId, String primary, String secondary,
+                                           boolean removed) {
+
+    public enum Kind {
+        USER, ROLE, CLIENT
+    }
+}
@@ -0,0 +1,10 @@
+package com.vehiclemonitoring.auth.event;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado cuando cambian las filas de {@code user_roles} de un usuario
+ * @param userId ID del usuario
+ */
+public record UserRolesChangedEvent(UUID userId) {
+}
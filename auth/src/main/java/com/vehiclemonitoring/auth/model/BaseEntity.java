@@ -0,0 +1,87 @@
+package com.vehiclemonitoring.auth.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.vehiclemonitoring.auth.util.UuidV7;
+import jakarta.persistence.*;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.data.domain.Persistable;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Superclase de las entidades con identificador UUID asignado por la aplicación.
+ * El ID es un UUID v7 ordenado por tiempo, para que las inserciones no fragmenten
+ * el índice de la clave primaria. Se asigna al construir la entidad, así que
+ * equals/hashCode son estables antes y después de guardar la entidad y los
+ * HashSet de las relaciones reparten los elementos entre sus buckets.
+ * Comparar con un proxy perezoso usa su identificador sin inicializarlo.
+ */
+@MappedSuperclass
+public abstract class BaseEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id = UuidV7.generate();
+
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    /**
+     * Indica a Spring Data si debe usar persist (true) o merge (false) al guardar,
+     * ya que un ID asignado por la aplicación no distingue por sí solo una entidad nueva
+     */
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Por si se anuló el ID con setId(null) antes de persistir
+    @PrePersist
+    void assignId() {
+        if (id == null) {
+            id = UuidV7.generate();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BaseEntity other) || persistentClass(this) != persistentClass(o)) return false;
+        return Objects.equals(identifier(this), identifier(other));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(identifier(this));
+    }
+
+    // Hibernate.getClass inicializaría el proxy: la clase y el ID se leen de su LazyInitializer
+    private static Class<?> persistentClass(Object entity) {
+        return entity instanceof HibernateProxy proxy
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : entity.getClass();
+    }
+
+    private static Object identifier(BaseEntity entity) {
+        return entity instanceof HibernateProxy proxy
+                ? proxy.getHibernateLazyInitializer().getIdentifier()
+                : entity.id;
+    }
+}
@@ -0,0 +1,19 @@
+package com.vehiclemonitoring.auth.model;
+
+/**
+ * Nombres de las regiones de la caché de segundo nivel de Hibernate.
+ * El tamaño y la expiración de cada región se configuran en {@code application.conf}; los nombres
+ * no llevan puntos porque Caffeine JCache los interpreta como rutas de configuración y rechaza
+ * crear la caché ("is configured externally").
+ */
+public final class CacheRegions {
+
+    public static final String PERMISSION = "auth-permission";
+    public static final String ROLE = "auth-role";
+    public static final String ROLE_PERMISSIONS = "auth-role-permissions";
+    public static final String CLIENT = "auth-client";
+
+    public static final String PERMISSION_CATALOG_QUERY = "auth-query-permission-catalog";
+
+    private CacheRegions() {}
+}
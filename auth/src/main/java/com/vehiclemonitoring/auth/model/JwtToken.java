@@ -1,12 +1,14 @@
 package com.vehiclemonitoring.auth.model;
 
+import com.vehiclemonitoring.auth.util.CoarseClock;
+import com.vehiclemonitoring.auth.util.UuidV7;
 import jakarta.persistence.*;
-import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.UUID;
 
 /**
@@ -14,13 +16,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "jwt_tokens", schema = "auth")
-public class JwtToken {
-
-    @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @Column(name = "id", updatable = false, nullable = false)
-    private UUID id;
+public class JwtToken extends BaseEntity {
 
     @Column(name = "jti", nullable = false, unique = true)
     private String jti;
@@ -36,7 +32,8 @@ public class JwtToken {
     @JoinColumn(name = "client_id")
     private Client client;
 
-    @CreationTimestamp
+    // Se deriva del jti: la restricción jwt_tokens_issued_at_from_jti exige que coincida
+    // con la marca de tiempo de un jti UUID v7 (ver db/jwt_tokens_partitioning.sql)
     @Column(name = "issued_at", nullable = false, updatable = false)
     private OffsetDateTime issuedAt;
 
@@ -64,6 +61,7 @@ public class JwtToken {
         this.tokenType = tokenType;
         this.user = user;
         this.client = user.getClient();
+        this.issuedAt = issuedAtOf(jti);
     }
 
     public JwtToken(String jti, String tokenType, User user, OffsetDateTime expiresAt) {
@@ -72,23 +70,17 @@ public class JwtToken {
         this.user = user;
         this.client = user.getClient();
         this.expiresAt = expiresAt;
+        this.issuedAt = issuedAtOf(jti);
     }
 
     // Getters y Setters
-    public UUID getId() {
-        return id;
-    }
-
-    public void setId(UUID id) {
-        this.id = id;
-    }
-
     public String getJti() {
         return jti;
     }
 
     public void setJti(String jti) {
         this.jti = jti;
+        this.issuedAt = issuedAtOf(jti);
     }
 
     public String getTokenType() {
@@ -163,12 +155,37 @@ public class JwtToken {
         this.metadata = metadata;
     }
 
+    @PrePersist
+    void assignIssuedAt() {
+        if (issuedAt == null) {
+            issuedAt = issuedAtOf(jti);
+        }
+    }
+
+    /**
+     * @return marca de tiempo de un jti UUID v7, o el instante actual para cualquier otro jti
+     */
+    static OffsetDateTime issuedAtOf(String jti) {
+        long millis = -1;
+        if (jti != null) {
+            try {
+                millis = UuidV7.timestamp(UUID.fromString(jti));
+            } catch (IllegalArgumentException e) {
+                // jti que no es un UUID
+            }
+        }
+        return millis < 0 ? OffsetDateTime.now(ZoneOffset.UTC)
+                : OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
     // Métodos auxiliares
     public boolean isExpired() {
         if (expiresAt == null) {
             return false;
         }
-        return OffsetDateTime.now().isAfter(expiresAt);
+        // Sin crear objetos de fecha: se consulta en cada validación
+        long expiresAtMillis = expiresAt.toEpochSecond() * 1000 + expiresAt.getNano() / 1_000_000;
+        return CoarseClock.currentTimeMillis() > expiresAtMillis;
     }
 
     public boolean isRevoked() {
@@ -192,7 +209,7 @@ public class JwtToken {
     @Override
     public String toString() {
         return "JwtToken{" +
-                "id=" + id +
+                "id=" + getId() +
                 ", jti='" + jti + '\'' +
                 ", tokenType='" + tokenType + '\'' +
                 ", issuedAt=" + issuedAt +
@@ -200,17 +217,4 @@ public class JwtToken {
                 ", revokedAt=" + revokedAt +
                 '}';
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof JwtToken)) return false;
-        JwtToken jwtToken = (JwtToken) o;
-        return id != null && id.equals(jwtToken.getId());
-    }
-
-    @Override
-    public int hashCode() {
-        return getClass().hashCode();
-    }
 }
\ No newline at end of file
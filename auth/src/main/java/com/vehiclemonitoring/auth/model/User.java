@@ -1,27 +1,28 @@
 package com.vehiclemonitoring.auth.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * Entidad JPA para representar usuarios del sistema
  */
 @Entity
+@NamedEntityGraph(
+    name = User.GRAPH_ROLES_PERMISSIONS,
+    attributeNodes = @NamedAttributeNode(value = "roles", subgraph = "roles"),
+    subgraphs = @NamedSubgraph(name = "roles", attributeNodes = @NamedAttributeNode("permissions"))
+)
 @Table(name = "users", schema = "auth")
-public class User {
+public class User extends BaseEntity {
 
-    @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @Column(name = "id", updatable = false, nullable = false)
-    private UUID id;
+    /** Grafo que carga los roles del usuario y los permisos de cada rol en una sola consulta */
+    public static final String GRAPH_ROLES_PERMISSIONS = "User.rolesAndPermissions";
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false)
@@ -55,6 +56,7 @@ public class User {
 
     // Relaciones
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(
         name = "user_roles",
         schema = "auth",
@@ -83,14 +85,6 @@ public class User {
     }
 
     // Getters y Setters
-    public UUID getId() {
-        return id;
-    }
-
-    public void setId(UUID id) {
-        this.id = id;
-    }
-
     public Client getClient() {
         return client;
     }
@@ -190,11 +184,6 @@ public class User {
         role.getUsers().remove(this);
     }
 
-    public boolean hasRole(String roleName) {
-        return roles.stream()
-                .anyMatch(role -> role.getName().equals(roleName));
-    }
-
     public void addJwtToken(JwtToken token) {
         jwtTokens.add(token);
         token.setUser(this);
@@ -208,7 +197,7 @@ public class User {
     @Override
     public String toString() {
         return "User{" +
-                "id=" + id +
+                "id=" + getId() +
                 ", email='" + email + '\'' +
                 ", fullName='" + fullName + '\'' +
                 ", isActive=" + isActive +
@@ -216,17 +205,4 @@ public class User {
                 ", createdAt=" + createdAt +
                 '}';
     }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof User)) return false;
-        User user = (User) o;
-        return id != null && id.equals(user.getId());
-    }
-
-    @Override
-    public int hashCode() {
-        return getClass().hashCode();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.vehiclemonitoring.auth.pagination;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición de una paginación por clave (keyset) sobre (fecha, id).
+ * Se intercambia con el cliente como un token opaco en base64url.
+ * @param at fecha de la última fila devuelta
+ * @param id ID de la última fila devuelta
+ */
+public record Cursor(OffsetDateTime at, UUID id) {
+
+    private static final int ENCODED_BYTES = Long.BYTES * 3;
+    // Fechas admitidas en un cursor: años 1 a 9999
+    private static final long MIN_MICROS = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.parse("0001-01-01T00:00:00Z"));
+    private static final long MAX_MICROS = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.parse("9999-12-31T23:59:59.999999Z"));
+
+    /**
+     * @return token opaco que representa esta posición
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES);
+        buffer.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, at.toInstant()));
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param token token opaco recibido del cliente
+     * @return posición codificada en el token
+     * @throws IllegalArgumentException si el token no es válido
+     */
+    public static Cursor decode(String token) {
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        if (bytes.length != ENCODED_BYTES) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long micros = buffer.getLong();
+        // Un token manipulado puede llevar una fecha que PostgreSQL rechazaría con un error de servidor
+        if (micros < MIN_MICROS || micros > MAX_MICROS) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        OffsetDateTime at = OffsetDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneOffset.UTC);
+        return new Cursor(at, new UUID(buffer.getLong(), buffer.getLong()));
+    }
+}
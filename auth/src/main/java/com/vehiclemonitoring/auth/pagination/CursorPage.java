@@ -0,0 +1,27 @@
+package com.vehiclemonitoring.auth.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados de una paginación por clave
+ * @param items elementos de la página
+ * @param nextCursor token para pedir la página siguiente, o null si es la última
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Construye una página a partir de una consulta que pidió {@code limit + 1} filas;
+     * la fila sobrante solo indica que existe una página siguiente
+     * @param rows filas devueltas por la consulta
+     * @param limit tamaño de página solicitado
+     * @param keyOf extrae la posición de una fila
+     * @param mapper convierte cada fila en el elemento expuesto
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, int limit, Function<R, Cursor> keyOf, Function<R, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<R> page = hasNext ? rows.subList(0, limit) : rows;
+        String next = hasNext ? keyOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+}
@@ -0,0 +1,48 @@
+package com.vehiclemonitoring.auth.pagination;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Utilidades para interpretar los parámetros de paginación de las peticiones REST
+ */
+public final class PageRequests {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private PageRequests() {}
+
+    /**
+     * @return tamaño de página acotado a [1, MAX_LIMIT]
+     */
+    public static int clamp(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+
+    /**
+     * @return límite de la consulta: una fila más que la página para detectar si hay siguiente
+     */
+    public static Limit probe(int limit) {
+        return Limit.of(limit + 1);
+    }
+
+    /**
+     * @return posición decodificada, o null si no se envió cursor
+     * @throws ResponseStatusException 400 si el cursor no es válido
+     */
+    public static Cursor cursor(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return Cursor.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.vehiclemonitoring.auth.repository;
 
 import com.vehiclemonitoring.auth.model.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,12 +22,39 @@ import java.util.UUID;
 public interface ClientRepository extends JpaRepository<Client, UUID> {
 
     /**
-     * Busca un cliente por su slug único
+     * Busca un cliente por su slug único.
+     * Para resolver el cliente de una petición usar {@code TenantDirectory}, que lo mantiene en memoria.
      * @param slug slug del cliente
      * @return Optional con el cliente si existe
      */
     Optional<Client> findBySlug(String slug);
 
+    /**
+     * Busca un cliente por su slug leyendo siempre la base de datos, sin la caché de
+     * segundo nivel; la entrada de la caché se refresca con el resultado
+     * @param slug slug del cliente
+     * @return Optional con el cliente si existe
+     */
+    @QueryHints({
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    @Query("SELECT c FROM Client c WHERE c.slug = :slug")
+    Optional<Client> findUncachedBySlug(@Param("slug") String slug);
+
+    /**
+     * Busca un cliente por su ID leyendo siempre la base de datos, sin la caché de segundo
+     * nivel; la entrada de la caché se refresca con el resultado
+     * @param id ID del cliente
+     * @return Optional con el cliente si existe
+     */
+    @QueryHints({
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    @Query("SELECT c FROM Client c WHERE c.id = :id")
+    Optional<Client> findUncachedById(@Param("id") UUID id);
+
     /**
      * Busca un cliente por su nombre
      * @param name nombre del cliente
@@ -66,6 +98,18 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
            "LOWER(c.slug) LIKE LOWER(CONCAT('%', :searchText, '%'))")
     List<Client> findBySearchText(@Param("searchText") String searchText);
 
+    /**
+     * Variante acotada de {@link #findBySearchText} para la búsqueda de la API
+     * @param searchText texto a buscar
+     * @param limit número máximo de resultados
+     * @return Lista de clientes que coinciden, ordenados por nombre
+     */
+    @Query("SELECT c FROM Client c WHERE " +
+           "LOWER(c.name) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+           "LOWER(c.slug) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
+           "ORDER BY c.name")
+    List<Client> findBySearchText(@Param("searchText") String searchText, Limit limit);
+
     /**
      * Busca clientes activos que contengan el texto en su nombre o slug
      * @param searchText texto a buscar
@@ -93,4 +137,22 @@ public interface ClientRepository extends JpaRepository<Client, UUID> {
      * @return Lista de clientes activos ordenados por nombre
      */
     List<Client> findByIsActiveTrueOrderByNameAsc();
+
+    /**
+     * Primera página de clientes, del más reciente al más antiguo
+     * @param limit número máximo de filas
+     * @return Lista de clientes ordenados por (createdAt, id) descendente
+     */
+    @Query("SELECT c FROM Client c ORDER BY c.createdAt DESC, c.id DESC")
+    List<Client> findPage(Limit limit);
+
+    /**
+     * Página siguiente de clientes a partir de la última fila vista
+     * @param createdAt fecha de creación de la última fila vista
+     * @param id ID de la última fila vista
+     * @param limit número máximo de filas
+     * @return Lista de clientes ordenados por (createdAt, id) descendente
+     */
+    @Query("SELECT c FROM Client c WHERE (c.createdAt, c.id) < (:createdAt, :id) ORDER BY c.createdAt DESC, c.id DESC")
+    List<Client> findPageAfter(@Param("createdAt") OffsetDateTime createdAt, @Param("id") UUID id, Limit limit);
 }
\ No newline at end of file
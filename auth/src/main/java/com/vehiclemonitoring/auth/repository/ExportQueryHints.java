@@ -0,0 +1,15 @@
+package com.vehiclemonitoring.auth.repository;
+
+/**
+ * Valores compartidos por las consultas de exportación que devuelven {@code Stream}
+ */
+public final class ExportQueryHints {
+
+    /**
+     * Filas que el driver trae por viaje; con autocommit desactivado PostgreSQL
+     * usa un cursor de servidor en lugar de materializar todo el resultado
+     */
+    public static final String FETCH_SIZE = "500";
+
+    private ExportQueryHints() {}
+}
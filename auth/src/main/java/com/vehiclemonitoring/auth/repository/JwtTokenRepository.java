@@ -3,15 +3,23 @@ package com.vehiclemonitoring.auth.repository;
 import com.vehiclemonitoring.auth.model.JwtToken;
 import com.vehiclemonitoring.auth.model.User;
 import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.repository.projection.RevokedJti;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la entidad JwtToken
@@ -69,7 +77,8 @@ public interface JwtTokenRepository extends JpaRepository<JwtToken, UUID> {
     List<JwtToken> findByTokenType(String tokenType);
 
     /**
-     * Busca tokens activos de un usuario (no expirados ni revocados)
+     * Busca tokens activos de un usuario (no expirados ni revocados).
+     * Sin límite: para listarlos por páginas usar {@link #findActivePageByUserId}.
      * @param userId ID del usuario
      * @return Lista de tokens activos
      */
@@ -78,6 +87,35 @@ public interface JwtTokenRepository extends JpaRepository<JwtToken, UUID> {
            "(t.expiresAt IS NULL OR t.expiresAt > CURRENT_TIMESTAMP)")
     List<JwtToken> findActiveTokensByUserId(@Param("userId") UUID userId);
 
+    /**
+     * Primera página de tokens activos de un usuario, del más reciente al más antiguo.
+     * Variante por clave de {@link #findActiveTokensByUserId}.
+     * @param userId ID del usuario
+     * @param limit número máximo de filas
+     * @return Lista de tokens ordenados por (issuedAt, id) descendente
+     */
+    @Query("SELECT t FROM JwtToken t WHERE t.user.id = :userId AND " +
+           "t.revokedAt IS NULL AND " +
+           "(t.expiresAt IS NULL OR t.expiresAt > CURRENT_TIMESTAMP) " +
+           "ORDER BY t.issuedAt DESC, t.id DESC")
+    List<JwtToken> findActivePageByUserId(@Param("userId") UUID userId, Limit limit);
+
+    /**
+     * Página siguiente de {@link #findActivePageByUserId}
+     * @param userId ID del usuario
+     * @param issuedAt fecha de emisión de la última fila vista
+     * @param id ID de la última fila vista
+     * @param limit número máximo de filas
+     * @return Lista de tokens ordenados por (issuedAt, id) descendente
+     */
+    @Query("SELECT t FROM JwtToken t WHERE t.user.id = :userId AND " +
+           "t.revokedAt IS NULL AND " +
+           "(t.expiresAt IS NULL OR t.expiresAt > CURRENT_TIMESTAMP) AND " +
+           "(t.issuedAt, t.id) < (:issuedAt, :id) " +
+           "ORDER BY t.issuedAt DESC, t.id DESC")
+    List<JwtToken> findActivePageByUserIdAfter(@Param("userId") UUID userId, @Param("issuedAt") OffsetDateTime issuedAt,
+                                               @Param("id") UUID id, Limit limit);
+
     /**
      * Busca tokens activos de un usuario por tipo
      * @param userId ID del usuario
@@ -121,7 +159,9 @@ public interface JwtTokenRepository extends JpaRepository<JwtToken, UUID> {
     List<JwtToken> findTokensExpiringBefore(@Param("before") OffsetDateTime before);
 
     /**
-     * Busca tokens emitidos después de una fecha específica
+     * Busca tokens emitidos después de una fecha específica.
+     * Con la tabla particionada por issued_at solo se recorren las particiones desde {@code since}.
+     * Sin límite: para recorrerlos por páginas usar {@link #findPageIssuedAfterAndClientId}.
      * @param since fecha desde
      * @param clientId ID del cliente
      * @return Lista de tokens emitidos después de la fecha
@@ -129,6 +169,35 @@ public interface JwtTokenRepository extends JpaRepository<JwtToken, UUID> {
     @Query("SELECT t FROM JwtToken t WHERE t.client.id = :clientId AND t.issuedAt >= :since")
     List<JwtToken> findTokensIssuedAfterAndClientId(@Param("since") OffsetDateTime since, @Param("clientId") UUID clientId);
 
+    /**
+     * Primera página de tokens de un cliente emitidos desde una fecha, del más reciente al más antiguo.
+     * Variante por clave de {@link #findTokensIssuedAfterAndClientId}.
+     * @param since fecha desde
+     * @param clientId ID del cliente
+     * @param limit número máximo de filas
+     * @return Lista de tokens ordenados por (issuedAt, id) descendente
+     */
+    @Query("SELECT t FROM JwtToken t WHERE t.client.id = :clientId AND t.issuedAt >= :since " +
+           "ORDER BY t.issuedAt DESC, t.id DESC")
+    List<JwtToken> findPageIssuedAfterAndClientId(@Param("since") OffsetDateTime since, @Param("clientId") UUID clientId,
+                                                  Limit limit);
+
+    /**
+     * Página siguiente de {@link #findPageIssuedAfterAndClientId}
+     * @param since fecha desde
+     * @param clientId ID del cliente
+     * @param issuedAt fecha de emisión de la última fila vista
+     * @param id ID de la última fila vista
+     * @param limit número máximo de filas
+     * @return Lista de tokens ordenados por (issuedAt, id) descendente
+     */
+    @Query("SELECT t FROM JwtToken t WHERE t.client.id = :clientId AND t.issuedAt >= :since AND " +
+           "(t.issuedAt, t.id) < (:issuedAt, :id) " +
+           "ORDER BY t.issuedAt DESC, t.id DESC")
+    List<JwtToken> findPageIssuedAfterAndClientIdAfter(@Param("since") OffsetDateTime since, @Param("clientId") UUID clientId,
+                                                       @Param("issuedAt") OffsetDateTime issuedAt, @Param("id") UUID id,
+                                                       Limit limit);
+
     /**
      * Busca tokens que fueron reemplazados por otro token
      * @param clientId ID del cliente
@@ -161,18 +230,24 @@ public interface JwtTokenRepository extends JpaRepository<JwtToken, UUID> {
     long countByClientId(UUID clientId);
 
     /**
-     * Elimina tokens expirados anteriores a una fecha específica
+     * Elimina tokens expirados anteriores a una fecha específica en un único DELETE.
+     * En tablas grandes usar {@code TokenPurgeEngine}, que borra por lotes.
      * @param before fecha límite para eliminar tokens expirados
      * @return número de tokens eliminados
      */
+    @Modifying
+    @Transactional
     @Query("DELETE FROM JwtToken t WHERE t.expiresAt IS NOT NULL AND t.expiresAt <= :before")
     int deleteExpiredTokensBefore(@Param("before") OffsetDateTime before);
 
     /**
-     * Elimina tokens revocados anteriores a una fecha específica
+     * Elimina tokens revocados anteriores a una fecha específica en un único DELETE.
+     * En tablas grandes usar {@code TokenPurgeEngine}, que borra por lotes.
      * @param before fecha límite para eliminar tokens revocados
      * @return número de tokens eliminados
      */
+    @Modifying
+    @Transactional
     @Query("DELETE FROM JwtToken t WHERE t.revokedAt IS NOT NULL AND t.revokedAt <= :before")
     int deleteRevokedTokensBefore(@Param("before") OffsetDateTime before);
 
@@ -182,4 +257,92 @@ public interface JwtTokenRepository extends JpaRepository<JwtToken, UUID> {
      * @return Lista de tokens ordenados por fecha de emisión
      */
     List<JwtToken> findByUserIdOrderByIssuedAtDesc(UUID userId);
+
+    /**
+     * Busca los JTI de tokens revocados que aún no han expirado
+     * @param now fecha de referencia
+     * @return Lista de proyecciones (jti, expiresAt) de tokens revocados vigentes
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.RevokedJti(t.jti, t.user.id, t.tokenType, t.expiresAt) " +
+           "FROM JwtToken t WHERE t.revokedAt IS NOT NULL AND " +
+           "(t.expiresAt IS NULL OR t.expiresAt > :now)")
+    List<RevokedJti> findRevokedJtisNotExpiredAt(@Param("now") OffsetDateTime now);
+
+    /**
+     * Busca tokens expirados emitidos en un rango de fechas.
+     * El rango de issued_at permite descartar particiones completas.
+     * @param from fecha de emisión desde (inclusive)
+     * @param to fecha de emisión hasta (exclusive)
+     * @return Lista de tokens expirados emitidos en el rango
+     */
+    @Query("SELECT t FROM JwtToken t WHERE t.issuedAt >= :from AND t.issuedAt < :to AND " +
+           "t.expiresAt IS NOT NULL AND t.expiresAt <= CURRENT_TIMESTAMP")
+    List<JwtToken> findExpiredTokensIssuedBetween(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    /**
+     * Busca tokens activos de un usuario emitidos después de una fecha.
+     * Un token activo se emitió como mucho hace la vigencia máxima configurada, así que
+     * pasar {@code now - refreshTokenTtl} descarta las particiones antiguas.
+     * @param userId ID del usuario
+     * @param issuedAfter límite inferior de la fecha de emisión
+     * @return Lista de tokens activos
+     */
+    @Query("SELECT t FROM JwtToken t WHERE t.user.id = :userId AND t.issuedAt >= :issuedAfter AND " +
+           "t.revokedAt IS NULL AND " +
+           "(t.expiresAt IS NULL OR t.expiresAt > CURRENT_TIMESTAMP)")
+    List<JwtToken> findActiveTokensByUserIdIssuedAfter(@Param("userId") UUID userId,
+                                                       @Param("issuedAfter") OffsetDateTime issuedAfter);
+
+    /**
+     * Cuenta los tokens activos de un usuario emitidos después de una fecha
+     * @param userId ID del usuario
+     * @param issuedAfter límite inferior de la fecha de emisión
+     * @return número de tokens activos
+     */
+    @Query("SELECT COUNT(t) FROM JwtToken t WHERE t.user.id = :userId AND t.issuedAt >= :issuedAfter AND " +
+           "t.revokedAt IS NULL AND " +
+           "(t.expiresAt IS NULL OR t.expiresAt > CURRENT_TIMESTAMP)")
+    long countActiveTokensByUserIdIssuedAfter(@Param("userId") UUID userId,
+                                              @Param("issuedAfter") OffsetDateTime issuedAfter);
+
+    /**
+     * Primera página de tokens de un usuario, del más reciente al más antiguo.
+     * Variante por clave de {@link #findByUserIdOrderByIssuedAtDesc}.
+     * @param userId ID del usuario
+     * @param limit número máximo de filas
+     * @return Lista de tokens ordenados por (issuedAt, id) descendente
+     */
+    @Query("SELECT t FROM JwtToken t WHERE t.user.id = :userId ORDER BY t.issuedAt DESC, t.id DESC")
+    List<JwtToken> findPageByUserId(@Param("userId") UUID userId, Limit limit);
+
+    /**
+     * Página siguiente de tokens de un usuario a partir de la última fila vista
+     * @param userId ID del usuario
+     * @param issuedAt fecha de emisión de la última fila vista
+     * @param id ID de la última fila vista
+     * @param limit número máximo de filas
+     * @return Lista de tokens ordenados por (issuedAt, id) descendente
+     */
+    @Query("SELECT t FROM JwtToken t WHERE t.user.id = :userId AND (t.issuedAt, t.id) < (:issuedAt, :id) " +
+           "ORDER BY t.issuedAt DESC, t.id DESC")
+    List<JwtToken> findPageByUserIdAfter(@Param("userId") UUID userId, @Param("issuedAt") OffsetDateTime issuedAt,
+                                         @Param("id") UUID id, Limit limit);
+
+    /**
+     * Recorre los tokens emitidos por un cliente desde una fecha sin materializar la lista.
+     * Variante en streaming de {@link #findTokensIssuedAfterAndClientId}; debe consumirse
+     * dentro de una transacción y cerrarse al terminar.
+     * @param since fecha desde
+     * @param clientId ID del cliente
+     * @return Stream de tokens ordenados por (issuedAt, id)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportQueryHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM JwtToken t WHERE t.client.id = :clientId AND t.issuedAt >= :since " +
+           "ORDER BY t.issuedAt, t.id")
+    Stream<JwtToken> streamTokensIssuedAfterAndClientId(@Param("since") OffsetDateTime since,
+                                                        @Param("clientId") UUID clientId);
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.vehiclemonitoring.auth.repository;
 
+import com.vehiclemonitoring.auth.model.CacheRegions;
 import com.vehiclemonitoring.auth.model.Permission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -44,6 +48,10 @@ public interface PermissionRepository extends JpaRepository<Permission, UUID> {
      * Busca todos los permisos ordenados por nombre
      * @return Lista de permisos ordenados por nombre
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PERMISSION_CATALOG_QUERY)
+    })
     List<Permission> findAllByOrderByNameAsc();
 
     /**
@@ -61,6 +69,14 @@ public interface PermissionRepository extends JpaRepository<Permission, UUID> {
     @Query("SELECT p FROM Permission p JOIN p.roles r WHERE r.id = :roleId")
     List<Permission> findByRoleId(@Param("roleId") UUID roleId);
 
+    /**
+     * Busca los nombres de los permisos asignados a un rol específico
+     * @param roleId ID del rol
+     * @return Lista de nombres de permisos del rol
+     */
+    @Query("SELECT p.name FROM Permission p JOIN p.roles r WHERE r.id = :roleId")
+    List<String> findNamesByRoleId(@Param("roleId") UUID roleId);
+
     /**
      * Busca permisos asignados a roles de un cliente específico
      * @param clientId ID del cliente
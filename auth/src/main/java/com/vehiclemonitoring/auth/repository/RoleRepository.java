@@ -2,11 +2,15 @@ package com.vehiclemonitoring.auth.repository;
 
 import com.vehiclemonitoring.auth.model.Role;
 import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.repository.projection.RoleRef;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -80,6 +84,20 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
            "LOWER(r.description) LIKE LOWER(CONCAT('%', :searchText, '%')))")
     List<Role> findBySearchTextAndClientId(@Param("searchText") String searchText, @Param("clientId") UUID clientId);
 
+    /**
+     * Variante acotada de {@link #findBySearchTextAndClientId} para la búsqueda de la API
+     * @param searchText texto a buscar
+     * @param clientId ID del cliente
+     * @param limit número máximo de resultados
+     * @return Lista de roles que coinciden, ordenados por nombre
+     */
+    @Query("SELECT r FROM Role r WHERE r.client.id = :clientId AND (" +
+           "LOWER(r.name) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+           "LOWER(r.description) LIKE LOWER(CONCAT('%', :searchText, '%'))) " +
+           "ORDER BY r.name")
+    List<Role> findBySearchTextAndClientId(@Param("searchText") String searchText, @Param("clientId") UUID clientId,
+                                           Limit limit);
+
     /**
      * Busca todos los roles de un cliente ordenados por nombre
      * @param clientId ID del cliente
@@ -113,6 +131,16 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
     @Query("SELECT r FROM Role r JOIN r.users u WHERE u.id = :userId AND r.client.id = :clientId")
     List<Role> findByUserIdAndClientId(@Param("userId") UUID userId, @Param("clientId") UUID clientId);
 
+    /**
+     * Busca el ID y el nombre de los roles asignados a un usuario, sin cargar las entidades
+     * @param userId ID del usuario
+     * @param clientId ID del cliente
+     * @return Lista de referencias a los roles del usuario
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.RoleRef(r.id, r.name) " +
+           "FROM Role r JOIN r.users u WHERE u.id = :userId AND r.client.id = :clientId")
+    List<RoleRef> findRoleRefsByUserIdAndClientId(@Param("userId") UUID userId, @Param("clientId") UUID clientId);
+
     /**
      * Cuenta el número total de roles de un cliente
      * @param clientId ID del cliente
@@ -142,4 +170,36 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
      */
     @Query("SELECT r FROM Role r WHERE r.client.id = :clientId AND r.users IS EMPTY")
     List<Role> findUnassignedRolesByClientId(@Param("clientId") UUID clientId);
+
+    /**
+     * Primera página de roles de un cliente, del más reciente al más antiguo.
+     * Variante por clave de {@link #findByClientId}.
+     * @param clientId ID del cliente
+     * @param limit número máximo de filas
+     * @return Lista de roles ordenados por (createdAt, id) descendente
+     */
+    @Query("SELECT r FROM Role r WHERE r.client.id = :clientId ORDER BY r.createdAt DESC, r.id DESC")
+    List<Role> findPageByClientId(@Param("clientId") UUID clientId, Limit limit);
+
+    /**
+     * Página siguiente de roles de un cliente a partir de la última fila vista
+     * @param clientId ID del cliente
+     * @param createdAt fecha de creación de la última fila vista
+     * @param id ID de la última fila vista
+     * @param limit número máximo de filas
+     * @return Lista de roles ordenados por (createdAt, id) descendente
+     */
+    @Query("SELECT r FROM Role r WHERE r.client.id = :clientId AND (r.createdAt, r.id) < (:createdAt, :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Role> findPageByClientIdAfter(@Param("clientId") UUID clientId, @Param("createdAt") OffsetDateTime createdAt,
+                                       @Param("id") UUID id, Limit limit);
+
+    /**
+     * Busca los roles de un cliente con sus permisos en una sola consulta
+     * @param clientId ID del cliente
+     * @return Lista de roles con permisos inicializados
+     */
+    @EntityGraph(attributePaths = "permissions")
+    @Query("SELECT r FROM Role r WHERE r.client.id = :clientId")
+    List<Role> findWithPermissionsByClientId(@Param("clientId") UUID clientId);
 }
\ No newline at end of file
@@ -2,15 +2,26 @@ package com.vehiclemonitoring.auth.repository;
 
 import com.vehiclemonitoring.auth.model.User;
 import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.repository.projection.LoginCandidate;
+import com.vehiclemonitoring.auth.repository.projection.UserListItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la entidad User
@@ -41,6 +52,40 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     Optional<User> findByEmailAndClientId(String email, UUID clientId);
 
+    /**
+     * Sustituye el hash de la contraseña solo si no ha cambiado desde que se leyó
+     * @param id ID del usuario
+     * @param currentHash hash leído al verificar la contraseña
+     * @param newHash hash nuevo
+     * @return número de filas actualizadas (0 si otro proceso cambió la contraseña)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :currentHash")
+    int updatePasswordHashIfUnchanged(@Param("id") UUID id, @Param("currentHash") String currentHash,
+                                      @Param("newHash") String newHash);
+
+    /**
+     * Busca los datos de inicio de sesión de un usuario por email
+     * @param email email del usuario
+     * @return Optional con la proyección si el usuario existe
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.LoginCandidate(" +
+           "u.id, u.client.id, u.email, u.passwordHash, u.isActive) FROM User u WHERE u.email = :email")
+    Optional<LoginCandidate> findLoginCandidateByEmail(@Param("email") String email);
+
+    /**
+     * Busca los datos de inicio de sesión de un usuario por email y cliente ID
+     * @param email email del usuario
+     * @param clientId ID del cliente
+     * @return Optional con la proyección si el usuario existe
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.LoginCandidate(" +
+           "u.id, u.client.id, u.email, u.passwordHash, u.isActive) FROM User u " +
+           "WHERE u.email = :email AND u.client.id = :clientId")
+    Optional<LoginCandidate> findLoginCandidateByEmailAndClientId(@Param("email") String email,
+                                                                  @Param("clientId") UUID clientId);
+
     /**
      * Verifica si existe un usuario con el email dado
      * @param email email del usuario
@@ -63,6 +108,14 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     List<User> findByClient(Client client);
 
+    /**
+     * Cliente al que pertenece un usuario, sin cargar la entidad
+     * @param id ID del usuario
+     * @return Optional con el ID del cliente si el usuario existe
+     */
+    @Query("SELECT u.client.id FROM User u WHERE u.id = :id")
+    Optional<UUID> findClientIdById(@Param("id") UUID id);
+
     /**
      * Busca todos los usuarios de un cliente por ID
      * @param clientId ID del cliente
@@ -141,7 +194,8 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     long countByClientId(UUID clientId);
 
     /**
-     * Busca usuarios con permisos específicos
+     * Busca usuarios con permisos específicos.
+     * Sin límite: para listarlos por páginas usar {@link #findPageByPermissionNameAndClientId}.
      * @param permissionName nombre del permiso
      * @param clientId ID del cliente
      * @return Lista de usuarios con el permiso
@@ -150,10 +204,144 @@ public interface UserRepository extends JpaRepository<User, UUID> {
            "WHERE p.name = :permissionName AND u.client.id = :clientId")
     List<User> findByPermissionNameAndClientId(@Param("permissionName") String permissionName, @Param("clientId") UUID clientId);
 
+    /**
+     * Primera página de usuarios con un permiso, del más reciente al más antiguo.
+     * Variante por clave de {@link #findByPermissionNameAndClientId}; el EXISTS evita el DISTINCT
+     * sobre el producto de roles y permisos.
+     * @param permissionName nombre del permiso
+     * @param clientId ID del cliente
+     * @param limit número máximo de filas
+     * @return Lista de proyecciones ordenadas por (createdAt, id) descendente
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.UserListItem(" +
+           "u.id, u.email, u.fullName, u.isActive, u.isEmailVerified, u.lastLogin, u.createdAt) " +
+           "FROM User u WHERE u.client.id = :clientId AND EXISTS (" +
+           "SELECT 1 FROM User u2 JOIN u2.roles r JOIN r.permissions p " +
+           "WHERE u2.id = u.id AND p.name = :permissionName) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserListItem> findPageByPermissionNameAndClientId(@Param("permissionName") String permissionName,
+                                                           @Param("clientId") UUID clientId, Limit limit);
+
+    /**
+     * Página siguiente de {@link #findPageByPermissionNameAndClientId}
+     * @param permissionName nombre del permiso
+     * @param clientId ID del cliente
+     * @param createdAt fecha de creación de la última fila vista
+     * @param id ID de la última fila vista
+     * @param limit número máximo de filas
+     * @return Lista de proyecciones ordenadas por (createdAt, id) descendente
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.UserListItem(" +
+           "u.id, u.email, u.fullName, u.isActive, u.isEmailVerified, u.lastLogin, u.createdAt) " +
+           "FROM User u WHERE u.client.id = :clientId AND EXISTS (" +
+           "SELECT 1 FROM User u2 JOIN u2.roles r JOIN r.permissions p " +
+           "WHERE u2.id = u.id AND p.name = :permissionName) " +
+           "AND (u.createdAt, u.id) < (:createdAt, :id) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserListItem> findPageByPermissionNameAndClientIdAfter(@Param("permissionName") String permissionName,
+                                                                @Param("clientId") UUID clientId,
+                                                                @Param("createdAt") OffsetDateTime createdAt,
+                                                                @Param("id") UUID id, Limit limit);
+
     /**
      * Busca todos los usuarios de un cliente ordenados por fecha de creación
      * @param clientId ID del cliente
      * @return Lista de usuarios ordenados por fecha de creación descendente
      */
     List<User> findByClientIdOrderByCreatedAtDesc(UUID clientId);
+
+    /**
+     * Primera página de usuarios de un cliente, del más reciente al más antiguo.
+     * Variante por clave de {@link #findByClientId} y {@link #findByClientIdOrderByCreatedAtDesc}.
+     * @param clientId ID del cliente
+     * @param limit número máximo de filas
+     * @return Lista de proyecciones ordenadas por (createdAt, id) descendente
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.UserListItem(" +
+           "u.id, u.email, u.fullName, u.isActive, u.isEmailVerified, u.lastLogin, u.createdAt) " +
+           "FROM User u WHERE u.client.id = :clientId ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserListItem> findPageByClientId(@Param("clientId") UUID clientId, Limit limit);
+
+    /**
+     * Página siguiente de usuarios de un cliente a partir de la última fila vista
+     * @param clientId ID del cliente
+     * @param createdAt fecha de creación de la última fila vista
+     * @param id ID de la última fila vista
+     * @param limit número máximo de filas
+     * @return Lista de proyecciones ordenadas por (createdAt, id) descendente
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.UserListItem(" +
+           "u.id, u.email, u.fullName, u.isActive, u.isEmailVerified, u.lastLogin, u.createdAt) " +
+           "FROM User u WHERE u.client.id = :clientId AND (u.createdAt, u.id) < (:createdAt, :id) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserListItem> findPageByClientIdAfter(@Param("clientId") UUID clientId, @Param("createdAt") OffsetDateTime createdAt,
+                                       @Param("id") UUID id, Limit limit);
+
+    /**
+     * Recorre los usuarios de un cliente sin materializar la lista.
+     * Variante en streaming de {@link #findByClientId}; debe consumirse
+     * dentro de una transacción y cerrarse al terminar.
+     * @param clientId ID del cliente
+     * @return Stream de proyecciones ordenadas por (createdAt, id)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportQueryHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.UserListItem(" +
+           "u.id, u.email, u.fullName, u.isActive, u.isEmailVerified, u.lastLogin, u.createdAt) " +
+           "FROM User u WHERE u.client.id = :clientId ORDER BY u.createdAt, u.id")
+    Stream<UserListItem> streamByClientId(@Param("clientId") UUID clientId);
+
+    /**
+     * Busca un usuario con sus roles y los permisos de cada rol en una sola consulta
+     * @param id ID del usuario
+     * @return Optional con el usuario si existe
+     */
+    @EntityGraph(User.GRAPH_ROLES_PERMISSIONS)
+    Optional<User> findWithRolesAndPermissionsById(UUID id);
+
+    /**
+     * Variante de {@link #findByPermissionNameAndClientId} que devuelve los usuarios con sus
+     * roles y permisos completos. El filtro va en una subconsulta para que los joins del
+     * grafo no queden restringidos al permiso buscado.
+     * @param permissionName nombre del permiso
+     * @param clientId ID del cliente
+     * @return Lista de usuarios con el permiso, con roles y permisos inicializados
+     */
+    @EntityGraph(User.GRAPH_ROLES_PERMISSIONS)
+    @Query("SELECT u FROM User u WHERE u.id IN (" +
+           "SELECT u2.id FROM User u2 JOIN u2.roles r JOIN r.permissions p " +
+           "WHERE p.name = :permissionName AND u2.client.id = :clientId)")
+    List<User> findWithRolesAndPermissionsByPermissionNameAndClientId(@Param("permissionName") String permissionName,
+                                                                       @Param("clientId") UUID clientId);
+
+    /**
+     * Variante ligera de {@link #findBySearchTextAndClientId} para la búsqueda de la API
+     * @param searchText texto a buscar
+     * @param clientId ID del cliente
+     * @param limit número máximo de resultados
+     * @return Lista de proyecciones que coinciden, ordenadas por email
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.UserListItem(" +
+           "u.id, u.email, u.fullName, u.isActive, u.isEmailVerified, u.lastLogin, u.createdAt) " +
+           "FROM User u WHERE u.client.id = :clientId AND (" +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+           "LOWER(u.fullName) LIKE LOWER(CONCAT('%', :searchText, '%'))) " +
+           "ORDER BY u.email")
+    List<UserListItem> searchListItemsByClientId(@Param("searchText") String searchText,
+                                                 @Param("clientId") UUID clientId, Limit limit);
+
+    /**
+     * Proyecciones de los usuarios indicados que pertenecen al cliente
+     * @param clientId ID del cliente
+     * @param ids IDs de los usuarios
+     * @return Lista de proyecciones, sin orden definido
+     */
+    @Query("SELECT new com.vehiclemonitoring.auth.repository.projection.UserListItem(" +
+           "u.id, u.email, u.fullName, u.isActive, u.isEmailVerified, u.lastLogin, u.createdAt) " +
+           "FROM User u WHERE u.client.id = :clientId AND u.id IN :ids")
+    List<UserListItem> findListItemsByClientIdAndIdIn(@Param("clientId") UUID clientId,
+                                                      @Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
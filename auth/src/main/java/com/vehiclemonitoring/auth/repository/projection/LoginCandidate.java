@@ -0,0 +1,10 @@
+package com.vehiclemonitoring.auth.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Proyección de un usuario con lo necesario para verificar un inicio de sesión.
+ * Es inmutable, así que puede compartirse entre hilos sin depender de una sesión de Hibernate.
+ */
+public record LoginCandidate(UUID id, UUID clientId, String email, String passwordHash, Boolean isActive) {
+}
@@ -0,0 +1,10 @@
+package com.vehiclemonitoring.auth.repository.projection;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Proyección mínima de un token revocado: su JTI, su propietario, su tipo y su fecha de expiración
+ */
+public record RevokedJti(String jti, UUID userId, String tokenType, OffsetDateTime expiresAt) {
+}
@@ -0,0 +1,9 @@
+package com.vehiclemonitoring.auth.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Proyección mínima de un rol: su ID y su nombre
+ */
+public record RoleRef(UUID id, String name) {
+}
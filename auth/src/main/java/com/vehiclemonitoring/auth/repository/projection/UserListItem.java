@@ -0,0 +1,13 @@
+package com.vehiclemonitoring.auth.repository.projection;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Proyección de un usuario para listados y búsquedas.
+ * No incluye el hash de la contraseña ni las relaciones, y al no ser una entidad
+ * no entra en el contexto de persistencia ni en el dirty checking.
+ */
+public record UserListItem(UUID id, String email, String fullName, Boolean isActive, Boolean isEmailVerified,
+                           OffsetDateTime lastLogin, OffsetDateTime createdAt) {
+}
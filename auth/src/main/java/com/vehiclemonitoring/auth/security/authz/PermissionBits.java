@@ -0,0 +1,100 @@
+package com.vehiclemonitoring.auth.security.authz;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto inmutable de permisos compilado como mapa de bits.
+ * Cada bit corresponde al id denso asignado por {@link PermissionIdRegistry}.
+ */
+public final class PermissionBits {
+
+    public static final PermissionBits EMPTY = new PermissionBits(new long[0]);
+
+    private final long[] words;
+
+    private PermissionBits(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * @param ids ids densos de los permisos
+     * @return conjunto con los permisos dados
+     */
+    public static PermissionBits of(int... ids) {
+        if (ids.length == 0) {
+            return EMPTY;
+        }
+        int max = 0;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        long[] words = new long[(max >>> 6) + 1];
+        for (int id : ids) {
+            words[id >>> 6] |= 1L << id;
+        }
+        return new PermissionBits(words);
+    }
+
+    /**
+     * Une varios conjuntos de permisos
+     */
+    public static PermissionBits union(Iterable<PermissionBits> sets) {
+        long[] words = new long[0];
+        for (PermissionBits set : sets) {
+            if (set.words.length > words.length) {
+                words = Arrays.copyOf(words, set.words.length);
+            }
+            for (int i = 0; i < set.words.length; i++) {
+                words[i] |= set.words[i];
+            }
+        }
+        return words.length == 0 ? EMPTY : new PermissionBits(words);
+    }
+
+    public boolean contains(int id) {
+        int word = id >>> 6;
+        return id >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PermissionBits)) return false;
+        PermissionBits other = (PermissionBits) o;
+        int common = Math.min(words.length, other.words.length);
+        for (int i = 0; i < common; i++) {
+            if (words[i] != other.words[i]) return false;
+        }
+        long[] longer = words.length > other.words.length ? words : other.words;
+        for (int i = common; i < longer.length; i++) {
+            if (longer[i] != 0) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, length));
+    }
+}
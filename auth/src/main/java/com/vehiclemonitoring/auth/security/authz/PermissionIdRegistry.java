@@ -0,0 +1,36 @@
+package com.vehiclemonitoring.auth.security.authz;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asigna ids enteros densos y estables a los nombres de permiso.
+ * Los ids no se reutilizan: un permiso renombrado o eliminado deja su id libre de bits.
+ */
+public class PermissionIdRegistry {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * @param permissionName nombre del permiso
+     * @return id denso del permiso, asignándolo si aún no lo tiene
+     */
+    public int register(String permissionName) {
+        return ids.computeIfAbsent(permissionName, name -> nextId.getAndIncrement());
+    }
+
+    /**
+     * @param permissionName nombre del permiso
+     * @return id denso del permiso, o -1 si nunca se ha registrado
+     */
+    public int idOf(String permissionName) {
+        Integer id = ids.get(permissionName);
+        return id == null ? -1 : id;
+    }
+
+    public int size() {
+        return nextId.get();
+    }
+}
@@ -0,0 +1,115 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Codec base64url sin relleno (RFC 4648 §5) que trabaja directamente sobre
+ * arreglos de bytes, sin crear Strings intermedios.
+ */
+public final class Base64Url {
+
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = i;
+        }
+    }
+
+    private Base64Url() {}
+
+    /**
+     * @param length número de bytes a codificar
+     * @return número de caracteres que ocupa su codificación
+     */
+    public static int encodedLength(int length) {
+        int remainder = length % 3;
+        return (length / 3) * 4 + (remainder == 0 ? 0 : remainder + 1);
+    }
+
+    /**
+     * @param length número de caracteres codificados
+     * @return número máximo de bytes que produce su decodificación
+     */
+    public static int decodedLength(int length) {
+        int remainder = length % 4;
+        return (length / 4) * 3 + (remainder == 0 ? 0 : remainder - 1);
+    }
+
+    /**
+     * Codifica {@code length} bytes de {@code src} en {@code dst}
+     * @return número de bytes escritos en {@code dst}
+     */
+    public static int encode(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        int s = srcOffset;
+        int d = dstOffset;
+        int end = srcOffset + length - length % 3;
+        while (s < end) {
+            int bits = (src[s++] & 0xff) << 16 | (src[s++] & 0xff) << 8 | (src[s++] & 0xff);
+            dst[d++] = ALPHABET[bits >>> 18];
+            dst[d++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[d++] = ALPHABET[(bits >>> 6) & 0x3f];
+            dst[d++] = ALPHABET[bits & 0x3f];
+        }
+        int remainder = length % 3;
+        if (remainder == 1) {
+            int bits = (src[s] & 0xff) << 16;
+            dst[d++] = ALPHABET[bits >>> 18];
+            dst[d++] = ALPHABET[(bits >>> 12) & 0x3f];
+        } else if (remainder == 2) {
+            int bits = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8;
+            dst[d++] = ALPHABET[bits >>> 18];
+            dst[d++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[d++] = ALPHABET[(bits >>> 6) & 0x3f];
+        }
+        return d - dstOffset;
+    }
+
+    /**
+     * Decodifica {@code length} caracteres de {@code src} en {@code dst}.
+     * Rechaza caracteres fuera del alfabeto, relleno y codificaciones no canónicas.
+     * @return número de bytes escritos en {@code dst}, o -1 si la entrada no es válida
+     */
+    public static int decode(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        int remainder = length % 4;
+        if (remainder == 1) {
+            return -1;
+        }
+        int s = srcOffset;
+        int d = dstOffset;
+        int end = srcOffset + length - remainder;
+        while (s < end) {
+            int bits = value(src[s++]) << 18 | value(src[s++]) << 12 | value(src[s++]) << 6 | value(src[s++]);
+            if (bits < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >>> 16);
+            dst[d++] = (byte) (bits >>> 8);
+            dst[d++] = (byte) bits;
+        }
+        if (remainder == 2) {
+            int bits = value(src[s]) << 18 | value(src[s + 1]) << 12;
+            if (bits < 0 || (bits & 0xffff) != 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >>> 16);
+        } else if (remainder == 3) {
+            int bits = value(src[s]) << 18 | value(src[s + 1]) << 12 | value(src[s + 2]) << 6;
+            if (bits < 0 || (bits & 0xff) != 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >>> 16);
+            dst[d++] = (byte) (bits >>> 8);
+        }
+        return d - dstOffset;
+    }
+
+    private static int value(byte b) {
+        return b < 0 ? -1 : DECODE[b];
+    }
+}
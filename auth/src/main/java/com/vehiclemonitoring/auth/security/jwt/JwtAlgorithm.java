@@ -0,0 +1,26 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+/**
+ * Algoritmos de firma JWS soportados
+ */
+public enum JwtAlgorithm {
+
+    HS256("HmacSHA256", 32),
+    ES256("SHA256withECDSAinP1363Format", 64);
+
+    private final String jcaName;
+    private final int signatureLength;
+
+    JwtAlgorithm(String jcaName, int signatureLength) {
+        this.jcaName = jcaName;
+        this.signatureLength = signatureLength;
+    }
+
+    public String getJcaName() {
+        return jcaName;
+    }
+
+    public int getSignatureLength() {
+        return signatureLength;
+    }
+}
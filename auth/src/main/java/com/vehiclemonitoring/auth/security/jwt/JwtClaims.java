@@ -0,0 +1,14 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+/**
+ * Claims de un token JWT emitido por este servicio
+ * @param jti identificador único del token
+ * @param subject ID del usuario
+ * @param clientId ID del cliente (tenant)
+ * @param tokenType tipo de token (e.g., "access", "refresh")
+ * @param issuedAt fecha de emisión en segundos epoch
+ * @param expiresAt fecha de expiración en segundos epoch
+ */
+public record JwtClaims(String jti, String subject, String clientId, String tokenType,
+                        long issuedAt, long expiresAt) {
+}
@@ -0,0 +1,387 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializa y lee el payload JSON de los tokens.
+ * La lectura recorre los bytes una sola vez y solo materializa los campos que
+ * usa el servicio (jti, sub, client, typ, iat, exp); el resto se salta sin copiarse.
+ */
+public final class JwtClaimsCodec {
+
+    private static final byte[] JTI = ascii("jti");
+    private static final byte[] SUB = ascii("sub");
+    private static final byte[] CLIENT = ascii("client");
+    private static final byte[] TYP = ascii("typ");
+    private static final byte[] IAT = ascii("iat");
+    private static final byte[] EXP = ascii("exp");
+
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private JwtClaimsCodec() {}
+
+    /**
+     * @return cota superior del tamaño en bytes del JSON de los claims
+     */
+    public static int maxEncodedLength(JwtClaims claims) {
+        // 6 bytes por carácter cubre el peor caso de escape (\\u00XX)
+        return 96 + 6 * (length(claims.jti()) + length(claims.subject())
+                + length(claims.clientId()) + length(claims.tokenType()));
+    }
+
+    /**
+     * Escribe los claims como JSON en {@code dst}
+     * @return posición siguiente al último byte escrito
+     */
+    public static int write(JwtClaims claims, byte[] dst, int offset) {
+        int p = offset;
+        dst[p++] = '{';
+        p = writeString(JTI, claims.jti(), dst, p, true);
+        p = writeString(SUB, claims.subject(), dst, p, false);
+        p = writeString(CLIENT, claims.clientId(), dst, p, false);
+        p = writeString(TYP, claims.tokenType(), dst, p, false);
+        p = writeNumber(IAT, claims.issuedAt(), dst, p);
+        p = writeNumber(EXP, claims.expiresAt(), dst, p);
+        dst[p++] = '}';
+        return p;
+    }
+
+    /**
+     * Lee los claims conocidos de un objeto JSON
+     * @throws JwtValidationException si el JSON está mal formado o falta {@code jti} o {@code exp}
+     */
+    public static JwtClaims read(byte[] src, int offset, int length) {
+        return new Reader(src, offset, offset + length).readClaims();
+    }
+
+    private static int writeString(byte[] key, String value, byte[] dst, int p, boolean first) {
+        if (value == null) {
+            return p;
+        }
+        p = writeKey(key, dst, p, first);
+        dst[p++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                dst[p++] = '\\';
+                dst[p++] = (byte) c;
+            } else if (c < 0x20) {
+                dst[p++] = '\\';
+                dst[p++] = 'u';
+                dst[p++] = '0';
+                dst[p++] = '0';
+                dst[p++] = HEX[c >>> 4];
+                dst[p++] = HEX[c & 0xf];
+            } else if (c < 0x80) {
+                dst[p++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[p++] = (byte) (0xc0 | c >>> 6);
+                dst[p++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                dst[p++] = (byte) (0xf0 | cp >>> 18);
+                dst[p++] = (byte) (0x80 | cp >>> 12 & 0x3f);
+                dst[p++] = (byte) (0x80 | cp >>> 6 & 0x3f);
+                dst[p++] = (byte) (0x80 | cp & 0x3f);
+            } else {
+                dst[p++] = (byte) (0xe0 | c >>> 12);
+                dst[p++] = (byte) (0x80 | c >>> 6 & 0x3f);
+                dst[p++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        dst[p++] = '"';
+        return p;
+    }
+
+    private static int writeNumber(byte[] key, long value, byte[] dst, int p) {
+        p = writeKey(key, dst, p, false);
+        if (value < 0) {
+            dst[p++] = '-';
+            value = -value;
+        }
+        int start = p;
+        do {
+            dst[p++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = start, j = p - 1; i < j; i++, j--) {
+            byte tmp = dst[i];
+            dst[i] = dst[j];
+            dst[j] = tmp;
+        }
+        return p;
+    }
+
+    private static int writeKey(byte[] key, byte[] dst, int p, boolean first) {
+        if (!first) {
+            dst[p++] = ',';
+        }
+        dst[p++] = '"';
+        System.arraycopy(key, 0, dst, p, key.length);
+        p += key.length;
+        dst[p++] = '"';
+        dst[p++] = ':';
+        return p;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Reader {
+
+        private final byte[] buf;
+        private final int end;
+        private int pos;
+
+        Reader(byte[] buf, int pos, int end) {
+            this.buf = buf;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        JwtClaims readClaims() {
+            String jti = null;
+            String subject = null;
+            String clientId = null;
+            String tokenType = null;
+            long issuedAt = 0;
+            long expiresAt = -1;
+
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                throw malformed();
+            }
+            while (true) {
+                skipWhitespace();
+                expect('"');
+                int keyStart = pos;
+                skipStringBody();
+                int keyEnd = pos - 1;
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                if (keyEquals(keyStart, keyEnd, JTI)) {
+                    jti = readString();
+                } else if (keyEquals(keyStart, keyEnd, SUB)) {
+                    subject = readString();
+                } else if (keyEquals(keyStart, keyEnd, CLIENT)) {
+                    clientId = readString();
+                } else if (keyEquals(keyStart, keyEnd, TYP)) {
+                    tokenType = readString();
+                } else if (keyEquals(keyStart, keyEnd, IAT)) {
+                    issuedAt = readLong();
+                } else if (keyEquals(keyStart, keyEnd, EXP)) {
+                    expiresAt = readLong();
+                } else {
+                    skipValue();
+                }
+                skipWhitespace();
+                byte b = next();
+                if (b == '}') {
+                    break;
+                }
+                if (b != ',') {
+                    throw malformed();
+                }
+            }
+            if (jti == null || expiresAt < 0) {
+                throw malformed();
+            }
+            return new JwtClaims(jti, subject, clientId, tokenType, issuedAt, expiresAt);
+        }
+
+        private boolean keyEquals(int start, int keyEnd, byte[] key) {
+            if (keyEnd - start != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (buf[start + i] != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String readString() {
+            expect('"');
+            int start = pos;
+            boolean ascii = true;
+            while (pos < end) {
+                byte b = buf[pos];
+                if (b == '"') {
+                    String value = new String(buf, start, pos - start,
+                            ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+                    pos++;
+                    return value;
+                }
+                if (b == '\\') {
+                    return readEscapedString(start);
+                }
+                if (b < 0) {
+                    ascii = false;
+                }
+                pos++;
+            }
+            throw malformed();
+        }
+
+        private String readEscapedString(int start) {
+            StringBuilder sb = new StringBuilder(new String(buf, start, pos - start, StandardCharsets.UTF_8));
+            int chunk = pos;
+            while (pos < end) {
+                byte b = buf[pos];
+                if (b == '"') {
+                    sb.append(new String(buf, chunk, pos - chunk, StandardCharsets.UTF_8));
+                    pos++;
+                    return sb.toString();
+                }
+                if (b != '\\') {
+                    pos++;
+                    continue;
+                }
+                sb.append(new String(buf, chunk, pos - chunk, StandardCharsets.UTF_8));
+                pos++;
+                byte escaped = next();
+                switch (escaped) {
+                    case '"', '\\', '/' -> sb.append((char) escaped);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> sb.append(readHexChar());
+                    default -> throw malformed();
+                }
+                chunk = pos;
+            }
+            throw malformed();
+        }
+
+        private char readHexChar() {
+            if (end - pos < 4) {
+                throw malformed();
+            }
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(buf[pos++], 16);
+                if (digit < 0) {
+                    throw malformed();
+                }
+                value = value << 4 | digit;
+            }
+            return (char) value;
+        }
+
+        private long readLong() {
+            boolean negative = false;
+            if (peek() == '-') {
+                negative = true;
+                pos++;
+            }
+            int start = pos;
+            long value = 0;
+            while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+                if (value > (Long.MAX_VALUE - 9) / 10) {
+                    throw malformed();
+                }
+                value = value * 10 + (buf[pos++] - '0');
+            }
+            if (pos == start) {
+                throw malformed();
+            }
+            // NumericDate admite fracción; se descarta
+            while (pos < end && isNumberPart(buf[pos])) {
+                pos++;
+            }
+            return negative ? -value : value;
+        }
+
+        private void skipValue() {
+            byte b = peek();
+            if (b == '"') {
+                pos++;
+                skipStringBody();
+            } else if (b == '{' || b == '[') {
+                int depth = 0;
+                while (pos < end) {
+                    byte c = buf[pos++];
+                    if (c == '"') {
+                        skipStringBody();
+                    } else if (c == '{' || c == '[') {
+                        depth++;
+                    } else if ((c == '}' || c == ']') && --depth == 0) {
+                        return;
+                    }
+                }
+                throw malformed();
+            } else {
+                int start = pos;
+                while (pos < end && (isNumberPart(b = buf[pos]) || (b >= 'a' && b <= 'z'))) {
+                    pos++;
+                }
+                if (pos == start) {
+                    throw malformed();
+                }
+            }
+        }
+
+        // Avanza hasta después de las comillas de cierre de una cadena ya abierta
+        private void skipStringBody() {
+            while (pos < end) {
+                byte b = buf[pos++];
+                if (b == '\\') {
+                    pos++;
+                } else if (b == '"') {
+                    return;
+                }
+            }
+            throw malformed();
+        }
+
+        private void skipWhitespace() {
+            while (pos < end) {
+                byte b = buf[pos];
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                throw malformed();
+            }
+        }
+
+        private byte peek() {
+            if (pos >= end) {
+                throw malformed();
+            }
+            return buf[pos];
+        }
+
+        private byte next() {
+            if (pos >= end) {
+                throw malformed();
+            }
+            return buf[pos++];
+        }
+
+        private static boolean isNumberPart(byte b) {
+            return (b >= '0' && b <= '9') || b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-';
+        }
+
+        private static JwtValidationException malformed() {
+            return new JwtValidationException(JwtValidationException.Reason.MALFORMED, "Payload JWT mal formado");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Motor de emisión y verificación de tokens JWS compactos.
+ * La cabecera se codifica una sola vez; cada hilo reutiliza sus buffers de
+ * trabajo, por lo que emitir un token solo crea el String resultante y
+ * verificarlo solo crea los claims leídos.
+ */
+public final class JwtEngine {
+
+    private static final int SCRATCH_SIZE = 2048;
+    private static final byte DOT = '.';
+
+    private final JwtSigningKeys keys;
+    private final byte[] encodedHeader;
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(SCRATCH_SIZE));
+
+    public JwtEngine(JwtSigningKeys keys) {
+        this.keys = keys;
+        String header = "{\"alg\":\"" + keys.getAlgorithm().name() + "\",\"typ\":\"JWT\""
+                + (keys.getKeyId() == null ? "" : ",\"kid\":\"" + keys.getKeyId() + "\"") + "}";
+        byte[] raw = header.getBytes(StandardCharsets.UTF_8);
+        this.encodedHeader = new byte[Base64Url.encodedLength(raw.length)];
+        Base64Url.encode(raw, 0, raw.length, encodedHeader, 0);
+    }
+
+    public JwtAlgorithm getAlgorithm() {
+        return keys.getAlgorithm();
+    }
+
+    /**
+     * Emite un token firmado con los claims dados
+     * @param claims claims del token
+     * @return token JWS compacto
+     */
+    public String issue(JwtClaims claims) {
+        int signatureLength = keys.getAlgorithm().getSignatureLength();
+        int maxJson = JwtClaimsCodec.maxEncodedLength(claims);
+        int maxToken = encodedHeader.length + 1 + Base64Url.encodedLength(maxJson) + 1
+                + Base64Url.encodedLength(signatureLength);
+        Scratch buffers = scratch(maxToken, Math.max(maxJson, signatureLength));
+
+        byte[] token = buffers.token;
+        byte[] work = buffers.work;
+        System.arraycopy(encodedHeader, 0, token, 0, encodedHeader.length);
+        int p = encodedHeader.length;
+        token[p++] = DOT;
+        int jsonLength = JwtClaimsCodec.write(claims, work, 0);
+        p += Base64Url.encode(work, 0, jsonLength, token, p);
+        int signingInputLength = p;
+        int sigLength = keys.sign(token, 0, signingInputLength, work, 0);
+        token[p++] = DOT;
+        p += Base64Url.encode(work, 0, sigLength, token, p);
+        return new String(token, 0, p, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Verifica la cabecera, la firma y la expiración de un token
+     * @param token token JWS compacto
+     * @param nowEpochSeconds instante actual en segundos epoch
+     * @return claims del token
+     * @throws JwtValidationException si el token no es válido
+     */
+    public JwtClaims verify(CharSequence token, long nowEpochSeconds) {
+        int length = token.length();
+        int signatureLength = keys.getAlgorithm().getSignatureLength();
+        Scratch buffers = scratch(length, Base64Url.decodedLength(length) + signatureLength);
+        byte[] bytes = buffers.token;
+        byte[] work = buffers.work;
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7f) {
+                throw new JwtValidationException(JwtValidationException.Reason.MALFORMED, "Token JWT mal formado");
+            }
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    throw new JwtValidationException(JwtValidationException.Reason.MALFORMED, "Token JWT mal formado");
+                }
+            }
+            bytes[i] = (byte) c;
+        }
+        if (secondDot < 0) {
+            throw new JwtValidationException(JwtValidationException.Reason.MALFORMED, "Token JWT mal formado");
+        }
+        if (!headerMatches(bytes, firstDot)) {
+            throw new JwtValidationException(JwtValidationException.Reason.UNSUPPORTED_HEADER, "Cabecera JWT no soportada");
+        }
+
+        int sigLength = Base64Url.decode(bytes, secondDot + 1, length - secondDot - 1, work, 0);
+        if (sigLength < 0 || !keys.verify(bytes, 0, secondDot, work, 0, sigLength)) {
+            throw new JwtValidationException(JwtValidationException.Reason.INVALID_SIGNATURE, "Firma JWT inválida");
+        }
+
+        int payloadLength = Base64Url.decode(bytes, firstDot + 1, secondDot - firstDot - 1, work, signatureLength);
+        if (payloadLength < 0) {
+            throw new JwtValidationException(JwtValidationException.Reason.MALFORMED, "Payload JWT mal formado");
+        }
+        JwtClaims claims = JwtClaimsCodec.read(work, signatureLength, payloadLength);
+        if (nowEpochSeconds >= claims.expiresAt()) {
+            throw new JwtValidationException(JwtValidationException.Reason.EXPIRED, "Token JWT expirado");
+        }
+        return claims;
+    }
+
+    private boolean headerMatches(byte[] bytes, int headerLength) {
+        if (headerLength != encodedHeader.length) {
+            return false;
+        }
+        for (int i = 0; i < headerLength; i++) {
+            if (bytes[i] != encodedHeader[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Scratch scratch(int tokenSize, int workSize) {
+        if (tokenSize > SCRATCH_SIZE || workSize > SCRATCH_SIZE) {
+            return new Scratch(Math.max(tokenSize, workSize));
+        }
+        return scratch.get();
+    }
+
+    private static final class Scratch {
+
+        final byte[] token;
+        final byte[] work;
+
+        Scratch(int size) {
+            this.token = new byte[size];
+            this.work = new byte[size];
+        }
+    }
+}
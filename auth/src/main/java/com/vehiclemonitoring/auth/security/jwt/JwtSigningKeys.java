@@ -0,0 +1,156 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+
+/**
+ * Claves de firma precargadas.
+ * Cada hilo conserva su propia instancia de {@link Mac} o {@link Signature} ya
+ * inicializada con la clave, de modo que firmar o verificar no repite la
+ * búsqueda del proveedor JCA ni la preparación de la clave.
+ */
+public final class JwtSigningKeys {
+
+    private static final int MIN_HMAC_SECRET_LENGTH = 32;
+
+    private final JwtAlgorithm algorithm;
+    private final String keyId;
+    private final ThreadLocal<Mac> macs;
+    private final ThreadLocal<byte[]> macScratch;
+    private final ThreadLocal<Signature> signers;
+    private final ThreadLocal<Signature> verifiers;
+
+    private JwtSigningKeys(JwtAlgorithm algorithm, String keyId, ThreadLocal<Mac> macs,
+                           ThreadLocal<Signature> signers, ThreadLocal<Signature> verifiers) {
+        this.algorithm = algorithm;
+        this.keyId = keyId;
+        this.macs = macs;
+        this.macScratch = macs == null ? null : ThreadLocal.withInitial(() -> new byte[algorithm.getSignatureLength()]);
+        this.signers = signers;
+        this.verifiers = verifiers;
+    }
+
+    /**
+     * Crea claves HS256 a partir de un secreto compartido
+     * @param secret secreto de al menos 32 bytes
+     * @param keyId identificador de la clave (kid), puede ser null
+     */
+    public static JwtSigningKeys hmac(byte[] secret, String keyId) {
+        if (secret == null || secret.length < MIN_HMAC_SECRET_LENGTH) {
+            throw new IllegalArgumentException("El secreto HS256 debe tener al menos " + MIN_HMAC_SECRET_LENGTH + " bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.clone(), JwtAlgorithm.HS256.getJcaName());
+        ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(JwtAlgorithm.HS256.getJcaName());
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("No se pudo inicializar HS256", e);
+            }
+        });
+        macs.get();
+        return new JwtSigningKeys(JwtAlgorithm.HS256, keyId, macs, null, null);
+    }
+
+    /**
+     * Crea claves ES256 (P-256). La clave privada es opcional si solo se verifica.
+     * @param privateKey clave privada EC, o null para un verificador
+     * @param publicKey clave pública EC
+     * @param keyId identificador de la clave (kid), puede ser null
+     */
+    public static JwtSigningKeys ecdsa(PrivateKey privateKey, PublicKey publicKey, String keyId) {
+        if (publicKey == null) {
+            throw new IllegalArgumentException("ES256 requiere una clave pública");
+        }
+        ThreadLocal<Signature> signers = privateKey == null ? null : ThreadLocal.withInitial(() -> {
+            try {
+                Signature signature = Signature.getInstance(JwtAlgorithm.ES256.getJcaName());
+                signature.initSign(privateKey);
+                return signature;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("No se pudo inicializar el firmante ES256", e);
+            }
+        });
+        ThreadLocal<Signature> verifiers = ThreadLocal.withInitial(() -> {
+            try {
+                Signature signature = Signature.getInstance(JwtAlgorithm.ES256.getJcaName());
+                signature.initVerify(publicKey);
+                return signature;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("No se pudo inicializar el verificador ES256", e);
+            }
+        });
+        if (signers != null) {
+            signers.get();
+        }
+        verifiers.get();
+        return new JwtSigningKeys(JwtAlgorithm.ES256, keyId, null, signers, verifiers);
+    }
+
+    public JwtAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * Firma {@code length} bytes de {@code data} y escribe la firma en {@code out}
+     * @return longitud de la firma
+     */
+    public int sign(byte[] data, int offset, int length, byte[] out, int outOffset) {
+        try {
+            if (macs != null) {
+                Mac mac = macs.get();
+                mac.update(data, offset, length);
+                mac.doFinal(out, outOffset);
+                return algorithm.getSignatureLength();
+            }
+            if (signers == null) {
+                throw new IllegalStateException("No hay clave privada configurada para firmar");
+            }
+            Signature signer = signers.get();
+            signer.update(data, offset, length);
+            return signer.sign(out, outOffset, out.length - outOffset);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error firmando el token", e);
+        }
+    }
+
+    /**
+     * Verifica la firma de {@code length} bytes de {@code data}
+     * @return true si la firma es válida
+     */
+    public boolean verify(byte[] data, int offset, int length, byte[] signature, int sigOffset, int sigLength) {
+        if (sigLength != algorithm.getSignatureLength()) {
+            return false;
+        }
+        try {
+            if (macs != null) {
+                Mac mac = macs.get();
+                byte[] expected = macScratch.get();
+                mac.update(data, offset, length);
+                mac.doFinal(expected, 0);
+                int diff = 0;
+                for (int i = 0; i < sigLength; i++) {
+                    diff |= expected[i] ^ signature[sigOffset + i];
+                }
+                return diff == 0;
+            }
+            Signature verifier = verifiers.get();
+            verifier.update(data, offset, length);
+            return verifier.verify(signature, sigOffset, sigLength);
+        } catch (SignatureException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error verificando el token", e);
+        }
+    }
+}
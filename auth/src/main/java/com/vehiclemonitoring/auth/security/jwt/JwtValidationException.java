@@ -0,0 +1,27 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+/**
+ * Excepción lanzada cuando un token JWT no supera la verificación.
+ * No captura la traza de pila: es un resultado esperado en la ruta de validación.
+ */
+public class JwtValidationException extends RuntimeException {
+
+    public enum Reason {
+        MALFORMED,
+        UNSUPPORTED_HEADER,
+        INVALID_SIGNATURE,
+        EXPIRED,
+        REVOKED
+    }
+
+    private final Reason reason;
+
+    public JwtValidationException(Reason reason, String message) {
+        super(message, null, false, false);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,117 @@
+package com.vehiclemonitoring.auth.security.password;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Hash de contraseñas con PBKDF2-HMAC-SHA256 del JDK.
+ * El resultado se codifica en formato PHC ({@code $pbkdf2-sha256$i=<iteraciones>$<sal>$<hash>},
+ * base64 sin relleno), así que cada hash lleva sus propios parámetros: se puede subir el
+ * coste sin invalidar los hashes existentes y detectar cuáles conviene rehacer.
+ *
+ * <p>Es una operación deliberadamente cara y limitada por CPU; no debe ejecutarse en los
+ * hilos de petición, sino a través de {@link com.vehiclemonitoring.auth.service.PasswordHashingService}.</p>
+ */
+public final class Pbkdf2PasswordHasher {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "$pbkdf2-sha256$i=";
+    private static final int HASH_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final int iterations;
+    private final int saltBytes;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param iterations iteraciones para los hashes nuevos
+     * @param saltBytes longitud de la sal en bytes
+     */
+    public Pbkdf2PasswordHasher(int iterations, int saltBytes) {
+        if (iterations < 1 || saltBytes < 8) {
+            throw new IllegalArgumentException("Parámetros de PBKDF2 no válidos");
+        }
+        this.iterations = iterations;
+        this.saltBytes = saltBytes;
+    }
+
+    /**
+     * @param password contraseña en claro
+     * @return hash codificado con sus parámetros
+     */
+    public String hash(CharSequence password) {
+        byte[] salt = new byte[saltBytes];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations, HASH_BYTES);
+        return PREFIX + iterations + "$" + ENCODER.encodeToString(salt) + "$" + ENCODER.encodeToString(hash);
+    }
+
+    /**
+     * Compara en tiempo constante una contraseña con un hash codificado
+     * @return false si no coinciden o el hash no tiene un formato reconocible
+     */
+    public boolean matches(CharSequence password, String encoded) {
+        Parsed parsed = parse(encoded);
+        if (parsed == null) {
+            return false;
+        }
+        byte[] actual = derive(password, parsed.salt(), parsed.iterations(), parsed.hash().length);
+        return MessageDigest.isEqual(actual, parsed.hash());
+    }
+
+    /**
+     * Indica si un hash se generó con parámetros distintos de los actuales
+     * y debe rehacerse la próxima vez que se conozca la contraseña
+     */
+    public boolean needsRehash(String encoded) {
+        Parsed parsed = parse(encoded);
+        return parsed == null || parsed.iterations() != iterations || parsed.salt().length != saltBytes;
+    }
+
+    private static Parsed parse(String encoded) {
+        if (encoded == null || !encoded.startsWith(PREFIX)) {
+            return null;
+        }
+        String[] parts = encoded.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[0]);
+            byte[] salt = DECODER.decode(parts[1]);
+            byte[] hash = DECODER.decode(parts[2]);
+            if (iterations < 1 || salt.length == 0 || hash.length == 0) {
+                return null;
+            }
+            return new Parsed(iterations, salt, hash);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] derive(CharSequence password, byte[] salt, int iterations, int length) {
+        char[] chars = new char[password.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = password.charAt(i);
+        }
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterations, length * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 no disponible en este JDK", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    private record Parsed(int iterations, byte[] salt, byte[] hash) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.event.JwtTokenIssuedEvent;
+import com.vehiclemonitoring.auth.event.JwtTokenRevokedEvent;
+import com.vehiclemonitoring.auth.event.JwtTokensExpiredEvent;
+import com.vehiclemonitoring.auth.event.JwtTokensRevokedEvent;
+import com.vehiclemonitoring.auth.repository.projection.RevokedJti;
+import com.vehiclemonitoring.auth.util.CoarseClock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria de sesiones activas (refresh tokens vigentes) por usuario.
+ * Sustituye el COUNT sobre {@code jwt_tokens} en cada inicio de sesión: los contadores
+ * son {@link LongAdder} por usuario, así que emisiones y revocaciones concurrentes no
+ * compiten por la misma celda. La memoria depende del número de usuarios con sesiones,
+ * no del de tokens: solo se guarda el jti de las sesiones revocadas que aún no han
+ * vencido en {@link TokenExpiryTracker}, para no descontarlas dos veces al expirar.
+ *
+ * <p>Las expiraciones llegan en lotes desde {@link TokenExpiryTracker}. Los contadores
+ * se reconcilian periódicamente con un COUNT agrupado por usuario para corregir la
+ * deriva acumulada (cambios hechos fuera del servicio, o un token insertado ya revocado).</p>
+ */
+@Service
+public class ActiveSessionCounter implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveSessionCounter.class);
+
+    private static final String ACTIVE_SESSIONS_SQL =
+            "SELECT jti, user_id, expires_at FROM auth.jwt_tokens " +
+            "WHERE token_type = '" + JwtService.REFRESH_TOKEN + "' AND revoked_at IS NULL " +
+            "AND (expires_at IS NULL OR expires_at > now())";
+
+    private static final String ACTIVE_SESSIONS_BY_USER_SQL =
+            "SELECT user_id, count(*) FROM auth.jwt_tokens " +
+            "WHERE token_type = '" + JwtService.REFRESH_TOKEN + "' AND revoked_at IS NULL " +
+            "AND (expires_at IS NULL OR expires_at > ?) GROUP BY user_id";
+
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final TokenExpiryTracker expiryTracker;
+
+    private final Map<UUID, LongAdder> counts = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+    // jti -> expiración en milisegundos epoch de las sesiones revocadas cuyo vencimiento está pendiente
+    private final Map<String, Long> revokedPending = new ConcurrentHashMap<>();
+
+    public ActiveSessionCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                TokenExpiryTracker expiryTracker, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expiryTracker = expiryTracker;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        Gauge.builder("auth.sessions.tracked", total, LongAdder::sum)
+                .description("Sesiones activas contadas en memoria")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param userId ID del usuario
+     * @return número de sesiones activas del usuario
+     */
+    public long activeSessions(UUID userId) {
+        LongAdder adder = counts.get(userId);
+        return adder == null ? 0 : Math.max(0, adder.sum());
+    }
+
+    /**
+     * Cuenta una sesión nueva; las ya expiradas se ignoran
+     * @return true si la sesión se ha contado
+     */
+    boolean track(UUID userId, OffsetDateTime expiresAt) {
+        if (expiresAt != null && expiresAt.toEpochSecond() <= CoarseClock.currentEpochSecond()) {
+            return false;
+        }
+        add(userId, 1);
+        return true;
+    }
+
+    /**
+     * Descuenta una sesión revocada. Si tiene expiración, su jti se guarda hasta que
+     * venza para que {@link #onTokensExpired} no la descuente otra vez
+     */
+    void revoke(String jti, UUID userId, String tokenType, OffsetDateTime expiresAt) {
+        if (!JwtService.REFRESH_TOKEN.equals(tokenType)) {
+            return;
+        }
+        if (expiresAt != null && revokedPending.putIfAbsent(jti, expiresAt.toInstant().toEpochMilli()) != null) {
+            return;
+        }
+        add(userId, -1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenIssued(JwtTokenIssuedEvent event) {
+        if (JwtService.REFRESH_TOKEN.equals(event.tokenType())) {
+            track(event.userId(), event.expiresAt());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(JwtTokenRevokedEvent event) {
+        revoke(event.jti(), event.userId(), event.tokenType(), event.expiresAt());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokensRevoked(JwtTokensRevokedEvent event) {
+        for (RevokedJti token : event.tokens()) {
+            revoke(token.jti(), token.userId(), token.tokenType(), token.expiresAt());
+        }
+    }
+
+    @EventListener
+    public void onTokensExpired(JwtTokensExpiredEvent event) {
+        for (JwtTokensExpiredEvent.ExpiredToken token : event.tokens()) {
+            if (JwtService.REFRESH_TOKEN.equals(token.tokenType()) && revokedPending.remove(token.jti()) == null) {
+                add(token.userId(), -1);
+            }
+        }
+    }
+
+    /**
+     * Cuenta las sesiones activas y las programa en {@link TokenExpiryTracker}.
+     * Se ejecuta al crear los beans, antes de que el servidor acepte peticiones, para que
+     * ninguna sesión emitida durante la carga quede programada dos veces en la rueda.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ACTIVE_SESSIONS_SQL);
+            ps.setFetchSize(LOAD_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            String jti = rs.getString("jti");
+            UUID userId = rs.getObject("user_id", UUID.class);
+            OffsetDateTime expiresAt = rs.getObject("expires_at", OffsetDateTime.class);
+            if (track(userId, expiresAt)) {
+                expiryTracker.track(jti, userId, JwtService.REFRESH_TOKEN, expiresAt);
+            }
+        }));
+        log.info("Contadores de sesiones cargados: {} sesiones de {} usuarios", total.sum(), counts.size());
+    }
+
+    /**
+     * Corrige los contadores con un COUNT agrupado por usuario. Solo cuenta las sesiones cuyo
+     * vencimiento aún no ha publicado la rueda, y aplica la diferencia respecto al valor leído
+     * antes de la consulta, así que las emisiones, revocaciones y expiraciones que llegan
+     * mientras tanto se conservan. Un evento publicado justo entre la lectura de los contadores
+     * y la de la base de datos puede dejar una sesión de desfase hasta la siguiente reconciliación.
+     */
+    @Scheduled(initialDelayString = "${auth.sessions.reconcile-interval:PT10M}",
+               fixedDelayString = "${auth.sessions.reconcile-interval:PT10M}")
+    public void reconcile() {
+        long advancedTo = expiryTracker.advancedTo();
+        Map<UUID, Long> before = new HashMap<>(counts.size() * 2);
+        counts.forEach((userId, adder) -> before.put(userId, adder.sum()));
+        Map<UUID, Long> active = new HashMap<>(before.size() * 2);
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(ACTIVE_SESSIONS_BY_USER_SQL,
+                rs -> {
+                    active.put(rs.getObject(1, UUID.class), rs.getLong(2));
+                },
+                OffsetDateTime.ofInstant(Instant.ofEpochMilli(advancedTo), ZoneOffset.UTC)));
+
+        int corrected = 0;
+        for (Map.Entry<UUID, Long> entry : active.entrySet()) {
+            long delta = entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+            if (delta != 0) {
+                add(entry.getKey(), delta);
+                corrected++;
+            }
+        }
+        for (Map.Entry<UUID, Long> entry : before.entrySet()) {
+            if (!active.containsKey(entry.getKey()) && entry.getValue() != 0) {
+                add(entry.getKey(), -entry.getValue());
+                corrected++;
+            }
+        }
+        counts.entrySet().removeIf(entry -> entry.getValue().sum() == 0);
+        // Las revocadas que no estaban en la rueda (p. ej. insertadas fuera del servicio) nunca vencerán en ella
+        revokedPending.values().removeIf(expiresAt -> expiresAt <= advancedTo);
+        log.debug("Sesiones activas reconciliadas: {} usuarios corregidos, {} sesiones", corrected, total.sum());
+    }
+
+    /**
+     * @return número de sesiones contadas
+     */
+    public long size() {
+        return total.sum();
+    }
+
+    // Si la reconciliación retira el contador mientras se modifica, se repite sobre el nuevo
+    private void add(UUID userId, long delta) {
+        LongAdder adder;
+        do {
+            adder = counts.computeIfAbsent(userId, id -> new LongAdder());
+            adder.add(delta);
+        } while (counts.get(userId) != adder);
+        total.add(delta);
+    }
+}
@@ -0,0 +1,265 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.SearchIndexProperties;
+import com.vehiclemonitoring.auth.dto.SearchHit;
+import com.vehiclemonitoring.auth.event.SearchableEntityChangedEvent;
+import com.vehiclemonitoring.auth.util.TrigramIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de búsqueda en memoria de usuarios y roles por cliente, y de clientes.
+ * Sustituye los {@code LOWER(x) LIKE '%q%'} de los repositorios, que no pueden usar
+ * un índice B-tree y recorren todas las filas del cliente, por un {@link TrigramIndex}
+ * por cliente sobre email/nombre completo, nombre/descripción del rol y nombre/slug
+ * del cliente.
+ *
+ * <p>El índice se carga al arrancar y se mantiene con los cambios publicados por
+ * {@link com.vehiclemonitoring.auth.event.EntityEventBridge}. Se reconstruye
+ * periódicamente para recoger cambios hechos fuera del servicio; los eventos que llegan
+ * durante la reconstrucción se vuelven a aplicar sobre el índice nuevo antes de publicarlo.
+ * Hasta la primera carga {@link #isReady()} devuelve false. Se recuerda el cliente de cada
+ * usuario y rol indexado, así que uno que cambia de cliente sale del índice del anterior.</p>
+ */
+@Service
+public class DirectorySearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectorySearchIndex.class);
+
+    private static final String USERS_SQL = "SELECT id, client_id, email, full_name FROM auth.users";
+    private static final String ROLES_SQL = "SELECT id, client_id, name, description FROM auth.roles";
+    private static final String CLIENTS_SQL = "SELECT id, name, slug FROM auth.clients";
+
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final SearchIndexProperties properties;
+    private final Timer searchTimer;
+
+    private volatile Snapshot snapshot;
+    // Cambios recibidos durante una reconstrucción; protegido por this
+    private List<SearchableEntityChangedEvent> journal;
+
+    public DirectorySearchIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                SearchIndexProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.searchTimer = Timer.builder("auth.search.latency")
+                .description("Tiempo de respuesta de las búsquedas en el índice en memoria")
+                .register(meterRegistry);
+        Gauge.builder("auth.search.documents", this, DirectorySearchIndex::size)
+                .description("Documentos en el índice de búsqueda en memoria")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true si el índice está cargado y puede responder búsquedas
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Busca usuarios de un cliente por email o nombre completo
+     * @param clientId ID del cliente
+     * @param query texto a buscar
+     * @param limit número máximo de resultados
+     * @return resultados ordenados por relevancia
+     */
+    public List<SearchHit> searchUsers(UUID clientId, String query, int limit) {
+        return searchTimer.record(() -> search(current().users().get(clientId), query, limit));
+    }
+
+    /**
+     * Busca roles de un cliente por nombre o descripción
+     * @param clientId ID del cliente
+     * @param query texto a buscar
+     * @param limit número máximo de resultados
+     * @return resultados ordenados por relevancia
+     */
+    public List<SearchHit> searchRoles(UUID clientId, String query, int limit) {
+        return searchTimer.record(() -> search(current().roles().get(clientId), query, limit));
+    }
+
+    /**
+     * Busca clientes por nombre o slug
+     * @param query texto a buscar
+     * @param limit número máximo de resultados
+     * @return resultados ordenados por relevancia
+     */
+    public List<SearchHit> searchClients(String query, int limit) {
+        return searchTimer.record(() -> search(current().clients(), query, limit));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSearchableEntityChanged(SearchableEntityChangedEvent event) {
+        Snapshot target;
+        synchronized (this) {
+            if (journal != null) {
+                journal.add(event);
+            }
+            target = snapshot;
+        }
+        if (target != null) {
+            target.apply(event);
+        }
+    }
+
+    /**
+     * Reconstruye el índice desde la base de datos y lo publica de forma atómica
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${auth.search.rebuild-interval:PT30M}",
+               fixedDelayString = "${auth.search.rebuild-interval:PT30M}")
+    public void rebuild() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        Snapshot fresh = new Snapshot(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new TrigramIndex<>(),
+                new ConcurrentHashMap<>());
+        try {
+            readOnly.executeWithoutResult(status -> {
+                query(USERS_SQL, rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    String email = rs.getString("email");
+                    String fullName = rs.getString("full_name");
+                    UUID clientId = rs.getObject("client_id", UUID.class);
+                    Snapshot.tenant(fresh.users(), clientId).put(id, new SearchHit(id, email, fullName), email, fullName);
+                    fresh.owners().put(id, clientId);
+                });
+                query(ROLES_SQL, rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    String name = rs.getString("name");
+                    String description = rs.getString("description");
+                    UUID clientId = rs.getObject("client_id", UUID.class);
+                    Snapshot.tenant(fresh.roles(), clientId).put(id, new SearchHit(id, name, description), name, description);
+                    fresh.owners().put(id, clientId);
+                });
+                query(CLIENTS_SQL, rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    String name = rs.getString("name");
+                    String slug = rs.getString("slug");
+                    fresh.clients().put(id, new SearchHit(id, name, slug), name, slug);
+                });
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                journal = null;
+            }
+            throw e;
+        }
+        int replayed;
+        synchronized (this) {
+            replayed = journal.size();
+            journal.forEach(fresh::apply);
+            journal = null;
+            snapshot = fresh;
+        }
+        log.info("Índice de búsqueda reconstruido: {} documentos ({} cambios reaplicados) en {} ms",
+                fresh.size(), replayed, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * @return número de documentos indexados, o 0 si el índice no está cargado
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.size();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("El índice de búsqueda todavía no está cargado");
+        }
+        return current;
+    }
+
+    private void query(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(LOAD_FETCH_SIZE);
+            return ps;
+        }, handler);
+    }
+
+    private static List<SearchHit> search(TrigramIndex<UUID, SearchHit> index, String query, int limit) {
+        return index == null ? List.of() : index.search(query, limit);
+    }
+
+    // owners: cliente en cuyo índice está cada usuario y rol
+    private record Snapshot(Map<UUID, TrigramIndex<UUID, SearchHit>> users,
+                            Map<UUID, TrigramIndex<UUID, SearchHit>> roles,
+                            TrigramIndex<UUID, SearchHit> clients,
+                            Map<UUID, UUID> owners) {
+
+        static TrigramIndex<UUID, SearchHit> tenant(Map<UUID, TrigramIndex<UUID, SearchHit>> indexes, UUID clientId) {
+            return indexes.computeIfAbsent(clientId, id -> new TrigramIndex<>());
+        }
+
+        void apply(SearchableEntityChangedEvent event) {
+            Map<UUID, TrigramIndex<UUID, SearchHit>> tenants = switch (event.kind()) {
+                case USER -> users;
+                case ROLE -> roles;
+                case CLIENT -> null;
+            };
+            TrigramIndex<UUID, SearchHit> index = tenants == null ? clients : tenant(tenants, event.clientId());
+            if (tenants != null) {
+                UUID previous = event.removed() ? owners.remove(event.id()) : owners.put(event.id(), event.clientId());
+                if (previous != null && !previous.equals(event.clientId())) {
+                    TrigramIndex<UUID, SearchHit> former = tenants.get(previous);
+                    if (former != null) {
+                        former.remove(event.id());
+                    }
+                }
+            }
+            if (event.removed()) {
+                index.remove(event.id());
+                if (event.kind() == SearchableEntityChangedEvent.Kind.CLIENT) {
+                    users.remove(event.id());
+                    roles.remove(event.id());
+                }
+            } else {
+                index.put(event.id(), new SearchHit(event.id(), event.primary(), event.secondary()),
+                        event.primary(), event.secondary());
+            }
+        }
+
+        int size() {
+            int size = clients.size();
+            for (TrigramIndex<UUID, SearchHit> index : users.values()) {
+                size += index.size();
+            }
+            for (TrigramIndex<UUID, SearchHit> index : roles.values()) {
+                size += index.size();
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.dto.ClientSummary;
+import com.vehiclemonitoring.auth.dto.RoleSummary;
+import com.vehiclemonitoring.auth.dto.SearchHit;
+import com.vehiclemonitoring.auth.dto.TokenSummary;
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.JwtToken;
+import com.vehiclemonitoring.auth.model.Role;
+import com.vehiclemonitoring.auth.pagination.Cursor;
+import com.vehiclemonitoring.auth.pagination.CursorPage;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import com.vehiclemonitoring.auth.repository.JwtTokenRepository;
+import com.vehiclemonitoring.auth.repository.RoleRepository;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import com.vehiclemonitoring.auth.repository.projection.UserListItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.vehiclemonitoring.auth.pagination.PageRequests.probe;
+
+/**
+ * Consultas de listado paginadas por clave (keyset).
+ * Cada página busca directamente a partir de la última fila vista, así que su coste
+ * no depende de la profundidad, a diferencia de OFFSET.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DirectoryService {
+
+    private final ClientRepository clientRepository;
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final JwtTokenRepository jwtTokenRepository;
+    private final DirectorySearchIndex searchIndex;
+
+    public DirectoryService(ClientRepository clientRepository, UserRepository userRepository,
+                            RoleRepository roleRepository, JwtTokenRepository jwtTokenRepository,
+                            DirectorySearchIndex searchIndex) {
+        this.clientRepository = clientRepository;
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.jwtTokenRepository = jwtTokenRepository;
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * @param cursor posición de la última fila vista, o null para la primera página
+     * @param limit tamaño de página
+     */
+    public CursorPage<ClientSummary> clients(Cursor cursor, int limit) {
+        List<Client> rows = cursor == null
+                ? clientRepository.findPage(probe(limit))
+                : clientRepository.findPageAfter(cursor.at(), cursor.id(), probe(limit));
+        return CursorPage.of(rows, limit, c -> new Cursor(c.getCreatedAt(), c.getId()), ClientSummary::from);
+    }
+
+    public CursorPage<UserListItem> users(UUID clientId, Cursor cursor, int limit) {
+        List<UserListItem> rows = cursor == null
+                ? userRepository.findPageByClientId(clientId, probe(limit))
+                : userRepository.findPageByClientIdAfter(clientId, cursor.at(), cursor.id(), probe(limit));
+        return CursorPage.of(rows, limit, u -> new Cursor(u.createdAt(), u.id()), Function.identity());
+    }
+
+    /**
+     * Busca usuarios de un cliente por email o nombre, sin cargar entidades. Con el índice en
+     * memoria cargado, este elige los usuarios por relevancia y solo se leen sus proyecciones
+     * por ID; mientras no lo está, se busca en la base de datos por orden de email.
+     * @param query texto a buscar
+     * @param limit número máximo de resultados
+     */
+    public List<UserListItem> searchUsers(UUID clientId, String query, int limit) {
+        if (!searchIndex.isReady()) {
+            return userRepository.searchListItemsByClientId(query, clientId, Limit.of(limit));
+        }
+        List<SearchHit> hits = searchIndex.searchUsers(clientId, query, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, UserListItem> items = new HashMap<>();
+        for (UserListItem item : userRepository.findListItemsByClientIdAndIdIn(clientId,
+                hits.stream().map(SearchHit::id).toList())) {
+            items.put(item.id(), item);
+        }
+        // Conserva el orden por relevancia; los usuarios que ya no están en el cliente se omiten
+        List<UserListItem> result = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            UserListItem item = items.get(hit.id());
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sugerencias de autocompletado de usuarios de un cliente por email o nombre. Usa el
+     * índice en memoria y solo consulta la base de datos mientras el índice no está cargado.
+     * @param query texto a buscar
+     * @param limit número máximo de resultados
+     */
+    public List<SearchHit> suggestUsers(UUID clientId, String query, int limit) {
+        if (searchIndex.isReady()) {
+            return searchIndex.searchUsers(clientId, query, limit);
+        }
+        return userRepository.searchListItemsByClientId(query, clientId, Limit.of(limit)).stream()
+                .map(u -> new SearchHit(u.id(), u.email(), u.fullName()))
+                .toList();
+    }
+
+    /**
+     * Busca roles de un cliente por nombre o descripción
+     * @param query texto a buscar
+     * @param limit número máximo de resultados
+     */
+    public List<SearchHit> searchRoles(UUID clientId, String query, int limit) {
+        if (searchIndex.isReady()) {
+            return searchIndex.searchRoles(clientId, query, limit);
+        }
+        return roleRepository.findBySearchTextAndClientId(query, clientId, Limit.of(limit)).stream()
+                .map(r -> new SearchHit(r.getId(), r.getName(), r.getDescription()))
+                .toList();
+    }
+
+    /**
+     * Busca clientes por nombre o slug
+     * @param query texto a buscar
+     * @param limit número máximo de resultados
+     */
+    public List<SearchHit> searchClients(String query, int limit) {
+        if (searchIndex.isReady()) {
+            return searchIndex.searchClients(query, limit);
+        }
+        return clientRepository.findBySearchText(query, Limit.of(limit)).stream()
+                .map(c -> new SearchHit(c.getId(), c.getName(), c.getSlug()))
+                .toList();
+    }
+
+    public CursorPage<RoleSummary> roles(UUID clientId, Cursor cursor, int limit) {
+        List<Role> rows = cursor == null
+                ? roleRepository.findPageByClientId(clientId, probe(limit))
+                : roleRepository.findPageByClientIdAfter(clientId, cursor.at(), cursor.id(), probe(limit));
+        return CursorPage.of(rows, limit, r -> new Cursor(r.getCreatedAt(), r.getId()), RoleSummary::from);
+    }
+
+    /**
+     * @param userId ID del usuario
+     * @return ID del cliente del usuario, si el usuario existe
+     */
+    public Optional<UUID> userClientId(UUID userId) {
+        return userRepository.findClientIdById(userId);
+    }
+
+    public CursorPage<TokenSummary> tokens(UUID userId, Cursor cursor, int limit) {
+        List<JwtToken> rows = cursor == null
+                ? jwtTokenRepository.findPageByUserId(userId, probe(limit))
+                : jwtTokenRepository.findPageByUserIdAfter(userId, cursor.at(), cursor.id(), probe(limit));
+        return CursorPage.of(rows, limit, t -> new Cursor(t.getIssuedAt(), t.getId()), TokenSummary::from);
+    }
+}
@@ -0,0 +1,239 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.vehiclemonitoring.auth.config.EffectivePermissionCacheProperties;
+import com.vehiclemonitoring.auth.event.PermissionCatalogChangedEvent;
+import com.vehiclemonitoring.auth.event.RolePermissionsChangedEvent;
+import com.vehiclemonitoring.auth.event.UserRolesChangedEvent;
+import com.vehiclemonitoring.auth.repository.RoleRepository;
+import com.vehiclemonitoring.auth.repository.projection.RoleRef;
+import com.vehiclemonitoring.auth.security.authz.PermissionBits;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché acotada de permisos efectivos por (usuario, cliente), compilados como mapa
+ * de bits: comprobar un permiso es un único test de bit sin cargar colecciones
+ * perezosas de {@code Role} ni de {@code User}.
+ * Las entradas expiran por tamaño y por TTL. Un cambio en los roles de un usuario
+ * descarta sus entradas; un cambio en los permisos de un rol solo recompila ese rol
+ * con {@link PermissionCompiler} y recalcula en memoria las entradas de sus miembros.
+ * Publica en Micrometer aciertos, fallos, expulsiones y tiempo de carga.
+ */
+@Service
+public class EffectivePermissionCache {
+
+    static final String CACHE_NAME = "auth.effective-permissions";
+
+    private final RoleRepository roleRepository;
+    private final PermissionCompiler compiler;
+    private final Cache<Key, EffectivePermissions> cache;
+    private final Timer loadTimer;
+
+    // Índices inversos para invalidar con precisión
+    private final Map<UUID, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Key>> keysByRole = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public EffectivePermissionCache(RoleRepository roleRepository, PermissionCompiler compiler,
+                                    EffectivePermissionCacheProperties properties, MeterRegistry meterRegistry) {
+        this.roleRepository = roleRepository;
+        this.compiler = compiler;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .evictionListener((Key key, EffectivePermissions permissions, RemovalCause cause) -> unindex(key, permissions))
+                .build();
+        this.loadTimer = Timer.builder(CACHE_NAME + ".load")
+                .description("Tiempo de carga y compilación de los permisos efectivos")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Obtiene los permisos efectivos de un usuario en un cliente
+     * @param userId ID del usuario
+     * @param clientId ID del cliente
+     * @return instantánea inmutable de los permisos
+     */
+    public EffectivePermissions get(UUID userId, UUID clientId) {
+        Key key = new Key(userId, clientId);
+        EffectivePermissions cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Las consultas se hacen fuera de la operación atómica de Caffeine para no
+        // retener el bloqueo de la clave durante la ida a la base de datos
+        long startGeneration = generation.get();
+        EffectivePermissions loaded = loadTimer.record(() -> load(key));
+        EffectivePermissions[] result = {loaded};
+        cache.asMap().compute(key, (k, current) -> {
+            if (current != null) {
+                result[0] = current;
+                return current;
+            }
+            // Se indexa antes de comprobar la generación: una invalidación posterior a la
+            // comprobación encuentra la clave en los índices y espera a que termine
+            index(k, loaded);
+            // Los bits se vuelven a unir aquí para recoger una recompilación de rol
+            // publicada durante la carga
+            PermissionBits bits = compiler.union(loaded.roleIds());
+            if (bits == null || generation.get() != startGeneration) {
+                // Una invalidación coincidió con la carga: no se conserva el resultado
+                unindex(k, loaded);
+                return null;
+            }
+            result[0] = loaded.withPermissions(bits);
+            return result[0];
+        });
+        return result[0];
+    }
+
+    /**
+     * Verifica si un usuario tiene un permiso en un cliente
+     * @param userId ID del usuario
+     * @param clientId ID del cliente
+     * @param permissionName nombre del permiso
+     * @return true si alguno de los roles del usuario en el cliente concede el permiso
+     */
+    public boolean hasPermission(UUID userId, UUID clientId, String permissionName) {
+        EffectivePermissions permissions = get(userId, clientId);
+        return permissions.hasPermission(compiler.permissionId(permissionName));
+    }
+
+    /**
+     * Verifica si un usuario tiene un rol en un cliente
+     * @param userId ID del usuario
+     * @param clientId ID del cliente
+     * @param roleName nombre del rol
+     * @return true si el usuario tiene el rol
+     */
+    public boolean hasRole(UUID userId, UUID clientId, String roleName) {
+        return get(userId, clientId).hasRole(roleName);
+    }
+
+    public void invalidateUser(UUID userId) {
+        generation.incrementAndGet();
+        Set<Key> keys = keysByUser.get(userId);
+        if (keys != null) {
+            Set.copyOf(keys).forEach(key -> remove(key));
+        }
+    }
+
+    public void invalidateRole(UUID roleId) {
+        generation.incrementAndGet();
+        Set<Key> keys = keysByRole.get(roleId);
+        if (keys != null) {
+            Set.copyOf(keys).forEach(key -> remove(key));
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        Set.copyOf(cache.asMap().keySet()).forEach(key -> remove(key));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        invalidateUser(event.userId());
+    }
+
+    /**
+     * Recompila un rol y recalcula en memoria las entradas de sus miembros,
+     * sin volver a cargar sus roles
+     * @param roleId ID del rol
+     */
+    public void recompileRole(UUID roleId) {
+        compiler.recompileRole(roleId);
+        Set<Key> keys = keysByRole.get(roleId);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : Set.copyOf(keys)) {
+            cache.asMap().computeIfPresent(key, (k, current) -> {
+                PermissionBits bits = compiler.union(current.roleIds());
+                if (bits == null) {
+                    unindex(k, current);
+                    return null;
+                }
+                return current.withPermissions(bits);
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRolePermissionsChanged(RolePermissionsChangedEvent event) {
+        recompileRole(event.roleId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionCatalogChanged(PermissionCatalogChangedEvent event) {
+        compiler.clear();
+        invalidateAll();
+    }
+
+    private EffectivePermissions load(Key key) {
+        List<RoleRef> roles = roleRepository.findRoleRefsByUserIdAndClientId(key.userId(), key.clientId());
+        Set<UUID> roleIds = new HashSet<>(roles.size() * 2);
+        Set<String> roleNames = new HashSet<>(roles.size() * 2);
+        for (RoleRef role : roles) {
+            roleIds.add(role.id());
+            roleNames.add(role.name());
+        }
+        // Solo consulta los roles que aún no están compilados
+        PermissionBits bits = compiler.compile(roleIds);
+        return new EffectivePermissions(key.userId(), key.clientId(), roleIds, roleNames, bits);
+    }
+
+    private void index(Key key, EffectivePermissions permissions) {
+        keysByUser.computeIfAbsent(key.userId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        for (UUID roleId : permissions.roleIds()) {
+            keysByRole.computeIfAbsent(roleId, id -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    /**
+     * Elimina una entrada y sus índices de forma atómica respecto a las cargas de la misma clave
+     */
+    private void remove(Key key) {
+        cache.asMap().computeIfPresent(key, (k, current) -> {
+            unindex(k, current);
+            return null;
+        });
+    }
+
+    // Se ejecuta dentro de la operación atómica de la clave (alta, expulsión o eliminación)
+    private void unindex(Key key, EffectivePermissions permissions) {
+        if (key == null || permissions == null) {
+            return;
+        }
+        removeFromIndex(keysByUser, key.userId(), key);
+        for (UUID roleId : permissions.roleIds()) {
+            removeFromIndex(keysByRole, roleId, key);
+        }
+    }
+
+    private static void removeFromIndex(Map<UUID, Set<Key>> index, UUID id, Key key) {
+        index.computeIfPresent(id, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private record Key(UUID userId, UUID clientId) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.security.authz.PermissionBits;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Instantánea inmutable de los permisos efectivos de un usuario en un cliente
+ * @param userId ID del usuario
+ * @param clientId ID del cliente
+ * @param roleIds IDs de los roles del usuario en el cliente
+ * @param roleNames nombres de esos roles
+ * @param permissions permisos concedidos por sus roles, compilados por {@link PermissionCompiler}
+ */
+public record EffectivePermissions(UUID userId, UUID clientId, Set<UUID> roleIds, Set<String> roleNames,
+                                   PermissionBits permissions) {
+
+    public EffectivePermissions {
+        roleIds = Set.copyOf(roleIds);
+        roleNames = Set.copyOf(roleNames);
+    }
+
+    /**
+     * @param permissionId id denso del permiso, ver {@link PermissionCompiler#permissionId}
+     */
+    public boolean hasPermission(int permissionId) {
+        return permissions.contains(permissionId);
+    }
+
+    public boolean hasRole(String roleName) {
+        return roleNames.contains(roleName);
+    }
+
+    EffectivePermissions withPermissions(PermissionBits recompiled) {
+        return new EffectivePermissions(userId, clientId, roleIds, roleNames, recompiled);
+    }
+}
@@ -0,0 +1,96 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.vehiclemonitoring.auth.dto.TokenSummary;
+import com.vehiclemonitoring.auth.model.JwtToken;
+import com.vehiclemonitoring.auth.repository.ExportQueryHints;
+import com.vehiclemonitoring.auth.repository.JwtTokenRepository;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import com.vehiclemonitoring.auth.repository.projection.UserListItem;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Exportaciones NDJSON de tokens y usuarios para cumplimiento normativo.
+ * Las filas se leen con un cursor de servidor y se escriben según llegan; el contexto
+ * de persistencia se vacía cada lote para que la memoria no crezca con el tamaño de la exportación.
+ * Cada exportación ocupa un hueco masivo del compartimento de su cliente en {@link TenantBulkhead}.
+ */
+@Service
+public class ExportService {
+
+    private static final int CLEAR_INTERVAL = Integer.parseInt(ExportQueryHints.FETCH_SIZE);
+
+    private final JwtTokenRepository jwtTokenRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnly;
+    private final TenantBulkhead bulkhead;
+
+    public ExportService(JwtTokenRepository jwtTokenRepository, UserRepository userRepository,
+                         EntityManager entityManager, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager, TenantBulkhead bulkhead) {
+        this.jwtTokenRepository = jwtTokenRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Escribe los tokens emitidos por un cliente desde una fecha, uno por línea
+     * @return número de filas escritas
+     */
+    public long exportTokens(UUID clientId, OffsetDateTime since, OutputStream out) {
+        return bulkhead.call(clientId, TenantBulkhead.Workload.BULK, () -> readOnly.execute(status -> {
+            try (Stream<JwtToken> rows = jwtTokenRepository.streamTokensIssuedAfterAndClientId(since, clientId)) {
+                return write(rows, TokenSummary::from, out);
+            }
+        }));
+    }
+
+    /**
+     * Escribe los usuarios de un cliente, uno por línea
+     * @return número de filas escritas
+     */
+    public long exportUsers(UUID clientId, OutputStream out) {
+        return bulkhead.call(clientId, TenantBulkhead.Workload.BULK, () -> readOnly.execute(status -> {
+            try (Stream<UserListItem> rows = userRepository.streamByClientId(clientId)) {
+                return write(rows, Function.identity(), out);
+            }
+        }));
+    }
+
+    private <E, T> long write(Stream<E> rows, Function<E, T> mapper, OutputStream out) {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            Iterator<E> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(mapper.apply(iterator.next()));
+                if (++count % CLEAR_INTERVAL == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,12 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.model.JwtToken;
+
+/**
+ * Token recién emitido: el JWT firmado y la entidad que lo registra
+ * @param token token JWS compacto
+ * @param entity entidad JwtToken con jti, tipo y expiración; ya registrada si el token se emitió con
+ *               {@code issueAccessToken} o {@code issueRefreshToken}, que la insertan por JDBC
+ */
+public record IssuedToken(String token, JwtToken entity) {
+}
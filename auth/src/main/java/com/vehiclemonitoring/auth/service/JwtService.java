@@ -0,0 +1,107 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.JwtProperties;
+import com.vehiclemonitoring.auth.model.JwtToken;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.security.jwt.JwtClaims;
+import com.vehiclemonitoring.auth.security.jwt.JwtEngine;
+import com.vehiclemonitoring.auth.security.jwt.JwtValidationException;
+import com.vehiclemonitoring.auth.util.CoarseClock;
+import com.vehiclemonitoring.auth.util.UuidV7;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Servicio de emisión y verificación de tokens JWT sobre el modelo JwtToken.
+ * Los tokens de acceso y de refresco se registran en {@code jwt_tokens} a través de
+ * {@link JwtTokenBatchWriter}, que agrupa las inserciones de emisiones concurrentes.
+ */
+@Service
+public class JwtService {
+
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
+    private final JwtEngine engine;
+    private final JwtProperties properties;
+    private final TokenRevocationIndex revocationIndex;
+    private final SessionLimitPolicy sessionLimitPolicy;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final JwtTokenBatchWriter tokenWriter;
+
+    public JwtService(JwtEngine engine, JwtProperties properties, TokenRevocationIndex revocationIndex,
+                      SessionLimitPolicy sessionLimitPolicy, LastLoginRecorder lastLoginRecorder,
+                      JwtTokenBatchWriter tokenWriter) {
+        this.engine = engine;
+        this.properties = properties;
+        this.revocationIndex = revocationIndex;
+        this.sessionLimitPolicy = sessionLimitPolicy;
+        this.lastLoginRecorder = lastLoginRecorder;
+        this.tokenWriter = tokenWriter;
+    }
+
+    /**
+     * Emite un token de acceso y lo registra con {@link JwtTokenBatchWriter}
+     * @throws TokenBufferFullException si el buffer de escritura sigue lleno
+     */
+    public IssuedToken issueAccessToken(User user) {
+        IssuedToken issued = issue(user, ACCESS_TOKEN, properties.accessTokenTtl());
+        tokenWriter.write(issued.entity());
+        return issued;
+    }
+
+    /**
+     * Emite un refresh token, que abre una sesión nueva, aplicando el límite de sesiones del usuario.
+     * El token se registra con {@link JwtTokenBatchWriter} y el inicio de sesión en
+     * {@link LastLoginRecorder} en lugar de actualizar {@code User.lastLogin}.
+     * @throws SessionLimitExceededException si el usuario está en el límite y la política rechaza la sesión
+     * @throws TokenBufferFullException si el buffer de escritura sigue lleno
+     */
+    public IssuedToken issueRefreshToken(User user) {
+        sessionLimitPolicy.admit(user.getId());
+        IssuedToken issued = issue(user, REFRESH_TOKEN, properties.refreshTokenTtl());
+        tokenWriter.write(issued.entity());
+        lastLoginRecorder.record(user.getId());
+        return issued;
+    }
+
+    /**
+     * Emite un token para un usuario sin registrarlo
+     * @param user usuario propietario del token
+     * @param tokenType tipo de token
+     * @param ttl vigencia del token
+     * @return token firmado y entidad JwtToken lista para persistir
+     */
+    public IssuedToken issue(User user, String tokenType, Duration ttl) {
+        long nowMillis = System.currentTimeMillis();
+        long now = nowMillis / 1000;
+        long expiresAt = now + ttl.getSeconds();
+        // JwtToken deriva issued_at de la marca de tiempo del jti
+        String jti = UuidV7.generate(nowMillis).toString();
+        String clientId = user.getClient() == null ? null : user.getClient().getId().toString();
+        JwtClaims claims = new JwtClaims(jti, user.getId().toString(), clientId, tokenType, now, expiresAt);
+        String token = engine.issue(claims);
+        JwtToken entity = new JwtToken(jti, tokenType, user,
+                OffsetDateTime.ofInstant(Instant.ofEpochSecond(expiresAt), ZoneOffset.UTC));
+        return new IssuedToken(token, entity);
+    }
+
+    /**
+     * Verifica firma, expiración y revocación de un token
+     * @param token token JWS compacto
+     * @return claims del token
+     * @throws JwtValidationException si el token no es válido
+     */
+    public JwtClaims verify(String token) {
+        JwtClaims claims = engine.verify(token, CoarseClock.currentEpochSecond());
+        if (revocationIndex.isRevoked(claims.jti())) {
+            throw new JwtValidationException(JwtValidationException.Reason.REVOKED, "Token JWT revocado");
+        }
+        return claims;
+    }
+}
@@ -0,0 +1,274 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.TokenWriteBehindProperties;
+import com.vehiclemonitoring.auth.config.TokenWriteBehindProperties.DurabilityMode;
+import com.vehiclemonitoring.auth.event.JwtTokenIssuedEvent;
+import com.vehiclemonitoring.auth.model.JwtToken;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Escritura diferida de tokens JWT recién emitidos.
+ * Los tokens se encolan en un buffer acotado y un único hilo los inserta en
+ * lotes JDBC (que el driver reescribe como INSERT multi-fila) cuando se llena
+ * el lote o vence el intervalo de flush. Con el buffer lleno el emisor espera
+ * {@code offerTimeout} y después se rechaza el token.
+ *
+ * <p>Cada token encolado termina con su future completado: confirmado, o con error si su
+ * lote falla por cualquier causa (incluida la imposibilidad de abrir la transacción) o si
+ * el escritor se detiene antes de escribirlo. En modo SYNC el emisor espera como mucho
+ * {@code syncTimeout}.</p>
+ */
+@Service
+public class JwtTokenBatchWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenBatchWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO auth.jwt_tokens (id, jti, token_type, user_id, client_id, issued_at, expires_at, metadata) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, COALESCE(CAST(? AS jsonb), '{}'::jsonb))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TokenWriteBehindProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<PendingToken> queue;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public JwtTokenBatchWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               TokenWriteBehindProperties properties, ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(properties.capacity());
+        this.flushTimer = Timer.builder("auth.tokens.write-behind.flush")
+                .description("Duración de cada flush de lote de tokens")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("auth.tokens.write-behind.batch-size")
+                .description("Filas por lote de tokens")
+                .register(meterRegistry);
+        Gauge.builder("auth.tokens.write-behind.queue-depth", queue, BlockingQueue::size)
+                .description("Tokens pendientes de escribir")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encola un token para su inserción. En modo SYNC bloquea hasta que el lote se confirma.
+     * @param token token nuevo, aún no persistido
+     * @return future que se completa cuando la fila está confirmada
+     * @throws TokenBufferFullException si el buffer sigue lleno tras {@code offerTimeout}
+     * @throws IllegalStateException si el escritor está detenido, o en modo SYNC si el token
+     *                               no se confirma en {@code syncTimeout}
+     */
+    public CompletableFuture<Void> write(JwtToken token) {
+        if (!running) {
+            throw new IllegalStateException("El escritor de tokens está detenido");
+        }
+        PendingToken pending = PendingToken.of(token);
+        try {
+            if (!queue.offer(pending, properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new TokenBufferFullException("Buffer de tokens lleno (" + properties.capacity() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TokenBufferFullException("Interrumpido esperando hueco en el buffer de tokens");
+        }
+        // stop() pudo completarse mientras se encolaba: nadie vaciaría ya el buffer
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("El escritor de tokens está detenido");
+        }
+        if (properties.mode() == DurabilityMode.SYNC) {
+            await(pending.done());
+        }
+        return pending.done();
+    }
+
+    /**
+     * @return número de tokens pendientes de escribir
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("jwt-token-writer").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingToken> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        if (!abandoned.isEmpty()) {
+            log.warn("{} tokens sin escribir al detener el escritor", abandoned.size());
+            fail(abandoned, new IllegalStateException("El escritor de tokens se detuvo antes de escribir el token"));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long intervalNanos = properties.flushInterval().toNanos();
+        List<PendingToken> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingToken first = queue.poll(intervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + intervalNanos;
+                while (batch.size() < properties.batchSize()) {
+                    queue.drainTo(batch, properties.batchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.batchSize() || remaining <= 0) {
+                        break;
+                    }
+                    PendingToken next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } catch (RuntimeException | Error e) {
+                log.error("Error inesperado en el escritor de tokens", e);
+                fail(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingToken> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        try {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), JwtTokenBatchWriter::bind)));
+            } catch (DataAccessException e) {
+                log.warn("Falló el lote de {} tokens, reintentando fila a fila: {}", batch.size(), e.getMessage());
+                batch.forEach(this::insertSingle);
+                return;
+            }
+            batch.forEach(this::completed);
+        } catch (RuntimeException | Error e) {
+            // Sin transacción (p. ej. CannotCreateTransactionException) o fallo de un listener:
+            // los emisores no pueden quedarse esperando un future que nadie completará
+            log.error("No se pudo persistir el lote de {} tokens", batch.size(), e);
+            fail(batch, e);
+        }
+    }
+
+    // Aísla la fila defectuosa de un lote fallido sin perder el resto
+    private void insertSingle(PendingToken pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, pending)));
+            completed(pending);
+        } catch (RuntimeException e) {
+            log.error("No se pudo persistir el token {}", pending.jti(), e);
+            pending.done().completeExceptionally(e);
+        }
+    }
+
+    // Los futures ya completados no cambian
+    private static void fail(List<PendingToken> batch, Throwable cause) {
+        for (PendingToken pending : batch) {
+            pending.done().completeExceptionally(cause);
+        }
+    }
+
+    // Las inserciones por JDBC no pasan por los listeners de Hibernate
+    private void completed(PendingToken pending) {
+        eventPublisher.publishEvent(new JwtTokenIssuedEvent(pending.jti(), pending.userId(), pending.tokenType(),
+                pending.expiresAt()));
+        pending.done().complete(null);
+    }
+
+    private static void bind(PreparedStatement ps, PendingToken pending) throws SQLException {
+        ps.setObject(1, pending.id());
+        ps.setString(2, pending.jti());
+        ps.setString(3, pending.tokenType());
+        ps.setObject(4, pending.userId());
+        ps.setObject(5, pending.clientId(), Types.OTHER);
+        ps.setObject(6, pending.issuedAt());
+        ps.setObject(7, pending.expiresAt());
+        ps.setString(8, pending.metadata());
+    }
+
+    private void await(CompletableFuture<Void> done) {
+        try {
+            done.get(properties.syncTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la escritura del token", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo persistir el token", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("El token no se confirmó en " + properties.syncTimeout(), e);
+        }
+    }
+
+    private record PendingToken(UUID id, String jti, String tokenType, UUID userId, UUID clientId,
+                                OffsetDateTime issuedAt, OffsetDateTime expiresAt, String metadata,
+                                CompletableFuture<Void> done) {
+
+        static PendingToken of(JwtToken token) {
+            if (token.getIssuedAt() == null) {
+                token.setIssuedAt(OffsetDateTime.now(ZoneOffset.UTC));
+            }
+            return new PendingToken(token.getId(), token.getJti(), token.getTokenType(),
+                    token.getUser().getId(), token.getClient() == null ? null : token.getClient().getId(),
+                    token.getIssuedAt(), token.getExpiresAt(), token.getMetadata(), new CompletableFuture<>());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.LastLoginProperties;
+import com.vehiclemonitoring.auth.util.CoarseClock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro agrupado del último inicio de sesión de cada usuario.
+ * Actualizar {@code User.lastLogin} en cada login emite un UPDATE que además cambia
+ * {@code updatedAt} y bloquea la fila del usuario; con vehículos que se autentican cada
+ * pocos minutos es la escritura más frecuente. Aquí cada login solo guarda en memoria la
+ * marca de tiempo más reciente del usuario, y un flush periódico escribe todas las
+ * pendientes con un UPDATE por lote (arrays con {@code unnest}).
+ *
+ * <p>El flush no toca {@code updated_at}, que sigue reflejando cambios del perfil, y nunca
+ * retrocede {@code last_login}. Las filas se actualizan en orden de ID para que flushes de
+ * varias instancias no se bloqueen mutuamente. Si el flush falla, sea cual sea la excepción,
+ * las marcas no escritas vuelven al buffer para el siguiente intento. Al parar la
+ * aplicación se escriben las pendientes.</p>
+ */
+@Service
+public class LastLoginRecorder implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE auth.users u SET last_login = v.last_login " +
+            "FROM unnest(?::uuid[], ?::timestamptz[]) AS v(id, last_login) " +
+            "WHERE u.id = v.id AND (u.last_login IS NULL OR u.last_login < v.last_login)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LastLoginProperties properties;
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+
+    // userId -> último login pendiente en milisegundos epoch
+    private final Map<UUID, Long> pending = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             LastLoginProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.flushTimer = Timer.builder("auth.users.last-login.flush")
+                .description("Duración de cada flush de últimos inicios de sesión")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("auth.users.last-login.flushed")
+                .description("Usuarios actualizados por los flushes de último inicio de sesión")
+                .register(meterRegistry);
+        Gauge.builder("auth.users.last-login.pending", pending, Map::size)
+                .description("Usuarios con último inicio de sesión pendiente de escribir")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra un inicio de sesión del usuario en este instante
+     * @param userId ID del usuario
+     */
+    public void record(UUID userId) {
+        record(userId, CoarseClock.currentTimeMillis());
+    }
+
+    void record(UUID userId, long epochMillis) {
+        pending.merge(userId, epochMillis, Math::max);
+    }
+
+    /**
+     * @param userId ID del usuario
+     * @return último inicio de sesión aún no escrito en la base de datos, o null si no hay
+     */
+    public OffsetDateTime pendingLastLogin(UUID userId) {
+        Long millis = pending.get(userId);
+        return millis == null ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Escribe los inicios de sesión pendientes
+     * @return número de usuarios enviados a la base de datos
+     */
+    @Scheduled(initialDelayString = "${auth.users.last-login.max-staleness:PT30S}",
+               fixedDelayString = "${auth.users.last-login.max-staleness:PT30S}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<UUID, Long>> drained = drain();
+        drained.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+        int written = 0;
+        int from = 0;
+        try {
+            for (; from < drained.size(); from += properties.batchSize()) {
+                List<Map.Entry<UUID, Long>> batch = drained.subList(from, Math.min(from + properties.batchSize(), drained.size()));
+                try {
+                    flushTimer.record(() -> write(batch));
+                    written += batch.size();
+                } catch (RuntimeException e) {
+                    log.warn("No se pudieron escribir {} últimos inicios de sesión; se reintentarán", batch.size(), e);
+                    batch.forEach(entry -> record(entry.getKey(), entry.getValue()));
+                }
+            }
+        } finally {
+            // Un Error a mitad del flush no debe perder los lotes que aún no se han escrito
+            drained.subList(Math.min(from, drained.size()), drained.size())
+                    .forEach(entry -> record(entry.getKey(), entry.getValue()));
+            flushedRows.increment(written);
+        }
+        return written;
+    }
+
+    /**
+     * @return número de usuarios con inicio de sesión pendiente
+     */
+    public int pending() {
+        return pending.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            int written = flush();
+            log.info("Escritos {} últimos inicios de sesión pendientes al parar", written);
+        } catch (RuntimeException e) {
+            log.error("No se pudieron escribir los últimos inicios de sesión al parar; quedan {} pendientes",
+                    pending.size(), e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Retira cada entrada solo si no ha cambiado; un login concurrente la deja para el siguiente flush
+    private List<Map.Entry<UUID, Long>> drain() {
+        List<Map.Entry<UUID, Long>> drained = new ArrayList<>(pending.size());
+        for (Map.Entry<UUID, Long> entry : pending.entrySet()) {
+            UUID userId = entry.getKey();
+            Long millis = entry.getValue();
+            if (pending.remove(userId, millis)) {
+                drained.add(Map.entry(userId, millis));
+            }
+        }
+        return drained;
+    }
+
+    private void write(List<Map.Entry<UUID, Long>> batch) {
+        UUID[] ids = new UUID[batch.size()];
+        String[] times = new String[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            ids[i] = batch.get(i).getKey();
+            times[i] = Instant.ofEpochMilli(batch.get(i).getValue()).toString();
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(UPDATE_SQL, (PreparedStatement ps) -> {
+            Array idArray = ps.getConnection().createArrayOf("uuid", ids);
+            Array timeArray = ps.getConnection().createArrayOf("text", times);
+            try {
+                ps.setArray(1, idArray);
+                ps.setArray(2, timeArray);
+                return ps.executeUpdate();
+            } finally {
+                idArray.free();
+                timeArray.free();
+            }
+        }));
+    }
+}
@@ -0,0 +1,24 @@
+package com.vehiclemonitoring.auth.service;
+
+/**
+ * Resultado de comprobar un intento de inicio de sesión contra el limitador
+ * @param allowed true si el intento puede continuar
+ * @param scope límite que ha rechazado el intento, o null si se permite
+ * @param retryAfterMillis milisegundos hasta poder reintentar, o 0 si se permite
+ */
+public record LoginRateLimitDecision(boolean allowed, Scope scope, long retryAfterMillis) {
+
+    /** Instancia compartida para los intentos permitidos, que no crean objetos */
+    public static final LoginRateLimitDecision ALLOWED = new LoginRateLimitDecision(true, null, 0);
+
+    public enum Scope {
+        /** Demasiados intentos para el mismo email en el mismo cliente */
+        ACCOUNT,
+        /** Demasiados intentos desde la misma dirección de origen */
+        SOURCE
+    }
+
+    static LoginRateLimitDecision rejected(Scope scope, long retryAfterMillis) {
+        return new LoginRateLimitDecision(false, scope, retryAfterMillis);
+    }
+}
@@ -0,0 +1,119 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vehiclemonitoring.auth.config.LoginRateLimitProperties;
+import com.vehiclemonitoring.auth.util.CoarseClock;
+import com.vehiclemonitoring.auth.util.SlidingWindowLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limitador en memoria de intentos de inicio de sesión contra la fuerza bruta.
+ * Cada intento se cuenta dos veces: por cuenta (email y slug del cliente), que frena los
+ * ataques distribuidos contra un usuario, y por dirección de origen, que frena a quien
+ * prueba muchas cuentas. Los contadores son {@link SlidingWindowLimiter} sin bloqueos y
+ * no escriben en la base de datos; un intento permitido no crea objetos salvo la clave de
+ * cuenta. El email se normaliza (sin espacios y en minúsculas) para que las variantes de
+ * mayúsculas de un mismo email no repartan los intentos entre varias claves.
+ *
+ * <p>Las claves viven en cachés Caffeine acotadas que expulsan las menos usadas y expiran
+ * tras un periodo sin intentos mayor que la ventana y que el bloqueo máximo, así que una
+ * clave bloqueada no se olvida antes de que venza su bloqueo salvo por presión de tamaño.</p>
+ */
+@Service
+public class LoginRateLimiter {
+
+    private final LoginRateLimitProperties properties;
+    private final long windowMillis;
+    private final long baseLockoutMillis;
+    private final long maxLockoutMillis;
+    private final Cache<AccountKey, SlidingWindowLimiter> accounts;
+    private final Cache<String, SlidingWindowLimiter> sources;
+    private final Counter accountRejections;
+    private final Counter sourceRejections;
+
+    public LoginRateLimiter(LoginRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.windowMillis = properties.window().toMillis();
+        this.baseLockoutMillis = properties.baseLockout().toMillis();
+        this.maxLockoutMillis = properties.maxLockout().toMillis();
+        Duration idle = properties.window().multipliedBy(2).compareTo(properties.maxLockout()) > 0
+                ? properties.window().multipliedBy(2)
+                : properties.maxLockout();
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(properties.maximumKeys())
+                .expireAfterAccess(idle)
+                .recordStats()
+                .build();
+        this.sources = Caffeine.newBuilder()
+                .maximumSize(properties.maximumKeys())
+                .expireAfterAccess(idle)
+                .recordStats()
+                .build();
+        this.accountRejections = Counter.builder("auth.login.rate-limit.rejected")
+                .tag("scope", "account")
+                .description("Intentos de inicio de sesión rechazados por el limitador")
+                .register(meterRegistry);
+        this.sourceRejections = Counter.builder("auth.login.rate-limit.rejected")
+                .tag("scope", "source")
+                .description("Intentos de inicio de sesión rechazados por el limitador")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, "auth.login.rate-limit.accounts");
+        CaffeineCacheMetrics.monitor(meterRegistry, sources, "auth.login.rate-limit.sources");
+    }
+
+    /**
+     * Registra un intento de inicio de sesión y decide si puede continuar.
+     * Debe llamarse antes de buscar al usuario o verificar la contraseña.
+     * @param email email tal como llega en la petición
+     * @param clientSlug slug del cliente
+     * @param sourceAddress dirección de origen de la petición
+     * @return {@link LoginRateLimitDecision#ALLOWED} o el rechazo con su tiempo de espera
+     */
+    public LoginRateLimitDecision tryAcquire(String email, String clientSlug, String sourceAddress) {
+        if (!properties.enabled()) {
+            return LoginRateLimitDecision.ALLOWED;
+        }
+        long now = CoarseClock.currentTimeMillis();
+        if (sourceAddress != null) {
+            long retryAfter = sources.get(sourceAddress, key -> new SlidingWindowLimiter())
+                    .tryAcquire(now, windowMillis, properties.sourceLimit(), baseLockoutMillis, maxLockoutMillis);
+            if (retryAfter != SlidingWindowLimiter.ALLOWED) {
+                sourceRejections.increment();
+                return LoginRateLimitDecision.rejected(LoginRateLimitDecision.Scope.SOURCE, retryAfter);
+            }
+        }
+        long retryAfter = accounts.get(accountKey(email, clientSlug), key -> new SlidingWindowLimiter())
+                .tryAcquire(now, windowMillis, properties.accountLimit(), baseLockoutMillis, maxLockoutMillis);
+        if (retryAfter != SlidingWindowLimiter.ALLOWED) {
+            accountRejections.increment();
+            return LoginRateLimitDecision.rejected(LoginRateLimitDecision.Scope.ACCOUNT, retryAfter);
+        }
+        return LoginRateLimitDecision.ALLOWED;
+    }
+
+    /**
+     * Borra los strikes y el bloqueo de una cuenta tras un inicio de sesión correcto.
+     * El contador por origen se mantiene.
+     */
+    public void onSuccess(String email, String clientSlug) {
+        SlidingWindowLimiter limiter = accounts.getIfPresent(accountKey(email, clientSlug));
+        if (limiter != null) {
+            limiter.reset();
+        }
+    }
+
+    // trim y toLowerCase devuelven la misma cadena si ya está normalizada
+    private static AccountKey accountKey(String email, String clientSlug) {
+        return new AccountKey(email == null ? null : email.trim().toLowerCase(Locale.ROOT), clientSlug);
+    }
+
+    private record AccountKey(String email, String clientSlug) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.vehiclemonitoring.auth.service;
+
+/**
+ * Excepción lanzada cuando una operación de hash de contraseña no puede completarse
+ * dentro de su plazo: la cola está llena, la espera estimada lo supera o el plazo
+ * vence antes de obtener el resultado
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final String reason;
+
+    public PasswordHashingRejectedException(String reason) {
+        super("Operación de hash de contraseña rechazada: " + reason);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,278 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.PasswordHashingProperties;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import com.vehiclemonitoring.auth.security.password.Pbkdf2PasswordHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hash y verificación de contraseñas en un pool dedicado y acotado.
+ * PBKDF2 está limitado por CPU: ejecutarlo en los hilos de petición durante una avalancha
+ * de inicios de sesión deja sin hilos al resto de la API y hace que todas las peticiones
+ * venzan a la vez. Aquí el trabajo se ejecuta en tantos hilos como procesadores y el
+ * llamante (de plataforma o virtual) solo espera el resultado.
+ *
+ * <p>La cola es acotada y cada operación tiene un plazo. Antes de encolar se estima la
+ * espera a partir de la profundidad de la cola y de la latencia media del hash; si no cabe
+ * en el plazo se rechaza en el acto con {@link PasswordHashingRejectedException}, y las
+ * operaciones que vencen mientras esperan se descartan sin gastar CPU. Así, con sobrecarga
+ * el pool sigue completando a su ritmo máximo las peticiones que aceptó en lugar de
+ * repartir la CPU entre todas hasta que ninguna llega a tiempo.</p>
+ *
+ * <p>Si una contraseña correcta tiene un hash con parámetros antiguos, se rehace en segundo
+ * plano y se guarda solo si nadie la ha cambiado entretanto. Un hilo aparte coordina cada
+ * rehash: encola el hash en el pool con las mismas reglas de plazo y estimación de espera
+ * que una petición, y hace él la escritura, así que los hilos de hash nunca esperan a la
+ * base de datos. La contraseña espera en la cola de rehash como {@code char[]}, no como
+ * {@code String}, y se borra en cuanto se calcula el hash o se descarta el rehash.</p>
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    // Peso de cada muestra en la media móvil exponencial de la latencia del hash
+    private static final int EWMA_SHIFT = 3;
+
+    private final Pbkdf2PasswordHasher hasher;
+    private final UserRepository userRepository;
+    private final PasswordHashingProperties properties;
+    private final int workers;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor rehashExecutor;
+    private final AtomicLong averageHashNanos = new AtomicLong();
+
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Timer queueWaitTimer;
+    private final MeterRegistry meterRegistry;
+    private final Counter rehashed;
+
+    public PasswordHashingService(PasswordHashingProperties properties, UserRepository userRepository,
+                                  MeterRegistry meterRegistry) {
+        this.hasher = new Pbkdf2PasswordHasher(properties.iterations(), properties.saltBytes());
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.workers = properties.effectiveWorkers();
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, queue,
+                runnable -> Thread.ofPlatform()
+                        .name("password-hasher-" + threadNumber.incrementAndGet())
+                        .daemon()
+                        .unstarted(runnable),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        this.rehashExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                runnable -> Thread.ofPlatform()
+                        .name("password-rehash")
+                        .daemon()
+                        .unstarted(runnable),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("auth.passwords.latency")
+                .tag("operation", "hash")
+                .description("Tiempo de CPU de cada operación de hash de contraseña")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("auth.passwords.latency")
+                .tag("operation", "verify")
+                .description("Tiempo de CPU de cada operación de hash de contraseña")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.passwords.queue.wait")
+                .description("Tiempo que una operación espera en la cola antes de ejecutarse")
+                .register(meterRegistry);
+        this.rehashed = Counter.builder("auth.passwords.rehashed")
+                .description("Hashes rehechos al iniciar sesión por cambio de parámetros")
+                .register(meterRegistry);
+        Gauge.builder("auth.passwords.queue.depth", queue, BlockingQueue::size)
+                .description("Operaciones de hash esperando turno")
+                .register(meterRegistry);
+        Gauge.builder("auth.passwords.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operaciones de hash en ejecución")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Calcula el hash de una contraseña nueva
+     * @param password contraseña en claro
+     * @return hash codificado con sus parámetros
+     * @throws PasswordHashingRejectedException si no puede completarse dentro del plazo
+     */
+    public String hash(CharSequence password) {
+        return execute(() -> hasher.hash(password), hashTimer, deadline());
+    }
+
+    /**
+     * Verifica una contraseña contra su hash
+     * @throws PasswordHashingRejectedException si no puede completarse dentro del plazo
+     */
+    public boolean verify(CharSequence password, String encoded) {
+        return execute(() -> hasher.matches(password, encoded), verifyTimer, deadline());
+    }
+
+    /**
+     * Verifica la contraseña de un usuario y, si es correcta y su hash usa parámetros
+     * antiguos, lo rehace en segundo plano
+     * @param userId ID del usuario
+     * @param password contraseña en claro
+     * @param encoded hash almacenado del usuario
+     * @return true si la contraseña es correcta
+     * @throws PasswordHashingRejectedException si no puede completarse dentro del plazo
+     */
+    public boolean verifyAndUpgrade(UUID userId, CharSequence password, String encoded) {
+        boolean matches = verify(password, encoded);
+        if (matches && hasher.needsRehash(encoded)) {
+            char[] copy = new char[password.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = password.charAt(i);
+            }
+            scheduleRehash(userId, copy, encoded);
+        }
+        return matches;
+    }
+
+    /**
+     * @return operaciones esperando turno
+     */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rehashExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private long deadline() {
+        return System.nanoTime() + properties.deadline().toNanos();
+    }
+
+    private <T> T execute(Callable<T> work, Timer timer, long deadline) {
+        long now = System.nanoTime();
+        long average = averageHashNanos.get();
+        // Cada hilo atiende su parte de la cola por delante y después esta operación
+        long estimatedWait = average * (queue.size() / workers + 1);
+        if (average > 0 && now + estimatedWait - deadline > 0) {
+            throw reject("deadline");
+        }
+        long enqueuedAt = now;
+        FutureTask<T> task = new FutureTask<>(() -> {
+            long startedAt = System.nanoTime();
+            queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+            if (startedAt - deadline > 0) {
+                throw reject("expired");
+            }
+            try {
+                return work.call();
+            } finally {
+                long elapsed = System.nanoTime() - startedAt;
+                timer.record(elapsed, TimeUnit.NANOSECONDS);
+                updateAverage(elapsed);
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            throw reject("queue-full");
+        }
+        try {
+            return task.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(false);
+            throw reject("timeout");
+        } catch (InterruptedException e) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+            throw reject("interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * La tarea de hash toma la contraseña y la borra al terminar; si la tarea no llega a
+     * ejecutarse (rechazada, vencida o cancelada) la borra el hilo de rehash. El traspaso
+     * es atómico para que nunca se borre mientras el hash la está leyendo.
+     */
+    private void scheduleRehash(UUID userId, char[] password, String encoded) {
+        AtomicReference<char[]> pending = new AtomicReference<>(password);
+        try {
+            rehashExecutor.execute(() -> {
+                try {
+                    String upgraded = execute(() -> hashAndClear(pending), hashTimer, deadline());
+                    if (userRepository.updatePasswordHashIfUnchanged(userId, encoded, upgraded) > 0) {
+                        rehashed.increment();
+                    }
+                } catch (PasswordHashingRejectedException e) {
+                    // Con el pool saturado se deja para el siguiente inicio de sesión
+                    log.debug("Rehash del usuario {} aplazado: {}", userId, e.getReason());
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo actualizar el hash de la contraseña del usuario {}", userId, e);
+                } finally {
+                    clear(pending);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            clear(pending);
+            log.debug("Rehash del usuario {} aplazado: cola de rehash llena", userId);
+        }
+    }
+
+    private String hashAndClear(AtomicReference<char[]> pending) {
+        char[] password = pending.getAndSet(null);
+        if (password == null) {
+            throw new IllegalStateException("La contraseña del rehash ya se ha descartado");
+        }
+        try {
+            return hasher.hash(CharBuffer.wrap(password));
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    private static void clear(AtomicReference<char[]> pending) {
+        char[] password = pending.getAndSet(null);
+        if (password != null) {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    private void updateAverage(long sample) {
+        averageHashNanos.getAndUpdate(current -> current == 0 ? sample : current + ((sample - current) >> EWMA_SHIFT));
+    }
+
+    private PasswordHashingRejectedException reject(String reason) {
+        meterRegistry.counter("auth.passwords.rejected", "reason", reason).increment();
+        return new PasswordHashingRejectedException(reason);
+    }
+}
@@ -0,0 +1,111 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.repository.PermissionRepository;
+import com.vehiclemonitoring.auth.security.authz.PermissionBits;
+import com.vehiclemonitoring.auth.security.authz.PermissionIdRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compila los permisos de cada rol en un mapa de bits.
+ * No cachea usuarios: {@link EffectivePermissionCache} guarda las entradas por
+ * (usuario, cliente) y mantiene el único índice de invalidación, y recurre a
+ * este compilador para unir en memoria los bits de los roles del usuario.
+ *
+ * <p>Cuando cambia {@code role_permissions} solo se recompila el rol afectado.</p>
+ */
+@Component
+public class PermissionCompiler {
+
+    private final PermissionRepository permissionRepository;
+
+    private final PermissionIdRegistry registry = new PermissionIdRegistry();
+    private final Map<UUID, PermissionBits> roleBits = new ConcurrentHashMap<>();
+    // Se incrementa al vaciar el catálogo para no publicar compilaciones leídas antes
+    private final AtomicLong epoch = new AtomicLong();
+
+    public PermissionCompiler(PermissionRepository permissionRepository) {
+        this.permissionRepository = permissionRepository;
+    }
+
+    /**
+     * Compila los roles que aún no lo están y une sus permisos.
+     * Las consultas se hacen fuera de cualquier bloqueo; si otro hilo compila el
+     * mismo rol a la vez, prevalece el primero en publicarse.
+     * @param roleIds IDs de los roles
+     * @return unión de los permisos de los roles
+     */
+    public PermissionBits compile(Collection<UUID> roleIds) {
+        List<PermissionBits> sets = new ArrayList<>(roleIds.size());
+        for (UUID roleId : roleIds) {
+            PermissionBits bits = roleBits.get(roleId);
+            if (bits == null) {
+                long startEpoch = epoch.get();
+                PermissionBits compiled = compileRole(roleId);
+                bits = roleBits.compute(roleId, (id, current) ->
+                        current != null || epoch.get() != startEpoch ? current : compiled);
+                if (bits == null) {
+                    bits = compiled;
+                }
+            }
+            sets.add(bits);
+        }
+        return PermissionBits.union(sets);
+    }
+
+    /**
+     * Une en memoria los permisos de roles ya compilados, sin consultar la base de datos
+     * @param roleIds IDs de los roles
+     * @return unión de los permisos, o null si alguno de los roles no está compilado
+     */
+    public PermissionBits union(Collection<UUID> roleIds) {
+        List<PermissionBits> sets = new ArrayList<>(roleIds.size());
+        for (UUID roleId : roleIds) {
+            PermissionBits bits = roleBits.get(roleId);
+            if (bits == null) {
+                return null;
+            }
+            sets.add(bits);
+        }
+        return PermissionBits.union(sets);
+    }
+
+    /**
+     * Vuelve a compilar un rol tras un cambio en sus permisos
+     * @param roleId ID del rol
+     */
+    public void recompileRole(UUID roleId) {
+        roleBits.put(roleId, compileRole(roleId));
+    }
+
+    /**
+     * Descarta todos los roles compilados; los ids de permiso se conservan
+     */
+    public void clear() {
+        epoch.incrementAndGet();
+        roleBits.clear();
+    }
+
+    /**
+     * @return id denso de un permiso, o -1 si ningún rol compilado lo concede
+     */
+    public int permissionId(String permissionName) {
+        return registry.idOf(permissionName);
+    }
+
+    private PermissionBits compileRole(UUID roleId) {
+        List<String> names = permissionRepository.findNamesByRoleId(roleId);
+        int[] ids = new int[names.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = registry.register(names.get(i));
+        }
+        return PermissionBits.of(ids);
+    }
+}
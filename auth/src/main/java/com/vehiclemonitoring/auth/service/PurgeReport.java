@@ -0,0 +1,19 @@
+package com.vehiclemonitoring.auth.service;
+
+import java.time.Duration;
+
+/**
+ * Resultado de una ejecución de purga
+ * @param job trabajo ejecutado
+ * @param rowsDeleted filas eliminadas en la ejecución
+ * @param elapsed duración de la ejecución
+ * @param completed true si no quedan filas purgables hasta el corte
+ * @param lag distancia entre el corte y la última clave purgada (cero si se completó)
+ */
+public record PurgeReport(TokenPurgeEngine.Job job, long rowsDeleted, Duration elapsed, boolean completed, Duration lag) {
+
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds == 0 ? 0 : rowsDeleted / seconds;
+    }
+}
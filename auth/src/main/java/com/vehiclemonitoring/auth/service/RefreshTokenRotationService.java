@@ -0,0 +1,166 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.JwtProperties;
+import com.vehiclemonitoring.auth.config.RefreshRotationProperties;
+import com.vehiclemonitoring.auth.event.JwtTokenIssuedEvent;
+import com.vehiclemonitoring.auth.event.JwtTokensRevokedEvent;
+import com.vehiclemonitoring.auth.repository.projection.RevokedJti;
+import com.vehiclemonitoring.auth.security.jwt.JwtClaims;
+import com.vehiclemonitoring.auth.security.jwt.JwtEngine;
+import com.vehiclemonitoring.auth.security.jwt.JwtValidationException;
+import com.vehiclemonitoring.auth.util.CoarseClock;
+import com.vehiclemonitoring.auth.util.UuidV7;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rotación de refresh tokens en un único viaje a la base de datos.
+ * Una sola sentencia marca el token presentado como reemplazado e inserta el nuevo;
+ * el bloqueo de fila del UPDATE serializa los intentos concurrentes sobre el mismo jti,
+ * así que exactamente uno gana y el resto no encuentra la fila vigente.
+ *
+ * <p>Presentar un token ya reemplazado fuera de la ventana de gracia indica que ha sido
+ * robado: se revoca la cadena completa con una CTE recursiva.</p>
+ */
+@Service
+public class RefreshTokenRotationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenRotationService.class);
+
+    private static final String ROTATE_SQL =
+            "WITH old AS (" +
+            "  UPDATE auth.jwt_tokens SET revoked_at = now(), replaced_by_jti = ? " +
+            "  WHERE jti = ? AND user_id = ? AND token_type = '" + JwtService.REFRESH_TOKEN + "' " +
+            "    AND revoked_at IS NULL AND replaced_by_jti IS NULL " +
+            "    AND (expires_at IS NULL OR expires_at > now()) " +
+            "  RETURNING user_id, client_id, expires_at" +
+            "), ins AS (" +
+            "  INSERT INTO auth.jwt_tokens (id, jti, token_type, user_id, client_id, issued_at, expires_at, metadata) " +
+            "  SELECT ?, ?, '" + JwtService.REFRESH_TOKEN + "', user_id, client_id, ?, ?, '{}'::jsonb FROM old " +
+            "  RETURNING jti" +
+            ") " +
+            "SELECT old.expires_at FROM old, ins";
+
+    private static final String REPLACED_WITHIN_GRACE_SQL =
+            "SELECT revoked_at > now() - make_interval(secs => ?) FROM auth.jwt_tokens " +
+            "WHERE jti = ? AND replaced_by_jti IS NOT NULL";
+
+    private static final String REVOKE_CHAIN_SQL =
+            "WITH RECURSIVE ancestors AS (" +
+            "  SELECT jti FROM auth.jwt_tokens WHERE jti = ? " +
+            "  UNION " +
+            "  SELECT t.jti FROM auth.jwt_tokens t JOIN ancestors a ON t.replaced_by_jti = a.jti" +
+            "), chain AS (" +
+            "  SELECT jti, replaced_by_jti FROM auth.jwt_tokens WHERE jti IN (SELECT jti FROM ancestors) " +
+            "  UNION " +
+            "  SELECT t.jti, t.replaced_by_jti FROM auth.jwt_tokens t JOIN chain c ON t.jti = c.replaced_by_jti" +
+            ") " +
+            "UPDATE auth.jwt_tokens t SET revoked_at = now(), revoked_by = ? " +
+            "FROM chain c WHERE t.jti = c.jti AND t.revoked_at IS NULL " +
+            "RETURNING t.jti, t.user_id, t.token_type, t.expires_at";
+
+    private static final RowMapper<RevokedJti> REVOKED_JTI = (rs, rowNum) ->
+            new RevokedJti(rs.getString("jti"), rs.getObject("user_id", UUID.class),
+                    rs.getString("token_type"), rs.getObject("expires_at", OffsetDateTime.class));
+
+    private final JwtEngine engine;
+    private final JwtProperties jwtProperties;
+    private final RefreshRotationProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RefreshTokenRotationService(JwtEngine engine, JwtProperties jwtProperties,
+                                       RefreshRotationProperties properties, JdbcTemplate jdbcTemplate,
+                                       ApplicationEventPublisher eventPublisher) {
+        this.engine = engine;
+        this.jwtProperties = jwtProperties;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Reemplaza un refresh token por uno nuevo.
+     * No consulta el índice de revocación: el token reemplazado está revocado y debe
+     * llegar hasta aquí para detectar su reutilización.
+     * @param refreshToken refresh token JWS compacto presentado por el cliente
+     * @return resultado de la rotación
+     * @throws JwtValidationException si la firma no es válida, el token ha expirado o no es un refresh token
+     */
+    @Transactional
+    public RotationResult rotate(String refreshToken) {
+        long nowMillis = CoarseClock.currentTimeMillis();
+        long now = nowMillis / 1000;
+        JwtClaims presented = engine.verify(refreshToken, now);
+        if (!JwtService.REFRESH_TOKEN.equals(presented.tokenType())) {
+            throw new JwtValidationException(JwtValidationException.Reason.MALFORMED, "No es un refresh token");
+        }
+
+        // issued_at es la marca de tiempo del jti: ver db/jwt_tokens_partitioning.sql
+        JwtClaims next = new JwtClaims(UuidV7.generate(nowMillis).toString(), presented.subject(), presented.clientId(),
+                JwtService.REFRESH_TOKEN, now, now + jwtProperties.refreshTokenTtl().getSeconds());
+        String token = engine.issue(next);
+
+        List<OffsetDateTime> replaced = jdbcTemplate.query(ROTATE_SQL,
+                (rs, rowNum) -> rs.getObject(1, OffsetDateTime.class),
+                next.jti(), presented.jti(), UUID.fromString(presented.subject()),
+                UuidV7.generate(), next.jti(), OffsetDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), ZoneOffset.UTC),
+                toOffsetDateTime(next.expiresAt()));
+        if (replaced.size() > 1) {
+            // Con jwt_tokens particionada la base de datos solo garantiza la unicidad de (jti, issued_at)
+            throw new IllegalStateException("jti duplicado en jwt_tokens: " + presented.jti());
+        }
+        if (!replaced.isEmpty()) {
+            List<RevokedJti> revoked = List.of(new RevokedJti(presented.jti(), UUID.fromString(presented.subject()),
+                    JwtService.REFRESH_TOKEN, replaced.get(0)));
+            eventPublisher.publishEvent(new JwtTokensRevokedEvent(revoked));
+            eventPublisher.publishEvent(new JwtTokenIssuedEvent(next.jti(), UUID.fromString(next.subject()),
+                    JwtService.REFRESH_TOKEN, toOffsetDateTime(next.expiresAt())));
+            return new RotationResult(RotationResult.Outcome.ROTATED, token, next, revoked);
+        }
+
+        List<Boolean> withinGrace = jdbcTemplate.queryForList(REPLACED_WITHIN_GRACE_SQL, Boolean.class,
+                properties.reuseGrace().toMillis() / 1000.0, presented.jti());
+        if (withinGrace.isEmpty()) {
+            return RotationResult.of(RotationResult.Outcome.INVALID);
+        }
+        if (Boolean.TRUE.equals(withinGrace.get(0))) {
+            return RotationResult.of(RotationResult.Outcome.CONCURRENT_RETRY);
+        }
+        log.warn("Reutilización del refresh token {} del usuario {}: se revoca la cadena",
+                presented.jti(), presented.subject());
+        List<RevokedJti> revoked = revokeChain(presented.jti(), UUID.fromString(presented.subject()));
+        return new RotationResult(RotationResult.Outcome.REUSE_DETECTED, null, null, revoked);
+    }
+
+    /**
+     * Revoca todos los tokens de la cadena de rotación a la que pertenece un jti,
+     * tanto sus antecesores como sus sucesores, en una sola consulta
+     * @param jti cualquier jti de la cadena
+     * @param revokedBy ID de quien revoca
+     * @return tokens revocados que seguían activos
+     */
+    @Transactional
+    public List<RevokedJti> revokeChain(String jti, UUID revokedBy) {
+        List<RevokedJti> revoked = jdbcTemplate.query(REVOKE_CHAIN_SQL, REVOKED_JTI, jti, revokedBy);
+        if (!revoked.isEmpty()) {
+            eventPublisher.publishEvent(new JwtTokensRevokedEvent(revoked));
+        }
+        return revoked;
+    }
+
+    private static OffsetDateTime toOffsetDateTime(long epochSeconds) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds), ZoneOffset.UTC);
+    }
+}
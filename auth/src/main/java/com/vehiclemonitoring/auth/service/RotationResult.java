@@ -0,0 +1,35 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.repository.projection.RevokedJti;
+import com.vehiclemonitoring.auth.security.jwt.JwtClaims;
+
+import java.util.List;
+
+/**
+ * Resultado de una rotación de refresh token
+ * @param outcome resultado de la operación
+ * @param token nuevo refresh token firmado, solo si {@code outcome} es ROTATED
+ * @param claims claims del nuevo token, solo si {@code outcome} es ROTATED
+ * @param revoked tokens revocados por la operación
+ */
+public record RotationResult(Outcome outcome, String token, JwtClaims claims, List<RevokedJti> revoked) {
+
+    public enum Outcome {
+        /** El token se ha reemplazado por uno nuevo */
+        ROTATED,
+        /** Otro intento ganó la rotación hace menos de la ventana de gracia; la cadena sigue viva */
+        CONCURRENT_RETRY,
+        /** El token ya había sido reemplazado: se ha revocado toda la cadena */
+        REUSE_DETECTED,
+        /** Token desconocido, expirado o revocado */
+        INVALID
+    }
+
+    static RotationResult of(Outcome outcome) {
+        return new RotationResult(outcome, null, null, List.of());
+    }
+
+    public boolean isRotated() {
+        return outcome == Outcome.ROTATED;
+    }
+}
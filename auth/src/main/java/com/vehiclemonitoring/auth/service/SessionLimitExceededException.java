@@ -0,0 +1,20 @@
+package com.vehiclemonitoring.auth.service;
+
+import java.util.UUID;
+
+/**
+ * Excepción lanzada cuando un usuario ha alcanzado su número máximo de sesiones activas
+ */
+public class SessionLimitExceededException extends RuntimeException {
+
+    private final UUID userId;
+
+    public SessionLimitExceededException(UUID userId, int maxSessions) {
+        super("El usuario " + userId + " ha alcanzado el máximo de " + maxSessions + " sesiones activas");
+        this.userId = userId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,46 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.SessionLimitProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Aplica el límite de sesiones concurrentes por usuario antes de emitir un refresh token.
+ * El límite se consulta en {@link ActiveSessionCounter}, sin ir a la base de datos; dos
+ * inicios de sesión simultáneos del mismo usuario pueden superarlo en una sesión.
+ */
+@Service
+public class SessionLimitPolicy {
+
+    private final ActiveSessionCounter sessionCounter;
+    private final TokenRevocationService revocationService;
+    private final SessionLimitProperties properties;
+
+    public SessionLimitPolicy(ActiveSessionCounter sessionCounter, TokenRevocationService revocationService,
+                              SessionLimitProperties properties) {
+        this.sessionCounter = sessionCounter;
+        this.revocationService = revocationService;
+        this.properties = properties;
+    }
+
+    /**
+     * Hace sitio para una sesión nueva del usuario según la política configurada
+     * @param userId ID del usuario
+     * @throws SessionLimitExceededException si la política es REJECT_NEWEST y el usuario está en el límite
+     */
+    public void admit(UUID userId) {
+        int max = properties.maxPerUser();
+        if (max <= 0) {
+            return;
+        }
+        long active = sessionCounter.activeSessions(userId);
+        if (active < max) {
+            return;
+        }
+        if (properties.policy() == SessionLimitProperties.Policy.REJECT_NEWEST) {
+            throw new SessionLimitExceededException(userId, max);
+        }
+        revocationService.revokeOldestSessions(userId, (int) (active - max + 1), userId);
+    }
+}
@@ -0,0 +1,257 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.vehiclemonitoring.auth.config.TenantBulkheadProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compartimentos (bulkheads) por cliente delante del pool de conexiones.
+ * Con un único pool, un cliente que lanza exportaciones o importaciones masivas puede
+ * ocupar todas las conexiones y bloquear los inicios de sesión del resto de flotas.
+ * Aquí cada cliente tiene un máximo de operaciones simultáneas, y un máximo menor para
+ * las masivas; todas comparten el pool salvo {@code criticalReserve} conexiones que solo
+ * pueden usar los inicios de sesión y las validaciones ({@link Workload#CRITICAL}), que
+ * además no cuentan contra el compartimento de su cliente.
+ *
+ * <p>La espera por un hueco está acotada por {@code maxWait}; pasado ese tiempo la
+ * operación se rechaza con {@link TenantBulkheadFullException}, así que un cliente
+ * saturado solo degrada sus propias peticiones. Publica por cliente el tiempo de espera,
+ * las operaciones en curso y los rechazos.</p>
+ *
+ * <p>Los compartimentos se crean al primer uso y viven en una caché acotada por
+ * {@code maxTenants} que los descarta tras {@code idleTimeout} sin uso, retirando también
+ * sus métricas; los llamantes deben pasar solo IDs de clientes ya resueltos (ver
+ * {@link TenantDirectory#requireActive}), nunca el valor recibido en la petición.</p>
+ *
+ * <p>Los semáforos no controlan el pool: solo limitan a quien pasa por aquí, que son los
+ * endpoints de listado, las exportaciones y la búsqueda de usuarios del inicio de sesión.
+ * Los escritores en segundo plano (lotes de tokens, últimos inicios de sesión, purga,
+ * reconciliación de sesiones, reconstrucción del índice de búsqueda, revocación y
+ * rotación de tokens) toman conexiones directamente de HikariCP. La reserva de inicios de
+ * sesión es por tanto orientativa: garantiza que esas operaciones no la consuman, pero no
+ * que las conexiones reservadas estén libres en el pool cuando un inicio de sesión las pide.
+ * Para que la reserva sea efectiva el pool debe dimensionarse con margen para ellos.</p>
+ */
+@Service
+public class TenantBulkhead {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantBulkhead.class);
+
+    private static final String SHARED_TAG = "shared";
+
+    public enum Workload {
+        /** Inicio de sesión y validación de tokens: puede usar la reserva y no ocupa el compartimento del cliente */
+        CRITICAL,
+        /** Consultas y escrituras normales de la API */
+        STANDARD,
+        /** Exportaciones e importaciones que retienen la conexión durante mucho tiempo */
+        BULK
+    }
+
+    private final TenantBulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore shared;
+    private final Semaphore reserve;
+    private final Cache<UUID, Compartment> compartments;
+    private final Compartment unassigned;
+
+    public TenantBulkhead(TenantBulkheadProperties properties, DataSource dataSource, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        int poolSize = poolSize(dataSource);
+        int reserved = Math.min(properties.criticalReserve(), poolSize - 1);
+        this.shared = new Semaphore(poolSize - reserved);
+        this.reserve = new Semaphore(reserved);
+        this.unassigned = new Compartment(SHARED_TAG);
+        // Expulsar un compartimento con operaciones en curso solo relaja su límite hasta que
+        // terminan: liberan los permisos sobre el objeto descartado
+        this.compartments = Caffeine.newBuilder()
+                .maximumSize(properties.maxTenants())
+                .expireAfterAccess(properties.idleTimeout())
+                .executor(Runnable::run)
+                .removalListener((UUID clientId, Compartment compartment, RemovalCause cause) -> {
+                    if (compartment != null) {
+                        compartment.close();
+                    }
+                })
+                .build();
+        Gauge.builder("auth.db.bulkhead.shared.available", shared, Semaphore::availablePermits)
+                .description("Conexiones del pool compartido libres para nuevas operaciones")
+                .register(meterRegistry);
+        Gauge.builder("auth.db.bulkhead.reserve.available", reserve, Semaphore::availablePermits)
+                .description("Conexiones de la reserva de inicios de sesión libres")
+                .register(meterRegistry);
+        log.info("Bulkheads de base de datos: pool {}, reserva {}, {} por cliente ({} masivas)",
+                poolSize, reserved, properties.maxPerTenant(), properties.maxBulkPerTenant());
+    }
+
+    /**
+     * Ejecuta una operación de base de datos dentro del compartimento de su cliente
+     * @param clientId cliente ya resuelto al que se atribuye la operación, o null si no se
+     *                 conoce; las operaciones sin cliente comparten un compartimento propio
+     * @param workload tipo de operación
+     * @param operation operación a ejecutar; debe abrir y cerrar su transacción dentro
+     * @return resultado de la operación
+     * @throws TenantBulkheadFullException si no obtiene hueco dentro de {@code maxWait}
+     */
+    public <T> T call(UUID clientId, Workload workload, Supplier<T> operation) {
+        if (!properties.enabled()) {
+            return operation.get();
+        }
+        Compartment compartment = clientId == null ? unassigned : compartments.get(clientId,
+                id -> new Compartment(id.toString()));
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + properties.maxWait().toNanos();
+        Semaphore[] acquired = new Semaphore[3];
+        int count = 0;
+        try {
+            if (workload == Workload.CRITICAL) {
+                Semaphore pool = shared.tryAcquire() ? shared : acquire(reserve, deadline) ? reserve : null;
+                if (pool == null) {
+                    throw reject(clientId, compartment, workload);
+                }
+                acquired[count++] = pool;
+            } else {
+                if (workload == Workload.BULK) {
+                    if (!acquire(compartment.bulk, deadline)) {
+                        throw reject(clientId, compartment, workload);
+                    }
+                    acquired[count++] = compartment.bulk;
+                }
+                if (!acquire(compartment.all, deadline)) {
+                    throw reject(clientId, compartment, workload);
+                }
+                acquired[count++] = compartment.all;
+                if (!acquire(shared, deadline)) {
+                    throw reject(clientId, compartment, workload);
+                }
+                acquired[count++] = shared;
+            }
+        } catch (RuntimeException e) {
+            release(acquired, count);
+            throw e;
+        }
+        compartment.waitTimers[workload.ordinal()].record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        try {
+            return operation.get();
+        } finally {
+            release(acquired, count);
+        }
+    }
+
+    /**
+     * Variante de {@link #call} para operaciones sin resultado
+     */
+    public void run(UUID clientId, Workload workload, Runnable operation) {
+        call(clientId, workload, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param clientId ID del cliente
+     * @return operaciones en curso del cliente (sin contar las críticas)
+     */
+    public int inFlight(UUID clientId) {
+        Compartment compartment = compartments.getIfPresent(clientId);
+        return compartment == null ? 0 : properties.maxPerTenant() - compartment.all.availablePermits();
+    }
+
+    // Aplica ya las expulsiones pendientes
+    void cleanUp() {
+        compartments.cleanUp();
+    }
+
+    private static boolean acquire(Semaphore semaphore, long deadline) {
+        if (semaphore.tryAcquire()) {
+            return true;
+        }
+        try {
+            return semaphore.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void release(Semaphore[] acquired, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            acquired[i].release();
+        }
+    }
+
+    private TenantBulkheadFullException reject(UUID clientId, Compartment compartment, Workload workload) {
+        compartment.rejections[workload.ordinal()].increment();
+        return new TenantBulkheadFullException(clientId, workload);
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("No se pudo obtener el tamaño del pool de conexiones", e);
+        }
+        // Valor por defecto de HikariCP
+        return 10;
+    }
+
+    private final class Compartment {
+
+        final Semaphore all = new Semaphore(properties.maxPerTenant());
+        final Semaphore bulk = new Semaphore(Math.min(properties.maxBulkPerTenant(), properties.maxPerTenant()));
+        final Timer[] waitTimers = new Timer[Workload.values().length];
+        final Counter[] rejections = new Counter[Workload.values().length];
+        private final List<Meter> meters = new ArrayList<>();
+
+        Compartment(String tenant) {
+            for (Workload workload : Workload.values()) {
+                String tag = workload.name().toLowerCase(Locale.ROOT);
+                waitTimers[workload.ordinal()] = Timer.builder("auth.db.bulkhead.wait")
+                        .tag("tenant", tenant)
+                        .tag("workload", tag)
+                        .description("Tiempo de espera por un hueco de base de datos")
+                        .register(meterRegistry);
+                rejections[workload.ordinal()] = Counter.builder("auth.db.bulkhead.rejected")
+                        .tag("tenant", tenant)
+                        .tag("workload", tag)
+                        .description("Operaciones rechazadas por falta de hueco de base de datos")
+                        .register(meterRegistry);
+                meters.add(waitTimers[workload.ordinal()]);
+                meters.add(rejections[workload.ordinal()]);
+            }
+            meters.add(Gauge.builder("auth.db.bulkhead.in-flight", all,
+                            semaphore -> properties.maxPerTenant() - semaphore.availablePermits())
+                    .tag("tenant", tenant)
+                    .description("Operaciones de base de datos en curso del cliente")
+                    .register(meterRegistry));
+        }
+
+        // Retira las series del cliente al descartar el compartimento
+        void close() {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.vehiclemonitoring.auth.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+/**
+ * Excepción lanzada cuando una operación no obtiene hueco en el compartimento de su
+ * cliente o en el pool compartido dentro del tiempo máximo de espera
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TenantBulkheadFullException extends RuntimeException {
+
+    private final UUID clientId;
+
+    public TenantBulkheadFullException(UUID clientId, TenantBulkhead.Workload workload) {
+        super("Sin capacidad de base de datos para el cliente " + clientId + " (" + workload + ")");
+        this.clientId = clientId;
+    }
+
+    public UUID getClientId() {
+        return clientId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.vehiclemonitoring.auth.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Descriptor inmutable de un cliente (tenant) para resolverlo en cada petición
+ * @param id ID del cliente
+ * @param slug slug del cliente
+ * @param active si el cliente está activo
+ * @param metadata metadatos JSON ya interpretados; mapas y listas anidados no modificables
+ */
+public record TenantDescriptor(UUID id, String slug, boolean active, Map<String, Object> metadata) {
+
+    public TenantDescriptor {
+        metadata = metadata == null ? Map.of() : freezeMap(metadata);
+    }
+
+    // Map.copyOf no admite null, y en JSON los valores null son habituales
+    private static Map<String, Object> freezeMap(Map<?, ?> source) {
+        Map<String, Object> copy = new LinkedHashMap<>(source.size() * 2);
+        source.forEach((key, value) -> copy.put(String.valueOf(key), freeze(value)));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static Object freeze(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return freezeMap(map);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(item -> copy.add(freeze(item)));
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,176 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vehiclemonitoring.auth.config.TenantCacheProperties;
+import com.vehiclemonitoring.auth.event.ClientChangedEvent;
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolución de clientes (tenants) por slug o ID en memoria.
+ * Cada petición de una flota lleva el slug de su cliente; en lugar de consultar
+ * {@link ClientRepository#findBySlug} cada vez, se guarda un {@link TenantDescriptor}
+ * inmutable con los metadatos ya interpretados, indexado por slug y por ID, así que
+ * resolver el cliente es una búsqueda en un mapa.
+ *
+ * <p>Los descriptores se reemplazan en cuanto se confirma un cambio del cliente en este
+ * nodo, con el estado publicado por {@link com.vehiclemonitoring.auth.event.EntityEventBridge}:
+ * desactivar un cliente con {@code setIsActive(false)} se ve en la siguiente petición.
+ * El TTL solo cubre los cambios hechos desde otros nodos o directamente en la base de datos,
+ * así que las recargas leen la base de datos sin pasar por la caché de segundo nivel, cuyas
+ * entradas de clientes duran más que este TTL.</p>
+ */
+@Service
+public class TenantDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantDirectory.class);
+
+    static final String CACHE_NAME = "auth.tenants";
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {};
+
+    private final ClientRepository clientRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, TenantDescriptor> bySlug;
+    private final Cache<UUID, TenantDescriptor> byId;
+    private final AtomicLong generation = new AtomicLong();
+    // Serializa la comprobación de generación con la escritura de ambos índices
+    private final Object writeLock = new Object();
+
+    public TenantDirectory(ClientRepository clientRepository, ObjectMapper objectMapper,
+                           TenantCacheProperties properties, MeterRegistry meterRegistry) {
+        this.clientRepository = clientRepository;
+        this.objectMapper = objectMapper;
+        this.bySlug = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bySlug, CACHE_NAME + ".by-slug");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, CACHE_NAME + ".by-id");
+    }
+
+    /**
+     * @param slug slug del cliente
+     * @return descriptor del cliente, activo o no, si existe
+     */
+    public Optional<TenantDescriptor> findBySlug(String slug) {
+        TenantDescriptor cached = bySlug.getIfPresent(slug);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long startGeneration = generation.get();
+        return clientRepository.findUncachedBySlug(slug).map(client -> cache(client, startGeneration));
+    }
+
+    /**
+     * @param id ID del cliente
+     * @return descriptor del cliente, activo o no, si existe
+     */
+    public Optional<TenantDescriptor> findById(UUID id) {
+        TenantDescriptor cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long startGeneration = generation.get();
+        return clientRepository.findUncachedById(id).map(client -> cache(client, startGeneration));
+    }
+
+    /**
+     * @param slug slug del cliente
+     * @return descriptor del cliente solo si existe y está activo
+     */
+    public Optional<TenantDescriptor> findActiveBySlug(String slug) {
+        return findBySlug(slug).filter(TenantDescriptor::active);
+    }
+
+    /**
+     * Resuelve el cliente de una petición
+     * @param id ID del cliente
+     * @return descriptor del cliente activo
+     * @throws TenantNotFoundException si el cliente no existe o está desactivado
+     */
+    public TenantDescriptor requireActive(UUID id) {
+        return findById(id).filter(TenantDescriptor::active).orElseThrow(() -> new TenantNotFoundException(id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        TenantDescriptor descriptor = event.removed() ? null : new TenantDescriptor(event.id(), event.slug(),
+                Boolean.TRUE.equals(event.isActive()), parseMetadata(event.id(), event.metadata()));
+        synchronized (writeLock) {
+            generation.incrementAndGet();
+            TenantDescriptor previous = byId.getIfPresent(event.id());
+            if (previous != null && !previous.slug().equals(event.slug())) {
+                bySlug.invalidate(previous.slug());
+            }
+            if (descriptor == null) {
+                byId.invalidate(event.id());
+                bySlug.invalidate(event.slug());
+                return;
+            }
+            put(descriptor);
+        }
+    }
+
+    /**
+     * Descarta todos los descriptores
+     */
+    public void invalidateAll() {
+        synchronized (writeLock) {
+            generation.incrementAndGet();
+            bySlug.invalidateAll();
+            byId.invalidateAll();
+        }
+    }
+
+    // Una lectura que coincide con un cambio no se guarda: podría reponer el estado anterior
+    private TenantDescriptor cache(Client client, long startGeneration) {
+        TenantDescriptor descriptor = new TenantDescriptor(client.getId(), client.getSlug(),
+                Boolean.TRUE.equals(client.getIsActive()), parseMetadata(client.getId(), client.getMetadata()));
+        synchronized (writeLock) {
+            if (generation.get() == startGeneration) {
+                put(descriptor);
+            }
+        }
+        return descriptor;
+    }
+
+    private void put(TenantDescriptor descriptor) {
+        byId.put(descriptor.id(), descriptor);
+        bySlug.put(descriptor.slug(), descriptor);
+    }
+
+    private Map<String, Object> parseMetadata(UUID clientId, String metadata) {
+        if (metadata == null || metadata.isBlank()) {
+            return Map.of();
+        }
+        try {
+            Map<String, Object> parsed = objectMapper.readValue(metadata, METADATA_TYPE);
+            return parsed == null ? Map.of() : parsed;
+        } catch (JsonProcessingException e) {
+            log.warn("Metadatos no válidos en el cliente {}; se usan vacíos", clientId, e);
+            return Map.of();
+        }
+    }
+}
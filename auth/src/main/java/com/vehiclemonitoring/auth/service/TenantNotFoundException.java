@@ -0,0 +1,25 @@
+package com.vehiclemonitoring.auth.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+/**
+ * Excepción lanzada cuando una petición se dirige a un cliente que no existe o que está
+ * desactivado; ambos casos responden igual para no revelar qué clientes existen
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class TenantNotFoundException extends RuntimeException {
+
+    private final UUID clientId;
+
+    public TenantNotFoundException(UUID clientId) {
+        super("Cliente no encontrado o desactivado: " + clientId);
+        this.clientId = clientId;
+    }
+
+    public UUID getClientId() {
+        return clientId;
+    }
+}
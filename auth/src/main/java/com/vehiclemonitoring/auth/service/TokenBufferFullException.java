@@ -0,0 +1,11 @@
+package com.vehiclemonitoring.auth.service;
+
+/**
+ * Excepción lanzada cuando el buffer de escritura de tokens sigue lleno tras el tiempo de espera
+ */
+public class TokenBufferFullException extends RuntimeException {
+
+    public TokenBufferFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,83 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.TokenExpiryProperties;
+import com.vehiclemonitoring.auth.event.JwtTokenIssuedEvent;
+import com.vehiclemonitoring.auth.event.JwtTokensExpiredEvent;
+import com.vehiclemonitoring.auth.event.JwtTokensExpiredEvent.ExpiredToken;
+import com.vehiclemonitoring.auth.util.CoarseClock;
+import com.vehiclemonitoring.auth.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sigue la expiración de los tokens vivos con una rueda temporal jerárquica y publica
+ * los vencimientos en lotes como {@link JwtTokensExpiredEvent}. Los consumidores descuentan
+ * sesiones y retiran entradas de sus estructuras en memoria sin consultar la base de datos
+ * ni comparar fechas en cada petición.
+ */
+@Service
+public class TokenExpiryTracker {
+
+    private final HierarchicalTimingWheel<ExpiredToken> wheel;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile long advancedTo;
+
+    public TokenExpiryTracker(TokenExpiryProperties properties, ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry) {
+        this.wheel = new HierarchicalTimingWheel<>(properties.tick().toMillis(), properties.wheelSize(),
+                properties.levels(), CoarseClock.currentTimeMillis());
+        this.eventPublisher = eventPublisher;
+        this.advancedTo = wheel.currentTimeMillis();
+        Gauge.builder("auth.tokens.expiry.tracked", wheel, HierarchicalTimingWheel::size)
+                .description("Tokens vivos seguidos por la rueda temporal")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Empieza a seguir un token; los tokens sin expiración se ignoran
+     * @param jti identificador único del token
+     * @param userId ID del usuario propietario
+     * @param tokenType tipo de token
+     * @param expiresAt fecha de expiración del token
+     */
+    public void track(String jti, UUID userId, String tokenType, OffsetDateTime expiresAt) {
+        if (expiresAt == null) {
+            return;
+        }
+        long deadline = expiresAt.toEpochSecond() * 1000 + expiresAt.getNano() / 1_000_000;
+        wheel.schedule(new ExpiredToken(jti, userId, tokenType), deadline);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenIssued(JwtTokenIssuedEvent event) {
+        track(event.jti(), event.userId(), event.tokenType(), event.expiresAt());
+    }
+
+    /**
+     * Avanza la rueda y publica los tokens vencidos desde el último avance
+     */
+    @Scheduled(fixedRateString = "${auth.tokens.expiry.tick:PT1S}")
+    public synchronized void advance() {
+        List<ExpiredToken> expired = wheel.advance(CoarseClock.currentTimeMillis());
+        if (!expired.isEmpty()) {
+            eventPublisher.publishEvent(new JwtTokensExpiredEvent(expired));
+        }
+        advancedTo = wheel.currentTimeMillis();
+    }
+
+    /**
+     * @return instante en milisegundos epoch hasta el que ya se publicaron los vencimientos:
+     *         un token con expiración posterior aún no ha generado {@link JwtTokensExpiredEvent}
+     */
+    public long advancedTo() {
+        return advancedTo;
+    }
+}
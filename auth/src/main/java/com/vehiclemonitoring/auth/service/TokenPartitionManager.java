@@ -0,0 +1,139 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.TokenPartitionProperties;
+import com.vehiclemonitoring.auth.config.TokenPartitionProperties.Granularity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Gestor de particiones de {@code auth.jwt_tokens}, particionada por rango de {@code issued_at}.
+ * Mantiene creadas las particiones de los próximos periodos y separa y elimina
+ * las particiones cuyos tokens han expirado todos, en lugar de borrarlos fila a fila.
+ * La conversión de la tabla está en {@code db/jwt_tokens_partitioning.sql}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "auth.tokens.partitioning", name = "enabled", havingValue = "true")
+public class TokenPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenPartitionManager.class);
+
+    static final String PARTITION_PREFIX = "jwt_tokens_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenPartitionProperties properties;
+
+    public TokenPartitionManager(JdbcTemplate jdbcTemplate, TokenPartitionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.tokens.partitioning.check-interval:PT1H}")
+    public void maintain() {
+        createUpcomingPartitions();
+        dropExpiredPartitions();
+    }
+
+    /**
+     * Crea la partición del periodo actual y las {@code precreate} siguientes si no existen
+     */
+    public void createUpcomingPartitions() {
+        LocalDate start = periodStart(LocalDate.now(ZoneOffset.UTC));
+        for (int i = 0; i <= properties.precreate(); i++) {
+            LocalDate from = start.plus(i, properties.granularity() == Granularity.DAILY
+                    ? ChronoUnit.DAYS : ChronoUnit.WEEKS);
+            LocalDate to = periodEnd(from);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS auth." + partitionName(from) +
+                    " PARTITION OF auth.jwt_tokens FOR VALUES FROM ('" + from + " 00:00:00+00') TO ('" + to + " 00:00:00+00')");
+        }
+    }
+
+    /**
+     * Separa y elimina las particiones cerradas en las que todos los tokens
+     * expiraron hace más de {@code retention}. Antes termina las separaciones
+     * concurrentes que quedaron a medias en una ejecución anterior.
+     * @return número de particiones eliminadas
+     */
+    public int dropExpiredPartitions() {
+        int dropped = finalizePendingDetaches();
+        OffsetDateTime threshold = OffsetDateTime.now(ZoneOffset.UTC).minus(properties.retention());
+        for (String partition : listPartitions(false)) {
+            LocalDate from = parseStart(partition);
+            if (from == null || !periodEnd(from).atStartOfDay().atOffset(ZoneOffset.UTC).isBefore(threshold)) {
+                continue;
+            }
+            Boolean live = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM auth." + partition +
+                    " WHERE expires_at IS NULL OR expires_at > ?)", Boolean.class, threshold);
+            if (Boolean.TRUE.equals(live)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE auth.jwt_tokens DETACH PARTITION auth." + partition +
+                    (properties.detachConcurrently() ? " CONCURRENTLY" : ""));
+            jdbcTemplate.execute("DROP TABLE auth." + partition);
+            log.info("Partición {} separada y eliminada", partition);
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * Un DETACH PARTITION CONCURRENTLY que falla o se cancela en su segunda transacción deja
+     * la partición pendiente de separar: no admite otro DETACH y solo se completa con FINALIZE
+     * @return número de particiones separadas y eliminadas
+     */
+    private int finalizePendingDetaches() {
+        int dropped = 0;
+        for (String partition : listPartitions(true)) {
+            jdbcTemplate.execute("ALTER TABLE auth.jwt_tokens DETACH PARTITION auth." + partition + " FINALIZE");
+            jdbcTemplate.execute("DROP TABLE auth." + partition);
+            log.info("Separación pendiente de la partición {} finalizada y partición eliminada", partition);
+            dropped++;
+        }
+        return dropped;
+    }
+
+    // inhdetachpending marca las particiones con un DETACH CONCURRENTLY sin terminar (PostgreSQL 14+)
+    private List<String> listPartitions(boolean detachPending) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'auth.jwt_tokens'::regclass AND c.relname LIKE '" + PARTITION_PREFIX + "%' " +
+                "AND i.inhdetachpending = ? ORDER BY c.relname",
+                String.class, detachPending);
+    }
+
+    private LocalDate periodStart(LocalDate date) {
+        return properties.granularity() == Granularity.DAILY
+                ? date
+                : date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private LocalDate periodEnd(LocalDate start) {
+        return properties.granularity() == Granularity.DAILY ? start.plusDays(1) : start.plusWeeks(1);
+    }
+
+    static String partitionName(LocalDate start) {
+        return PARTITION_PREFIX + start.format(SUFFIX);
+    }
+
+    private static LocalDate parseStart(String partition) {
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.TokenPurgeProperties;
+import com.vehiclemonitoring.auth.event.JwtTokensExpiredEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Purga de tokens expirados y revocados en lotes pequeños.
+ * Cada DELETE borra como mucho un lote ordenado por (clave, id) y avanza un
+ * cursor por clave, así que nunca bloquea muchas filas a la vez ni vuelve a
+ * recorrer las tuplas muertas que deja. El tamaño del lote y la pausa entre
+ * lotes se ajustan según la latencia observada, y el cursor se guarda en
+ * {@code auth.token_purge_checkpoints} (creada por {@code db/token_purge_checkpoints.sql})
+ * en la misma transacción que el DELETE para reanudar tras un reinicio.
+ *
+ * <p>Cada ejecución de un trabajo toma un bloqueo consultivo de sesión en una conexión
+ * propia y lo mantiene hasta terminar, así que dos nodos no intercalan lotes del mismo
+ * trabajo: el que no obtiene el bloqueo no hace nada en esa pasada.</p>
+ *
+ * <p>Los tokens revocados solo se purgan una vez expirados: el índice de
+ * revocación se reconstruye a partir de esas filas al arrancar.</p>
+ *
+ * <p>Índices recomendados: {@code (expires_at, id)} y {@code (revoked_at, id)}.</p>
+ */
+@Service
+public class TokenPurgeEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenPurgeEngine.class);
+
+    public enum Job {
+        EXPIRED("expires_at", "t.expires_at <= ?"),
+        REVOKED("revoked_at", "t.revoked_at <= ? AND t.expires_at <= now()");
+
+        private final String keyColumn;
+        private final String predicate;
+
+        Job(String keyColumn, String predicate) {
+            this.keyColumn = keyColumn;
+            this.predicate = predicate;
+        }
+    }
+
+    private static final String SAVE_CHECKPOINT_SQL =
+            "INSERT INTO auth.token_purge_checkpoints (job, cutoff, last_key, last_id, rows_deleted, completed, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (job) DO UPDATE SET cutoff = EXCLUDED.cutoff, last_key = EXCLUDED.last_key, " +
+            "last_id = EXCLUDED.last_id, rows_deleted = auth.token_purge_checkpoints.rows_deleted + EXCLUDED.rows_deleted, " +
+            "completed = EXCLUDED.completed, updated_at = now()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+    private final TokenPurgeProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Job, Counter> rowsDeleted = new EnumMap<>(Job.class);
+    private final Map<Job, AtomicLong> rowsPerSecond = new EnumMap<>(Job.class);
+    private final Map<Job, AtomicLong> lagSeconds = new EnumMap<>(Job.class);
+    private final AtomicLong expiredBacklog = new AtomicLong();
+
+    private volatile boolean stopping;
+
+    public TokenPurgeEngine(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, DataSource dataSource,
+                            TokenPurgeProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (Job job : Job.values()) {
+            String tag = job.name().toLowerCase();
+            rowsDeleted.put(job, Counter.builder("auth.tokens.purge.rows")
+                    .description("Tokens eliminados por la purga")
+                    .tag("job", tag)
+                    .register(meterRegistry));
+            rowsPerSecond.put(job, gauge("auth.tokens.purge.rate", "Filas por segundo de la última ejecución", tag));
+            lagSeconds.put(job, gauge("auth.tokens.purge.lag", "Segundos entre el corte y la última clave purgada", tag));
+        }
+        Gauge.builder("auth.tokens.purge.backlog", expiredBacklog, AtomicLong::get)
+                .description("Tokens expirados desde la última purga completa de expirados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Acumula los tokens vencidos en la rueda temporal como trabajo pendiente de la purga
+     */
+    @EventListener
+    public void onTokensExpired(JwtTokensExpiredEvent event) {
+        expiredBacklog.addAndGet(event.tokens().size());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.purge.interval:PT5M}")
+    public void purge() {
+        if (!properties.enabled()) {
+            return;
+        }
+        for (Job job : Job.values()) {
+            PurgeReport report = run(job);
+            if (report.rowsDeleted() > 0 || !report.completed()) {
+                log.info("Purga {}: {} filas en {} ms ({} filas/s), completada={}, retraso={}s",
+                        job, report.rowsDeleted(), report.elapsed().toMillis(), Math.round(report.rowsPerSecond()),
+                        report.completed(), report.lag().toSeconds());
+            }
+        }
+    }
+
+    /**
+     * Ejecuta un trabajo de purga hasta completarlo o agotar {@code maxRunDuration}.
+     * Si la ejecución anterior quedó a medias continúa desde su cursor y con su mismo corte.
+     * Si otro nodo está ejecutando el mismo trabajo no borra nada.
+     * @param job trabajo a ejecutar
+     * @return informe de la ejecución
+     */
+    public PurgeReport run(Job job) {
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!advisoryLock(lockConnection, "pg_try_advisory_lock", job)) {
+                log.debug("Purga {} en curso en otro nodo", job);
+                return new PurgeReport(job, 0, Duration.ZERO, false, Duration.ZERO);
+            }
+            try {
+                return runLocked(job);
+            } finally {
+                unlock(lockConnection, job);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo tomar el bloqueo de la purga " + job, e);
+        }
+    }
+
+    private PurgeReport runLocked(Job job) {
+        Checkpoint checkpoint = loadCheckpoint(job);
+        OffsetDateTime cutoff;
+        OffsetDateTime lastKey = null;
+        UUID lastId = null;
+        if (checkpoint != null && !checkpoint.completed()) {
+            cutoff = checkpoint.cutoff();
+            lastKey = checkpoint.lastKey();
+            lastId = checkpoint.lastId();
+        } else {
+            cutoff = OffsetDateTime.now().minus(job == Job.EXPIRED
+                    ? properties.expiredRetention() : properties.revokedRetention());
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + properties.maxRunDuration().toNanos();
+        int chunkSize = properties.initialChunkSize();
+        long total = 0;
+        boolean completed = false;
+        while (!stopping && System.nanoTime() < deadline) {
+            long chunkStart = System.nanoTime();
+            Chunk chunk = deleteChunk(job, cutoff, lastKey, lastId, chunkSize);
+            long latency = System.nanoTime() - chunkStart;
+            total += chunk.deleted();
+            rowsDeleted.get(job).increment(chunk.deleted());
+            if (chunk.deleted() > 0) {
+                lastKey = chunk.lastKey();
+                lastId = chunk.lastId();
+                lagSeconds.get(job).set(Math.max(0, Duration.between(lastKey, cutoff).toSeconds()));
+            }
+            if (chunk.completed()) {
+                completed = true;
+                break;
+            }
+            chunkSize = adaptChunkSize(chunkSize, latency);
+            if (!pause(latency)) {
+                break;
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Duration lag = completed || lastKey == null ? Duration.ZERO : Duration.between(lastKey, cutoff);
+        if (completed) {
+            lagSeconds.get(job).set(0);
+            if (job == Job.EXPIRED) {
+                expiredBacklog.set(0);
+            }
+        }
+        PurgeReport report = new PurgeReport(job, total, elapsed, completed, lag);
+        rowsPerSecond.get(job).set(Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    @PreDestroy
+    void stop() {
+        stopping = true;
+    }
+
+    private Chunk deleteChunk(Job job, OffsetDateTime cutoff, OffsetDateTime lastKey, UUID lastId, int limit) {
+        return transactionTemplate.execute(status -> {
+            List<Chunk> rows = lastKey == null
+                    ? jdbcTemplate.query(deleteSql(job, false), (rs, i) -> chunk(rs, limit), cutoff, limit)
+                    : jdbcTemplate.query(deleteSql(job, true), (rs, i) -> chunk(rs, limit), cutoff, lastKey, lastId, limit);
+            Chunk chunk = rows.isEmpty() ? new Chunk(0, lastKey, lastId, true) : rows.get(0);
+            jdbcTemplate.update(SAVE_CHECKPOINT_SQL, job.name(), cutoff, chunk.lastKey(), chunk.lastId(),
+                    chunk.deleted(), chunk.completed());
+            return chunk;
+        });
+    }
+
+    private static Chunk chunk(ResultSet rs, int limit) throws SQLException {
+        long deleted = rs.getLong("deleted");
+        return new Chunk(deleted, rs.getObject("key_at", OffsetDateTime.class), rs.getObject("id", UUID.class),
+                deleted < limit);
+    }
+
+    private static String deleteSql(Job job, boolean afterCursor) {
+        String key = "t." + job.keyColumn;
+        return "WITH chunk AS (" +
+               "SELECT t.id, " + key + " AS key_at FROM auth.jwt_tokens t " +
+               "WHERE " + job.predicate +
+               (afterCursor ? " AND (" + key + ", t.id) > (?, ?)" : "") +
+               " ORDER BY " + key + ", t.id LIMIT ? FOR UPDATE SKIP LOCKED" +
+               "), deleted AS (" +
+               "DELETE FROM auth.jwt_tokens d USING chunk WHERE d.id = chunk.id RETURNING chunk.key_at, chunk.id" +
+               ") SELECT key_at, id, count(*) OVER () AS deleted FROM deleted ORDER BY key_at DESC, id DESC LIMIT 1";
+    }
+
+    // Ajuste multiplicativo hacia la latencia objetivo
+    private int adaptChunkSize(int chunkSize, long latencyNanos) {
+        long target = properties.targetLatency().toNanos();
+        int next;
+        if (latencyNanos > target) {
+            next = chunkSize / 2;
+        } else if (latencyNanos < target / 2) {
+            next = chunkSize + chunkSize / 4 + 1;
+        } else {
+            next = chunkSize;
+        }
+        return Math.max(properties.minChunkSize(), Math.min(properties.maxChunkSize(), next));
+    }
+
+    // Pausa proporcional a la latencia para no ocupar la base de datos más del dutyCycle
+    private boolean pause(long latencyNanos) {
+        double dutyCycle = Math.min(1.0, Math.max(0.01, properties.dutyCycle()));
+        long pauseNanos = (long) (latencyNanos * (1 - dutyCycle) / dutyCycle);
+        if (pauseNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(pauseNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Checkpoint loadCheckpoint(Job job) {
+        List<Checkpoint> rows = jdbcTemplate.query(
+                "SELECT cutoff, last_key, last_id, completed FROM auth.token_purge_checkpoints WHERE job = ?",
+                (rs, i) -> new Checkpoint(rs.getObject("cutoff", OffsetDateTime.class),
+                        rs.getObject("last_key", OffsetDateTime.class), rs.getObject("last_id", UUID.class),
+                        rs.getBoolean("completed")),
+                job.name());
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static boolean advisoryLock(Connection connection, String function, Job job) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT " + function + "(?)")) {
+            ps.setLong(1, lockKey(job));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    // Un bloqueo de sesión sobrevive a la devolución de la conexión al pool: si no se puede
+    // liberar, la conexión se descarta para que PostgreSQL lo suelte al cerrarla
+    private void unlock(Connection connection, Job job) {
+        try {
+            if (!advisoryLock(connection, "pg_advisory_unlock", job)) {
+                log.warn("El bloqueo de la purga {} ya no estaba tomado", job);
+            }
+            return;
+        } catch (SQLException e) {
+            log.warn("No se pudo liberar el bloqueo de la purga {}; se descarta la conexión", job, e);
+        }
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                dataSource.unwrap(HikariDataSource.class).evictConnection(connection);
+            }
+        } catch (SQLException e) {
+            log.warn("No se pudo descartar la conexión del bloqueo de la purga {}", job, e);
+        }
+    }
+
+    private AtomicLong gauge(String name, String description, String job) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder(name, value, AtomicLong::get)
+                .description(description)
+                .tag("job", job)
+                .register(meterRegistry);
+        return value;
+    }
+
+    private static long lockKey(Job job) {
+        return ("auth.token-purge." + job.name()).hashCode();
+    }
+
+    private record Chunk(long deleted, OffsetDateTime lastKey, UUID lastId, boolean completed) {
+    }
+
+    private record Checkpoint(OffsetDateTime cutoff, OffsetDateTime lastKey, UUID lastId, boolean completed) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.RevocationIndexProperties;
+import com.vehiclemonitoring.auth.event.JwtTokenRevokedEvent;
+import com.vehiclemonitoring.auth.event.JwtTokensExpiredEvent;
+import com.vehiclemonitoring.auth.event.JwtTokensRevokedEvent;
+import com.vehiclemonitoring.auth.repository.JwtTokenRepository;
+import com.vehiclemonitoring.auth.repository.projection.RevokedJti;
+import com.vehiclemonitoring.auth.util.BloomFilter;
+import com.vehiclemonitoring.auth.util.CoarseClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de tokens revocados que aún no han expirado.
+ * Un filtro de Bloom resuelve sin consultar la base de datos la gran mayoría de
+ * tokens no revocados; el conjunto exacto confirma los positivos. Las entradas
+ * expiradas se eliminan periódicamente, así que la memoria depende del número de
+ * revocaciones vivas y no del tamaño de {@code jwt_tokens}.
+ */
+@Service
+public class TokenRevocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationIndex.class);
+
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final JwtTokenRepository jwtTokenRepository;
+    private final RevocationIndexProperties properties;
+
+    // jti -> expiración en milisegundos epoch
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloom;
+    private long bloomCapacity;
+    private boolean bloomStale;
+
+    public TokenRevocationIndex(JwtTokenRepository jwtTokenRepository, RevocationIndexProperties properties) {
+        this.jwtTokenRepository = jwtTokenRepository;
+        this.properties = properties;
+        this.bloomCapacity = properties.expectedRevocations();
+        this.bloom = BloomFilter.create(bloomCapacity, properties.falsePositiveRate());
+    }
+
+    /**
+     * Carga las revocaciones vivas desde la base de datos al arrancar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        List<RevokedJti> rows = jwtTokenRepository.findRevokedJtisNotExpiredAt(OffsetDateTime.now());
+        synchronized (this) {
+            for (RevokedJti row : rows) {
+                revoked.put(row.jti(), toEpochMillis(row.expiresAt()));
+            }
+            rebuildBloom();
+        }
+        log.info("Índice de revocación cargado con {} tokens revocados", rows.size());
+    }
+
+    /**
+     * Indica si un token está revocado y todavía no ha expirado
+     * @param jti identificador único del token
+     * @return true si el token está revocado
+     */
+    public boolean isRevoked(String jti) {
+        if (!bloom.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > CoarseClock.currentTimeMillis();
+    }
+
+    /**
+     * Registra un token como revocado
+     * @param jti identificador único del token
+     * @param expiresAt fecha de expiración del token, o null si no expira
+     */
+    public synchronized void markRevoked(String jti, OffsetDateTime expiresAt) {
+        long expiry = toEpochMillis(expiresAt);
+        if (expiry <= CoarseClock.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(jti, expiry);
+        bloom.put(jti);
+    }
+
+    /**
+     * Registra varios tokens como revocados con una sola adquisición del monitor
+     * @param tokens tokens revocados con su fecha de expiración
+     */
+    public synchronized void markRevoked(Collection<RevokedJti> tokens) {
+        for (RevokedJti token : tokens) {
+            markRevoked(token.jti(), token.expiresAt());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(JwtTokenRevokedEvent event) {
+        markRevoked(event.jti(), event.expiresAt());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokensRevoked(JwtTokensRevokedEvent event) {
+        markRevoked(event.tokens());
+    }
+
+    /**
+     * Retira las entradas de los tokens vencidos en la rueda temporal sin esperar al barrido;
+     * el filtro de Bloom se reconstruye en el siguiente barrido
+     */
+    @EventListener
+    public synchronized void onTokensExpired(JwtTokensExpiredEvent event) {
+        for (JwtTokensExpiredEvent.ExpiredToken token : event.tokens()) {
+            if (revoked.remove(token.jti()) != null) {
+                bloomStale = true;
+            }
+        }
+    }
+
+    /**
+     * Elimina las entradas expiradas y reconstruye el filtro de Bloom para
+     * descartar los bits de los tokens que ya no están en el conjunto exacto
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.sweep-interval:PT1M}")
+    public synchronized void sweep() {
+        long now = CoarseClock.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (bloomStale || revoked.size() != before || revoked.size() > bloomCapacity) {
+            rebuildBloom();
+        }
+    }
+
+    /**
+     * @return número de revocaciones vivas en el índice
+     */
+    public int size() {
+        return revoked.size();
+    }
+
+    private void rebuildBloom() {
+        bloomCapacity = Math.max(properties.expectedRevocations(), revoked.size() * 2L);
+        BloomFilter rebuilt = BloomFilter.create(bloomCapacity, properties.falsePositiveRate());
+        revoked.keySet().forEach(rebuilt::put);
+        bloom = rebuilt;
+        bloomStale = false;
+    }
+
+    private static long toEpochMillis(OffsetDateTime dateTime) {
+        return dateTime == null ? NO_EXPIRY : dateTime.toInstant().toEpochMilli();
+    }
+}
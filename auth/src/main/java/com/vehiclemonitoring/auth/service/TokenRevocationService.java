@@ -0,0 +1,124 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.event.JwtTokensRevokedEvent;
+import com.vehiclemonitoring.auth.repository.projection.RevokedJti;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Revocación masiva de tokens con una única sentencia {@code UPDATE ... RETURNING}.
+ * Solo se tocan los tokens activos; los jti afectados se publican en un
+ * {@link JwtTokensRevokedEvent} que el índice de revocación aplica tras el commit.
+ *
+ * <p>Como {@code @Modifying(flushAutomatically = true, clearAutomatically = true)}, cada
+ * operación vuelca el contexto de persistencia antes de la sentencia y lo vacía después,
+ * para que ninguna entidad JwtToken cargada conserve un {@code revokedAt} obsoleto.</p>
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final String REVOKE_SQL =
+            "UPDATE auth.jwt_tokens SET revoked_at = now(), revoked_by = ? " +
+            "WHERE %s AND revoked_at IS NULL AND (expires_at IS NULL OR expires_at > now()) " +
+            "RETURNING jti, user_id, token_type, expires_at";
+
+    private static final RowMapper<RevokedJti> REVOKED_JTI = (rs, rowNum) ->
+            new RevokedJti(rs.getString("jti"), rs.getObject("user_id", UUID.class),
+                    rs.getString("token_type"), rs.getObject("expires_at", OffsetDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TokenRevocationService(JdbcTemplate jdbcTemplate, EntityManager entityManager,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Revoca todos los tokens activos de un usuario (cierre de sesión global)
+     * @param userId ID del usuario
+     * @param revokedBy ID de quien revoca
+     * @return tokens revocados
+     */
+    @Transactional
+    public List<RevokedJti> revokeByUser(UUID userId, UUID revokedBy) {
+        return revoke("user_id = ?", revokedBy, userId);
+    }
+
+    /**
+     * Revoca todos los tokens activos de un cliente, por ejemplo al desactivarlo
+     * @param clientId ID del cliente
+     * @param revokedBy ID de quien revoca
+     * @return tokens revocados
+     */
+    @Transactional
+    public List<RevokedJti> revokeByClient(UUID clientId, UUID revokedBy) {
+        return revoke("client_id = ?", revokedBy, clientId);
+    }
+
+    /**
+     * Revoca los tokens activos de un tipo dentro de un cliente
+     * @param clientId ID del cliente
+     * @param tokenType tipo de token
+     * @param revokedBy ID de quien revoca
+     * @return tokens revocados
+     */
+    @Transactional
+    public List<RevokedJti> revokeByTokenType(UUID clientId, String tokenType, UUID revokedBy) {
+        return revoke("client_id = ? AND token_type = ?", revokedBy, clientId, tokenType);
+    }
+
+    /**
+     * Revoca los tokens activos de un cliente emitidos antes de una fecha
+     * @param clientId ID del cliente
+     * @param before fecha de emisión límite (exclusiva)
+     * @param revokedBy ID de quien revoca
+     * @return tokens revocados
+     */
+    @Transactional
+    public List<RevokedJti> revokeIssuedBefore(UUID clientId, OffsetDateTime before, UUID revokedBy) {
+        return revoke("client_id = ? AND issued_at < ?", revokedBy, clientId, before);
+    }
+
+    /**
+     * Revoca las sesiones más antiguas de un usuario (sus refresh tokens activos por fecha de emisión).
+     * Las filas bloqueadas por otra transacción se saltan en lugar de esperar.
+     * @param userId ID del usuario
+     * @param count número de sesiones a revocar
+     * @param revokedBy ID de quien revoca
+     * @return tokens revocados
+     */
+    @Transactional
+    public List<RevokedJti> revokeOldestSessions(UUID userId, int count, UUID revokedBy) {
+        // ARRAY(...) se evalúa una sola vez: con IN el planificador puede repetir la subconsulta por
+        // cada fila, y cada repetición salta las filas ya actualizadas y toma las siguientes
+        return revoke("id = ANY (ARRAY(SELECT id FROM auth.jwt_tokens WHERE user_id = ? AND token_type = ? " +
+                      "AND revoked_at IS NULL AND (expires_at IS NULL OR expires_at > now()) " +
+                      "ORDER BY issued_at, id LIMIT ? FOR UPDATE SKIP LOCKED))",
+                revokedBy, userId, JwtService.REFRESH_TOKEN, count);
+    }
+
+    private List<RevokedJti> revoke(String predicate, UUID revokedBy, Object... args) {
+        entityManager.flush();
+        Object[] params = new Object[args.length + 1];
+        params[0] = revokedBy;
+        System.arraycopy(args, 0, params, 1, args.length);
+        List<RevokedJti> revoked = jdbcTemplate.query(REVOKE_SQL.formatted(predicate), REVOKED_JTI, params);
+        entityManager.clear();
+        if (!revoked.isEmpty()) {
+            eventPublisher.publishEvent(new JwtTokensRevokedEvent(revoked));
+        }
+        return revoked;
+    }
+}
@@ -0,0 +1,138 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vehiclemonitoring.auth.config.UserLookupProperties;
+import com.vehiclemonitoring.auth.event.SearchableEntityChangedEvent;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import com.vehiclemonitoring.auth.repository.projection.LoginCandidate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Búsqueda de usuarios por email para el inicio de sesión.
+ * En ataques de relleno de credenciales se repiten los mismos emails inexistentes; los
+ * pares (email, cliente) que no existen se recuerdan en una caché acotada y con TTL, así
+ * que los intentos repetidos no llegan a la base de datos. Además, las búsquedas
+ * concurrentes de la misma clave comparten una única consulta (single-flight).
+ *
+ * <p>Las entradas negativas se invalidan cuando se crea un usuario o cambia su email. Una
+ * consulta que coincide con una invalidación no guarda su resultado negativo.</p>
+ */
+@Service
+public class UserLookupService {
+
+    static final String CACHE_NAME = "auth.users.negative-lookups";
+
+    private final UserRepository userRepository;
+    private final TenantBulkhead bulkhead;
+    private final Cache<Key, Boolean> negatives;
+    private final Map<Key, CompletableFuture<Optional<LoginCandidate>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter coalesced;
+
+    public UserLookupService(UserRepository userRepository, UserLookupProperties properties,
+                             TenantBulkhead bulkhead, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.bulkhead = bulkhead;
+        this.negatives = Caffeine.newBuilder()
+                .maximumSize(properties.negativeMaximumSize())
+                .expireAfterWrite(properties.negativeTtl())
+                .recordStats()
+                .build();
+        this.coalesced = Counter.builder("auth.users.lookup.coalesced")
+                .description("Búsquedas por email resueltas con la consulta de otra petición concurrente")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, negatives, CACHE_NAME);
+    }
+
+    /**
+     * Busca un usuario por email en cualquier cliente
+     * @param email email del usuario
+     * @return Optional con los datos de inicio de sesión si el usuario existe
+     */
+    public Optional<LoginCandidate> findByEmail(String email) {
+        return lookup(new Key(email, null), () -> userRepository.findLoginCandidateByEmail(email));
+    }
+
+    /**
+     * Busca un usuario por email dentro de un cliente
+     * @param email email del usuario
+     * @param clientId ID del cliente
+     * @return Optional con los datos de inicio de sesión si el usuario existe
+     */
+    public Optional<LoginCandidate> findByEmailAndClientId(String email, UUID clientId) {
+        return lookup(new Key(email, clientId),
+                () -> userRepository.findLoginCandidateByEmailAndClientId(email, clientId));
+    }
+
+    /**
+     * Olvida que un email no existe, en cualquier cliente y en el cliente indicado
+     */
+    public void invalidate(String email, UUID clientId) {
+        generation.incrementAndGet();
+        negatives.invalidate(new Key(email, null));
+        if (clientId != null) {
+            negatives.invalidate(new Key(email, clientId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSearchableEntityChanged(SearchableEntityChangedEvent event) {
+        if (event.kind() == SearchableEntityChangedEvent.Kind.USER && !event.removed()) {
+            invalidate(event.primary(), event.clientId());
+        }
+    }
+
+    private Optional<LoginCandidate> lookup(Key key, Supplier<Optional<LoginCandidate>> loader) {
+        if (negatives.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+        CompletableFuture<Optional<LoginCandidate>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<LoginCandidate>> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+        try {
+            long startGeneration = generation.get();
+            Optional<LoginCandidate> result = bulkhead.call(key.clientId(), TenantBulkhead.Workload.CRITICAL, loader);
+            if (result.isEmpty() && generation.get() == startGeneration) {
+                negatives.put(key, Boolean.TRUE);
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static Optional<LoginCandidate> await(CompletableFuture<Optional<LoginCandidate>> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String email, UUID clientId) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.vehiclemonitoring.auth.util;
+
+/**
+ * Reloj de baja resolución para rutas calientes.
+ * Un hilo demonio refresca un {@code volatile long} cada {@value #TICK_MILLIS} ms, así que
+ * leer la hora no hace llamada al sistema ni crea objetos de fecha. Solo sirve donde un
+ * error de unos milisegundos es aceptable, como comprobar expiraciones.
+ */
+public final class CoarseClock {
+
+    public static final long TICK_MILLIS = 10;
+
+    private static volatile long now = System.currentTimeMillis();
+
+    static {
+        Thread.ofPlatform().name("coarse-clock").daemon().start(() -> {
+            while (true) {
+                now = System.currentTimeMillis();
+                try {
+                    Thread.sleep(TICK_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    private CoarseClock() {}
+
+    /**
+     * @return milisegundos epoch con una resolución de {@value #TICK_MILLIS} ms
+     */
+    public static long currentTimeMillis() {
+        return now;
+    }
+
+    /**
+     * @return segundos epoch
+     */
+    public static long currentEpochSecond() {
+        return now / 1000;
+    }
+}
@@ -0,0 +1,153 @@
+package com.vehiclemonitoring.auth.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Rueda temporal jerárquica para programar millones de vencimientos con coste O(1).
+ * El nivel 0 tiene {@code wheelSize} ranuras de un tick; cada nivel superior cubre
+ * {@code wheelSize} veces el rango del anterior. Al dar la vuelta un nivel, la ranura
+ * correspondiente del nivel superior se redistribuye hacia abajo, de modo que cada
+ * elemento se mueve como mucho una vez por nivel.
+ *
+ * <p>{@link #schedule} puede llamarse desde cualquier hilo: encola sin bloqueo y el
+ * elemento entra en la rueda en el siguiente {@link #advance}. {@link #advance} debe
+ * llamarse siempre desde un único hilo. No hay cancelación: los consumidores deben
+ * tolerar vencimientos de elementos que ya no interesan.</p>
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final List<Entry<T>>[][] slots;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private final Queue<Entry<T>> inbox = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+
+    /**
+     * @param tickMillis duración de un tick en milisegundos
+     * @param wheelSize ranuras por nivel; debe ser potencia de dos
+     * @param levels número de niveles
+     * @param startMillis instante inicial en milisegundos epoch
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levels < 1) {
+            throw new IllegalArgumentException("Configuración de rueda temporal inválida");
+        }
+        if ((long) Integer.numberOfTrailingZeros(wheelSize) * levels >= 62) {
+            throw new IllegalArgumentException("Demasiados niveles para el tamaño de rueda");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.slots = new List[levels][wheelSize];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Programa un elemento para que venza en {@code deadlineMillis}
+     * @param item elemento
+     * @param deadlineMillis vencimiento en milisegundos epoch
+     */
+    public void schedule(T item, long deadlineMillis) {
+        // Redondeo hacia arriba: nunca vence antes de su plazo
+        inbox.add(new Entry<>(item, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis)));
+    }
+
+    /**
+     * Avanza la rueda hasta {@code nowMillis} y devuelve los elementos vencidos
+     * @param nowMillis instante actual en milisegundos epoch
+     * @return elementos vencidos, en un único lote
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        Entry<T> pending;
+        while ((pending = inbox.poll()) != null) {
+            place(pending, expired);
+        }
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                    cascade(level, expired);
+                }
+            }
+            if (!overflow.isEmpty() && (currentTick & ((1L << (bits * (levels - 1))) - 1)) == 0) {
+                List<Entry<T>> far = new ArrayList<>(overflow);
+                overflow.clear();
+                far.forEach(entry -> place(entry, expired));
+            }
+            List<Entry<T>> due = slots[0][(int) (currentTick & mask)];
+            if (due != null) {
+                due.forEach(entry -> expired.add(entry.item()));
+                due.clear();
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Debe llamarse desde el mismo hilo que {@link #advance}
+     * @return instante hasta el que ha avanzado la rueda: ya vencieron todos los elementos con plazo anterior o igual
+     */
+    public long currentTimeMillis() {
+        return currentTick * tickMillis;
+    }
+
+    /**
+     * @return número de elementos programados, incluidos los pendientes de entrar en la rueda
+     */
+    public int size() {
+        int size = overflow.size() + inbox.size();
+        for (List<Entry<T>>[] level : slots) {
+            for (List<Entry<T>> slot : level) {
+                if (slot != null) {
+                    size += slot.size();
+                }
+            }
+        }
+        return size;
+    }
+
+    private void cascade(int level, List<T> expired) {
+        int index = (int) ((currentTick >>> (bits * level)) & mask);
+        List<Entry<T>> slot = slots[level][index];
+        if (slot == null || slot.isEmpty()) {
+            return;
+        }
+        slots[level][index] = null;
+        slot.forEach(entry -> place(entry, expired));
+    }
+
+    private void place(Entry<T> entry, List<T> expired) {
+        if (entry.fireTick() <= currentTick) {
+            expired.add(entry.item());
+            return;
+        }
+        for (int level = 0; level < levels; level++) {
+            int shift = bits * level;
+            long distance = (entry.fireTick() >>> shift) - (currentTick >>> shift);
+            if (distance <= mask) {
+                int index = (int) ((entry.fireTick() >>> shift) & mask);
+                List<Entry<T>> slot = slots[level][index];
+                if (slot == null) {
+                    slot = new ArrayList<>();
+                    slots[level][index] = slot;
+                }
+                slot.add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private record Entry<T>(T item, long fireTick) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.vehiclemonitoring.auth.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de ventana deslizante sin bloqueos con bloqueo progresivo.
+ * La ventana se aproxima con la ventana fija actual y la anterior, ponderada por la
+ * fracción que aún solapa; ambas cuentas y el número de ventana van empaquetados en un
+ * único {@code long} que se actualiza con CAS, así que un intento no crea objetos ni
+ * toma cerrojos.
+ *
+ * <p>Cuando se supera el límite la clave queda bloqueada durante
+ * {@code baseLockout * 2^(strikes - 1)} ms, hasta {@code maxLockout}; cada vez que se
+ * vuelve a superar se suma un strike. {@link #reset()} los borra.</p>
+ */
+public final class SlidingWindowLimiter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long WINDOW_MASK = 0xFFFF;
+
+    /** Valor de retorno de {@link #tryAcquire} cuando el intento está permitido */
+    public static final long ALLOWED = 0;
+
+    // ventana (16 bits) | cuenta de la ventana anterior (24 bits) | cuenta de la ventana actual (24 bits)
+    private final AtomicLong state = new AtomicLong();
+    private final AtomicLong lockedUntil = new AtomicLong();
+    private final AtomicInteger strikes = new AtomicInteger();
+
+    /**
+     * Registra un intento
+     * @param now milisegundos epoch
+     * @param windowMillis duración de la ventana
+     * @param limit intentos permitidos por ventana
+     * @param baseLockout duración del primer bloqueo en ms; 0 desactiva el bloqueo
+     * @param maxLockout duración máxima de un bloqueo en ms
+     * @return {@link #ALLOWED}, o los ms que faltan para poder volver a intentarlo
+     */
+    public long tryAcquire(long now, long windowMillis, int limit, long baseLockout, long maxLockout) {
+        long locked = lockedUntil.get();
+        if (now < locked) {
+            return locked - now;
+        }
+        long window = now / windowMillis;
+        long windowId = window & WINDOW_MASK;
+        long elapsed = now - window * windowMillis;
+        while (true) {
+            long current = state.get();
+            long currentId = current >>> (2 * COUNT_BITS);
+            long previousCount;
+            long currentCount;
+            if (currentId == windowId) {
+                previousCount = (current >>> COUNT_BITS) & COUNT_MASK;
+                currentCount = current & COUNT_MASK;
+            } else if (currentId == ((windowId - 1) & WINDOW_MASK)) {
+                previousCount = current & COUNT_MASK;
+                currentCount = 0;
+            } else {
+                previousCount = 0;
+                currentCount = 0;
+            }
+            long weighted = previousCount * (windowMillis - elapsed) / windowMillis + currentCount;
+            if (weighted >= limit) {
+                return lockOut(now, windowMillis - elapsed, baseLockout, maxLockout);
+            }
+            long next = (windowId << (2 * COUNT_BITS)) | (previousCount << COUNT_BITS)
+                    | Math.min(currentCount + 1, COUNT_MASK);
+            if (state.compareAndSet(current, next)) {
+                return ALLOWED;
+            }
+        }
+    }
+
+    /**
+     * Borra los strikes y el bloqueo, por ejemplo tras un inicio de sesión correcto
+     */
+    public void reset() {
+        strikes.set(0);
+        lockedUntil.set(0);
+    }
+
+    /**
+     * @return número de veces consecutivas que se ha superado el límite
+     */
+    public int strikes() {
+        return strikes.get();
+    }
+
+    private long lockOut(long now, long untilNextWindow, long baseLockout, long maxLockout) {
+        if (baseLockout <= 0) {
+            return Math.max(untilNextWindow, 1);
+        }
+        long locked = lockedUntil.get();
+        if (now < locked) {
+            // Otro hilo ya ha bloqueado la clave por este mismo exceso
+            return locked - now;
+        }
+        int shift = strikes.get();
+        long duration = shift >= Long.numberOfLeadingZeros(baseLockout) - 1
+                ? maxLockout
+                : Math.min(baseLockout << shift, maxLockout);
+        // Solo el hilo que publica el bloqueo suma el strike: los que pierden el CAS
+        // llegaron por el mismo exceso y devuelven el bloqueo ya publicado
+        if (!lockedUntil.compareAndSet(locked, now + duration)) {
+            return Math.max(lockedUntil.get() - now, 1);
+        }
+        strikes.incrementAndGet();
+        return Math.max(duration, 1);
+    }
+}
@@ -0,0 +1,252 @@
+package com.vehiclemonitoring.auth.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas para búsquedas por subcadena ({@code LIKE '%q%'}) en memoria.
+ * Cada documento tiene uno o varios campos de texto, normalizados a minúsculas y sin
+ * tildes; la consulta intersecta las listas de sus trigramas empezando por la más corta
+ * y verifica los candidatos contra el texto, así que el coste depende de los documentos
+ * que comparten trigramas con la consulta y no del total. Consultas de menos de tres
+ * caracteres recorren los documentos.
+ *
+ * <p>Los resultados se ordenan por calidad de la coincidencia (campo exacto, prefijo,
+ * inicio de palabra, subcadena), después por campo (el primero pesa más) y por longitud.
+ * Lecturas concurrentes; las escrituras toman el cerrojo exclusivo.</p>
+ *
+ * @param <K> clave del documento
+ * @param <V> valor devuelto en los resultados
+ */
+public class TrigramIndex<K, V> {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final Map<K, Document<V>> documents = new HashMap<>();
+    private final Map<Long, Set<K>> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Inserta o reemplaza un documento
+     * @param key clave del documento
+     * @param value valor a devolver cuando el documento coincida
+     * @param fields campos indexados, en orden de relevancia; se ignoran los nulos
+     */
+    public void put(K key, V value, String... fields) {
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = fields[i] == null ? "" : normalize(fields[i]);
+        }
+        long[] trigrams = trigrams(normalized);
+        lock.writeLock().lock();
+        try {
+            Document<V> previous = documents.put(key, new Document<>(value, normalized, trigrams));
+            if (previous != null) {
+                if (Arrays.equals(previous.trigrams(), trigrams)) {
+                    return;
+                }
+                unlink(key, previous.trigrams());
+            }
+            for (long trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new HashSet<>()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un documento; no hace nada si no existe
+     */
+    public void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            Document<V> previous = documents.remove(key);
+            if (previous != null) {
+                unlink(key, previous.trigrams());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los documentos que contienen el texto en alguno de sus campos
+     * @param query texto a buscar
+     * @param limit número máximo de resultados
+     * @return valores de los documentos que coinciden, del más al menos relevante
+     */
+    public List<V> search(String query, int limit) {
+        String needle = query == null ? "" : normalize(query.strip());
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Max-heap de tamaño limit: la cabeza es el peor resultado retenido
+        PriorityQueue<Hit<V>> best = new PriorityQueue<>(Comparator.<Hit<V>>naturalOrder().reversed());
+        lock.readLock().lock();
+        try {
+            for (K key : candidates(needle)) {
+                Document<V> document = documents.get(key);
+                Hit<V> hit = score(document, needle);
+                if (hit == null) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(hit);
+                } else if (hit.compareTo(best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit<V>> hits = new ArrayList<>(best);
+        Collections.sort(hits);
+        List<V> values = new ArrayList<>(hits.size());
+        for (Hit<V> hit : hits) {
+            values.add(hit.value());
+        }
+        return values;
+    }
+
+    /**
+     * @return número de documentos indexados
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pasa el texto a minúsculas y elimina tildes y diacríticos
+     */
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Debe llamarse con el cerrojo de lectura tomado
+    private Iterable<K> candidates(String needle) {
+        if (needle.length() < 3) {
+            return documents.keySet();
+        }
+        long[] wanted = trigrams(new String[] {needle});
+        List<Set<K>> lists = new ArrayList<>(wanted.length);
+        for (long trigram : wanted) {
+            Set<K> keys = postings.get(trigram);
+            if (keys == null) {
+                return List.of();
+            }
+            lists.add(keys);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<K> smallest = lists.get(0);
+        List<K> result = new ArrayList<>(smallest.size());
+        outer:
+        for (K key : smallest) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(key)) {
+                    continue outer;
+                }
+            }
+            result.add(key);
+        }
+        return result;
+    }
+
+    private void unlink(K key, long[] trigrams) {
+        for (long trigram : trigrams) {
+            Set<K> keys = postings.get(trigram);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private static <V> Hit<V> score(Document<V> document, String needle) {
+        String[] fields = document.fields();
+        for (int field = 0; field < fields.length; field++) {
+            String text = fields[field];
+            int quality = matchQuality(text, needle);
+            if (quality != NO_MATCH) {
+                return new Hit<>(document.value(), quality, field, text.length(), text);
+            }
+        }
+        return null;
+    }
+
+    private static int matchQuality(String text, String needle) {
+        int index = text.indexOf(needle);
+        if (index < 0) {
+            return NO_MATCH;
+        }
+        if (index == 0) {
+            return text.length() == needle.length() ? EXACT : PREFIX;
+        }
+        while (index > 0) {
+            if (!Character.isLetterOrDigit(text.charAt(index - 1))) {
+                return WORD_PREFIX;
+            }
+            index = text.indexOf(needle, index + 1);
+        }
+        return SUBSTRING;
+    }
+
+    // Trigramas distintos de todos los campos, ordenados para poder comparar documentos
+    private static long[] trigrams(String[] fields) {
+        Set<Long> distinct = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + 3 <= field.length(); i++) {
+                distinct.add(((long) field.charAt(i) << 32) | ((long) field.charAt(i + 1) << 16) | field.charAt(i + 2));
+            }
+        }
+        long[] result = new long[distinct.size()];
+        int i = 0;
+        for (long trigram : distinct) {
+            result[i++] = trigram;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private record Document<V>(V value, String[] fields, long[] trigrams) {
+    }
+
+    private record Hit<V>(V value, int quality, int field, int length, String text) implements Comparable<Hit<V>> {
+
+        @Override
+        public int compareTo(Hit<V> other) {
+            int c = Integer.compare(quality, other.quality);
+            if (c == 0) {
+                c = Integer.compare(field, other.field);
+            }
+            if (c == 0) {
+                c = Integer.compare(length, other.length);
+            }
+            return c != 0 ? c : text.compareTo(other.text);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+-- Conversión de auth.jwt_tokens a una tabla particionada por rango de issued_at.
+-- Ejecutar en una ventana de mantenimiento y después activar
+-- auth.tokens.partitioning.enabled=true para que TokenPartitionManager mantenga las particiones.
+--
+-- Notas:
+--  * La clave primaria y la unicidad de jti deben incluir issued_at (requisito de PostgreSQL
+--    para índices únicos en tablas particionadas). Para que (jti, issued_at) siga implicando
+--    un jti único, el servicio genera jti UUID v7 e inserta como issued_at su marca de tiempo;
+--    la restricción jwt_tokens_issued_at_from_jti lo exige a las filas nuevas. Las filas
+--    copiadas de la tabla anterior ya tenían jti únicos y no se validan (NOT VALID).
+--  * No se crea partición DEFAULT: impediría DETACH PARTITION CONCURRENTLY y ocultaría
+--    particiones no creadas a tiempo. El gestor crea las particiones con antelación.
+
+BEGIN;
+
+ALTER TABLE auth.jwt_tokens RENAME TO jwt_tokens_legacy;
+
+CREATE TABLE auth.jwt_tokens (
+    LIKE auth.jwt_tokens_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+) PARTITION BY RANGE (issued_at);
+
+ALTER TABLE auth.jwt_tokens ADD PRIMARY KEY (id, issued_at);
+CREATE UNIQUE INDEX jwt_tokens_jti_issued_at_key ON auth.jwt_tokens (jti, issued_at);
+CREATE INDEX jwt_tokens_jti_idx ON auth.jwt_tokens (jti);
+CREATE INDEX jwt_tokens_user_id_issued_at_idx ON auth.jwt_tokens (user_id, issued_at);
+CREATE INDEX jwt_tokens_client_id_issued_at_idx ON auth.jwt_tokens (client_id, issued_at);
+CREATE INDEX jwt_tokens_expires_at_id_idx ON auth.jwt_tokens (expires_at, id);
+CREATE INDEX jwt_tokens_revoked_at_id_idx ON auth.jwt_tokens (revoked_at, id) WHERE revoked_at IS NOT NULL;
+CREATE INDEX jwt_tokens_replaced_by_jti_idx ON auth.jwt_tokens (replaced_by_jti) WHERE replaced_by_jti IS NOT NULL;
+
+ALTER TABLE auth.jwt_tokens
+    ADD CONSTRAINT jwt_tokens_user_id_fkey FOREIGN KEY (user_id) REFERENCES auth.users (id);
+ALTER TABLE auth.jwt_tokens
+    ADD CONSTRAINT jwt_tokens_client_id_fkey FOREIGN KEY (client_id) REFERENCES auth.clients (id);
+
+-- Particiones diarias desde el token más antiguo hasta una semana después de hoy
+DO $$
+DECLARE
+    day DATE := COALESCE((SELECT min(issued_at)::date FROM auth.jwt_tokens_legacy), current_date);
+BEGIN
+    WHILE day <= current_date + 7 LOOP
+        EXECUTE format(
+            'CREATE TABLE auth.%I PARTITION OF auth.jwt_tokens FOR VALUES FROM (%L) TO (%L)',
+            'jwt_tokens_p' || to_char(day, 'YYYYMMDD'),
+            day::timestamp AT TIME ZONE 'UTC',
+            (day + 1)::timestamp AT TIME ZONE 'UTC');
+        day := day + 1;
+    END LOOP;
+END $$;
+
+INSERT INTO auth.jwt_tokens SELECT * FROM auth.jwt_tokens_legacy;
+
+-- Dos filas con el mismo jti UUID v7 tendrían el mismo issued_at y chocarían en
+-- jwt_tokens_jti_issued_at_key. Los jti que no son UUID v7 quedan fuera de la comprobación.
+ALTER TABLE auth.jwt_tokens ADD CONSTRAINT jwt_tokens_issued_at_from_jti CHECK (
+    jti !~ '^[0-9a-f]{8}-[0-9a-f]{4}-7'
+    OR issued_at = timestamptz 'epoch'
+        + ('x' || substr(replace(jti, '-', ''), 1, 12))::bit(48)::bigint * interval '1 millisecond'
+) NOT VALID;
+
+COMMIT;
+
+-- Tras verificar la migración:
+-- DROP TABLE auth.jwt_tokens_legacy;
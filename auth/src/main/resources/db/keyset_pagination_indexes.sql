@@ -0,0 +1,49 @@
+-- Índices que sirven a la paginación por clave de los endpoints de listado.
+-- Cada consulta filtra por el propietario y recorre (fecha, id) en orden descendente,
+-- así que el índice compuesto permite leer solo las filas de la página.
+-- CONCURRENTLY no admite transacción: ejecutar con psql, sentencia a sentencia
+-- (psql -f keyset_pagination_indexes.sql, sin --single-transaction).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS clients_created_at_id_idx
+    ON auth.clients (created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS users_client_id_created_at_id_idx
+    ON auth.users (client_id, created_at DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS roles_client_id_created_at_id_idx
+    ON auth.roles (client_id, created_at DESC, id DESC);
+
+-- Si jwt_tokens ya está particionada (db/jwt_tokens_partitioning.sql), CONCURRENTLY no está
+-- disponible sobre el padre: se crea el índice solo en el padre (ON ONLY, queda no válido),
+-- se construye en cada partición sin bloquear escrituras y se adjunta; cuando todas las
+-- particiones lo tienen, el índice del padre pasa a ser válido. Las particiones que cree
+-- después TokenPartitionManager heredan el índice automáticamente.
+SELECT c.relkind = 'p' AS jwt_tokens_partitioned
+FROM pg_class c WHERE c.oid = 'auth.jwt_tokens'::regclass \gset
+
+\if :jwt_tokens_partitioned
+
+CREATE INDEX IF NOT EXISTS jwt_tokens_user_id_issued_at_id_idx
+    ON ONLY auth.jwt_tokens (user_id, issued_at DESC, id DESC);
+
+SELECT format('CREATE INDEX CONCURRENTLY IF NOT EXISTS %I ON auth.%I (user_id, issued_at DESC, id DESC)',
+              c.relname || '_user_id_issued_at_id_idx', c.relname)
+FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'auth.jwt_tokens'::regclass
+ORDER BY c.relname \gexec
+
+SELECT format('ALTER INDEX auth.jwt_tokens_user_id_issued_at_id_idx ATTACH PARTITION auth.%I',
+              c.relname || '_user_id_issued_at_id_idx')
+FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'auth.jwt_tokens'::regclass
+  AND NOT EXISTS (SELECT 1 FROM pg_inherits ii
+                  WHERE ii.inhparent = 'auth.jwt_tokens_user_id_issued_at_id_idx'::regclass
+                    AND ii.inhrelid = to_regclass('auth.' || quote_ident(c.relname || '_user_id_issued_at_id_idx')))
+ORDER BY c.relname \gexec
+
+\else
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS jwt_tokens_user_id_issued_at_id_idx
+    ON auth.jwt_tokens (user_id, issued_at DESC, id DESC);
+
+\endif
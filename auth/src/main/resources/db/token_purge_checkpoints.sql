@@ -0,0 +1,13 @@
+-- Cursores de TokenPurgeEngine: cada trabajo de purga guarda aquí su corte y la última
+-- clave borrada en la misma transacción que el DELETE, para reanudar tras un reinicio.
+-- Ejecutar antes de activar auth.purge.enabled=true.
+
+CREATE TABLE IF NOT EXISTS auth.token_purge_checkpoints (
+    job          VARCHAR(32) PRIMARY KEY,
+    cutoff       TIMESTAMPTZ NOT NULL,
+    last_key     TIMESTAMPTZ,
+    last_id      UUID,
+    rows_deleted BIGINT      NOT NULL DEFAULT 0,
+    completed    BOOLEAN     NOT NULL DEFAULT FALSE,
+    updated_at   TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,103 @@
+package com.vehiclemonitoring.auth.benchmark;
+
+import com.vehiclemonitoring.auth.model.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones de HashSet sobre entidades con el hashCode anterior
+ * ({@code getClass().hashCode()}, un único bucket) frente al basado en el ID.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityHashSetBenchmark {
+
+    public enum Identity { CLASS_HASH, ID_HASH }
+
+    @Param({"10000", "50000"})
+    private int size;
+
+    @Param({"CLASS_HASH", "ID_HASH"})
+    private Identity identity;
+
+    private Role[] members;
+    private Set<Role> populated;
+
+    @Setup
+    public void setup() {
+        members = new Role[size];
+        for (int i = 0; i < size; i++) {
+            members[i] = identity == Identity.CLASS_HASH
+                    ? new ClassHashRole("role-" + i)
+                    : new Role(null, "role-" + i);
+        }
+        populated = new HashSet<>();
+        for (Role member : members) {
+            populated.add(member);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Set<Role> addAll() {
+        Set<Role> set = new HashSet<>();
+        for (Role member : members) {
+            set.add(member);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return populated.contains(members[ThreadLocalRandom.current().nextInt(size)]);
+    }
+
+    @Benchmark
+    public boolean removeAndAdd() {
+        Role member = members[ThreadLocalRandom.current().nextInt(size)];
+        populated.remove(member);
+        return populated.add(member);
+    }
+
+    /**
+     * Reproduce el hashCode que tenían las entidades antes de asignar el ID en la aplicación
+     */
+    static class ClassHashRole extends Role {
+
+        ClassHashRole(String name) {
+            super(null, name);
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntityHashSetBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.vehiclemonitoring.auth.benchmark;
+
+import com.vehiclemonitoring.auth.security.jwt.JwtAlgorithm;
+import com.vehiclemonitoring.auth.security.jwt.JwtClaims;
+import com.vehiclemonitoring.auth.security.jwt.JwtEngine;
+import com.vehiclemonitoring.auth.security.jwt.JwtSigningKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de emisión y verificación de tokens.
+ * Ejecutar con {@link #main}: el perfilador GC informa los bytes asignados por
+ * operación en la métrica {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtEngineBenchmark {
+
+    @Param({"HS256", "ES256"})
+    private JwtAlgorithm algorithm;
+
+    private JwtEngine engine;
+    private JwtClaims claims;
+    private String token;
+    private long now;
+
+    @Setup
+    public void setup() throws Exception {
+        if (algorithm == JwtAlgorithm.HS256) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            engine = new JwtEngine(JwtSigningKeys.hmac(secret, "bench"));
+        } else {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair keyPair = generator.generateKeyPair();
+            engine = new JwtEngine(JwtSigningKeys.ecdsa(keyPair.getPrivate(), keyPair.getPublic(), "bench"));
+        }
+        now = System.currentTimeMillis() / 1000;
+        claims = new JwtClaims(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "access", now, now + 900);
+        token = engine.issue(claims);
+    }
+
+    @Benchmark
+    public String sign() {
+        return engine.issue(claims);
+    }
+
+    @Benchmark
+    public JwtClaims verify() {
+        return engine.verify(token, now);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtEngineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
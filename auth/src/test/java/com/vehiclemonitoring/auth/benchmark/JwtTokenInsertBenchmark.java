@@ -0,0 +1,134 @@
+package com.vehiclemonitoring.auth.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserción de tokens fila a fila (una transacción por token) frente a lotes
+ * JDBC reescritos como INSERT multi-fila. Requiere la base de datos local de
+ * desarrollo; las filas creadas se eliminan al terminar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JwtTokenInsertBenchmark {
+
+    private static final String URL = "jdbc:postgresql://localhost:5432/car_monitoring_auth?reWriteBatchedInserts=true";
+    private static final String USERNAME = "postgres";
+    private static final String PASSWORD = "admin";
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO auth.jwt_tokens (id, jti, token_type, user_id, client_id, issued_at, expires_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private Connection connection;
+    private UUID clientId;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        clientId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        try (PreparedStatement client = connection.prepareStatement(
+                "INSERT INTO auth.clients (id, name, slug, is_active, created_at) VALUES (?, ?, ?, true, now())");
+             PreparedStatement user = connection.prepareStatement(
+                "INSERT INTO auth.users (id, client_id, email, password_hash, is_active, is_email_verified, created_at) " +
+                "VALUES (?, ?, ?, 'x', true, false, now())")) {
+            client.setObject(1, clientId);
+            client.setString(2, "bench-" + clientId);
+            client.setString(3, "bench-" + clientId);
+            client.executeUpdate();
+            user.setObject(1, userId);
+            user.setObject(2, clientId);
+            user.setString(3, "bench-" + userId + "@example.com");
+            user.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (PreparedStatement tokens = connection.prepareStatement("DELETE FROM auth.jwt_tokens WHERE user_id = ?");
+             PreparedStatement user = connection.prepareStatement("DELETE FROM auth.users WHERE id = ?");
+             PreparedStatement client = connection.prepareStatement("DELETE FROM auth.clients WHERE id = ?")) {
+            tokens.setObject(1, userId);
+            tokens.executeUpdate();
+            user.setObject(1, userId);
+            user.executeUpdate();
+            client.setObject(1, clientId);
+            client.executeUpdate();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void perRowSave() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                bind(ps);
+                ps.executeUpdate();
+                connection.commit();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void batchedFlush() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                bind(ps);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void bind(PreparedStatement ps) throws SQLException {
+        OffsetDateTime now = OffsetDateTime.now();
+        ps.setObject(1, UUID.randomUUID());
+        ps.setString(2, UUID.randomUUID().toString());
+        ps.setString(3, "access");
+        ps.setObject(4, userId);
+        ps.setObject(5, clientId);
+        ps.setObject(6, now);
+        ps.setObject(7, now.plusMinutes(15));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.vehiclemonitoring.auth.benchmark;
+
+import com.vehiclemonitoring.auth.config.LoginRateLimitProperties;
+import com.vehiclemonitoring.auth.service.LoginRateLimitDecision;
+import com.vehiclemonitoring.auth.service.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intentos de inicio de sesión por segundo a través de {@link LoginRateLimiter} con 8 hilos.
+ * {@code keys} es el número de cuentas y orígenes distintos: con pocas claves los hilos
+ * compiten por los mismos contadores (un ataque concentrado) y casi todos los intentos
+ * salen por la comprobación del bloqueo; con muchas, la caché es grande y una parte de los
+ * intentos actualiza la ventana con CAS. Ejecutar con {@link #main}: el perfilador
+ * GC informa los bytes asignados por intento en {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoginRateLimiterBenchmark {
+
+    @Param({"16", "100000"})
+    private int keys;
+
+    private LoginRateLimiter limiter;
+    private String[] emails;
+    private String[] sources;
+
+    @Setup
+    public void setup() {
+        LoginRateLimitProperties properties = new LoginRateLimitProperties(true, Duration.ofMinutes(1), 10, 100,
+                Duration.ofSeconds(30), Duration.ofHours(1), 1_000_000);
+        limiter = new LoginRateLimiter(properties, new SimpleMeterRegistry());
+        emails = new String[keys];
+        sources = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            emails[i] = "vehicle-" + i + "@fleet.example";
+            sources[i] = "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public LoginRateLimitDecision attempt() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return limiter.tryAcquire(emails[random.nextInt(keys)], "fleet", sources[random.nextInt(keys)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginRateLimiterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
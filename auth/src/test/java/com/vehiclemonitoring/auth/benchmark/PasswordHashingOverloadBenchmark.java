@@ -0,0 +1,106 @@
+package com.vehiclemonitoring.auth.benchmark;
+
+import com.vehiclemonitoring.auth.config.PasswordHashingProperties;
+import com.vehiclemonitoring.auth.security.password.Pbkdf2PasswordHasher;
+import com.vehiclemonitoring.auth.service.PasswordHashingRejectedException;
+import com.vehiclemonitoring.auth.service.PasswordHashingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inicios de sesión bajo sobrecarga: verificación en el hilo de la petición frente al
+ * pool acotado de {@link PasswordHashingService}. Con 64 hilos cliente y un plazo de
+ * 100 ms por petición, el contador {@code onTime} es el goodput (verificaciones terminadas
+ * dentro del plazo por segundo); {@code late} y {@code rejected} muestran a dónde va el
+ * resto. En el hilo de la petición la CPU se reparte entre todas y casi ninguna llega a
+ * tiempo; con el pool el goodput se mantiene cerca de la capacidad de la máquina.
+ * Para otros niveles de carga, ejecutar con {@code -t N}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(64)
+@Fork(1)
+public class PasswordHashingOverloadBenchmark {
+
+    private static final int ITERATIONS = 20_000;
+    private static final Duration DEADLINE = Duration.ofMillis(100);
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"CALLER_THREAD", "BOUNDED_POOL"})
+    private String mode;
+
+    private Pbkdf2PasswordHasher hasher;
+    private PasswordHashingService service;
+    private String encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        hasher = new Pbkdf2PasswordHasher(ITERATIONS, 16);
+        encoded = hasher.hash(PASSWORD);
+        PasswordHashingProperties properties = new PasswordHashingProperties(ITERATIONS, 16, 0, 256, DEADLINE);
+        service = new PasswordHashingService(properties, null, new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long onTime;
+        public long late;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            onTime = 0;
+            late = 0;
+            rejected = 0;
+        }
+    }
+
+    @Benchmark
+    public boolean login(Outcomes outcomes) {
+        long startedAt = System.nanoTime();
+        boolean matches;
+        try {
+            matches = "BOUNDED_POOL".equals(mode)
+                    ? service.verify(PASSWORD, encoded)
+                    : hasher.matches(PASSWORD, encoded);
+        } catch (PasswordHashingRejectedException e) {
+            outcomes.rejected++;
+            return false;
+        }
+        if (System.nanoTime() - startedAt <= DEADLINE.toNanos()) {
+            outcomes.onTime++;
+        } else {
+            outcomes.late++;
+        }
+        return matches;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashingOverloadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.vehiclemonitoring.auth.benchmark;
+
+import com.vehiclemonitoring.auth.util.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Inserción en una tabla con clave primaria UUID: v4 aleatorio frente a v7 ordenado por tiempo.
+ * Al terminar cada ensayo imprime el tamaño del índice de la clave primaria y la densidad
+ * media de sus hojas (requiere la extensión pgstattuple; si no está, solo el tamaño).
+ * Usa una tabla propia en la base de datos local de desarrollo que se elimina al terminar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UuidPrimaryKeyBenchmark {
+
+    private static final String URL = "jdbc:postgresql://localhost:5432/car_monitoring_auth?reWriteBatchedInserts=true";
+    private static final String USERNAME = "postgres";
+    private static final String PASSWORD = "admin";
+    private static final int BATCH_SIZE = 500;
+
+    public enum Version {
+        V4(UUID::randomUUID),
+        V7(UuidV7::generate);
+
+        private final Supplier<UUID> generator;
+
+        Version(Supplier<UUID> generator) {
+            this.generator = generator;
+        }
+    }
+
+    @Param({"V4", "V7"})
+    public Version version;
+
+    private Connection connection;
+    private String table;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        table = "auth.bench_uuid_" + version.name().toLowerCase();
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + table);
+            st.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, created_at TIMESTAMPTZ NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement st = connection.createStatement()) {
+            report(st);
+            st.execute("DROP TABLE IF EXISTS " + table);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insert() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO " + table + " (id, created_at) VALUES (?, ?)")) {
+            OffsetDateTime now = OffsetDateTime.now();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                ps.setObject(1, version.generator.get());
+                ps.setObject(2, now);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void report(Statement st) throws SQLException {
+        String index = table.substring("auth.".length()) + "_pkey";
+        try (ResultSet rs = st.executeQuery("SELECT count(*), pg_relation_size('auth." + index + "') FROM " + table)) {
+            rs.next();
+            System.out.printf("%n%s: %d filas, índice PK %d KB%n", version, rs.getLong(1), rs.getLong(2) / 1024);
+        }
+        try (ResultSet rs = st.executeQuery("SELECT avg_leaf_density, leaf_fragmentation FROM pgstatindex('auth." + index + "')")) {
+            rs.next();
+            System.out.printf("%s: densidad media de hojas %.1f%%, fragmentación %.1f%%%n",
+                    version, rs.getDouble(1), rs.getDouble(2));
+        } catch (SQLException e) {
+            System.out.printf("%s: pgstattuple no disponible (%s)%n", version, e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UuidPrimaryKeyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.vehiclemonitoring.auth.model;
+
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import com.vehiclemonitoring.auth.util.UuidV7;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BaseEntityTests {
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void idIsAssignedAtConstruction() {
+		Client client = new Client("base-" + UUID.randomUUID(), "base-" + UUID.randomUUID());
+
+		assertNotNull(client.getId());
+		assertTrue(UuidV7.timestamp(client.getId()) > 0);
+		assertSame(client.getId(), client.getId());
+		assertNotEquals(client, new Client(client.getName(), client.getSlug()));
+	}
+
+	@Test
+	void hashCodeIsStableAcrossSave() {
+		String suffix = UUID.randomUUID().toString();
+		Client client = new Client("base-" + suffix, "base-" + suffix);
+		Set<Client> set = new HashSet<>(Set.of(client));
+		int hash = client.hashCode();
+		try {
+			Client saved = clientRepository.save(client);
+
+			assertEquals(hash, saved.hashCode());
+			assertTrue(set.contains(saved));
+		} finally {
+			clientRepository.deleteById(client.getId());
+		}
+	}
+
+	@Test
+	void equalsAgainstAProxyDoesNotInitializeIt() {
+		String suffix = UUID.randomUUID().toString();
+		Client client = clientRepository.save(new Client("base-" + suffix, "base-" + suffix));
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			Client proxy = entityManager.getReference(Client.class, client.getId());
+			assertFalse(Hibernate.isInitialized(proxy));
+
+			assertEquals(client, proxy);
+			assertNotEquals(new Client("other-" + suffix, "other-" + suffix), proxy);
+			assertEquals(client.hashCode(), client.getId().hashCode());
+
+			assertFalse(Hibernate.isInitialized(proxy), "equals inicializó el proxy");
+		} finally {
+			entityManager.close();
+			clientRepository.deleteById(client.getId());
+		}
+	}
+}
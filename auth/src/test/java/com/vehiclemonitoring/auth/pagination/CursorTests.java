@@ -0,0 +1,87 @@
+package com.vehiclemonitoring.auth.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorTests {
+
+	@Test
+	void roundTripKeepsMicrosecondPrecision() {
+		Cursor cursor = new Cursor(OffsetDateTime.of(2024, 3, 5, 10, 15, 30, 123_456_000, ZoneOffset.UTC), UUID.randomUUID());
+
+		Cursor decoded = Cursor.decode(cursor.encode());
+
+		assertEquals(cursor, decoded);
+	}
+
+	@Test
+	void roundTripNormalizesTheOffsetToUtc() {
+		OffsetDateTime at = OffsetDateTime.of(2024, 3, 5, 12, 0, 0, 0, ZoneOffset.ofHours(2));
+		Cursor decoded = Cursor.decode(new Cursor(at, UUID.randomUUID()).encode());
+
+		assertEquals(ZoneOffset.UTC, decoded.at().getOffset());
+		assertEquals(at.toInstant(), decoded.at().toInstant());
+	}
+
+	@Test
+	void tokenIsUrlSafeWithoutPadding() {
+		String token = new Cursor(OffsetDateTime.now(ZoneOffset.UTC), UUID.randomUUID()).encode();
+
+		assertEquals(32, token.length());
+		assertEquals(-1, token.indexOf('='));
+		assertEquals(-1, token.indexOf('+'));
+		assertEquals(-1, token.indexOf('/'));
+	}
+
+	@Test
+	void garbageIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode("no es un cursor!"));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode("%%%%"));
+	}
+
+	@Test
+	void wrongLengthIsRejected() {
+		String valid = new Cursor(OffsetDateTime.now(ZoneOffset.UTC), UUID.randomUUID()).encode();
+
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(valid.substring(0, 20)));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(valid + "AAAA"));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(""));
+	}
+
+	@Test
+	void tamperedTimestampOutOfRangeIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(token(Long.MAX_VALUE)));
+		assertThrows(IllegalArgumentException.class, () -> Cursor.decode(token(Long.MIN_VALUE)));
+	}
+
+	@Test
+	void pageRequestsMapsInvalidCursorsToBadRequest() {
+		assertNull(PageRequests.cursor(null));
+		assertNull(PageRequests.cursor(" "));
+
+		ResponseStatusException garbage = assertThrows(ResponseStatusException.class, () -> PageRequests.cursor("????"));
+		assertEquals(HttpStatus.BAD_REQUEST, garbage.getStatusCode());
+		ResponseStatusException tampered = assertThrows(ResponseStatusException.class,
+				() -> PageRequests.cursor(token(Long.MAX_VALUE)));
+		assertEquals(HttpStatus.BAD_REQUEST, tampered.getStatusCode());
+	}
+
+	private static String token(long micros) {
+		ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 3);
+		buffer.putLong(micros);
+		buffer.putLong(1L);
+		buffer.putLong(2L);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+	}
+}
@@ -0,0 +1,141 @@
+package com.vehiclemonitoring.auth.repository;
+
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.Permission;
+import com.vehiclemonitoring.auth.model.Role;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class FetchPlanTests {
+
+	private static final int USERS = 5;
+	private static final int ROLES = 4;
+	private static final int PERMISSIONS_PER_ROLE = 3;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private PermissionRepository permissionRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private SqlStatementCounter counter;
+	private Client client;
+	private String sharedPermission;
+	private final List<UUID> userIds = new ArrayList<>();
+	private final List<UUID> roleIds = new ArrayList<>();
+	private final List<UUID> permissionIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		counter = new SqlStatementCounter(entityManagerFactory);
+		String suffix = UUID.randomUUID().toString();
+		sharedPermission = "fetch:" + suffix + ":0:0";
+		transactionTemplate.executeWithoutResult(status -> {
+			client = clientRepository.save(new Client("fetch-" + suffix, "fetch-" + suffix));
+			List<Role> roles = new ArrayList<>();
+			for (int r = 0; r < ROLES; r++) {
+				Role role = roleRepository.save(new Role(client, "fetch-" + r));
+				for (int p = 0; p < PERMISSIONS_PER_ROLE; p++) {
+					// El primer permiso es común a todos los roles
+					String name = p == 0 ? sharedPermission : "fetch:" + suffix + ":" + r + ":" + p;
+					Permission permission = permissionRepository.findByName(name)
+							.orElseGet(() -> permissionRepository.save(new Permission(name)));
+					role.addPermission(permission);
+					if (!permissionIds.contains(permission.getId())) {
+						permissionIds.add(permission.getId());
+					}
+				}
+				roles.add(role);
+				roleIds.add(role.getId());
+			}
+			for (int u = 0; u < USERS; u++) {
+				User user = userRepository.save(new User(client, "fetch-" + u + "-" + suffix + "@example.com", "hash"));
+				roles.forEach(user::addRole);
+				userIds.add(user.getId());
+			}
+		});
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@AfterEach
+	void tearDown() {
+		transactionTemplate.executeWithoutResult(status -> {
+			userRepository.deleteAllById(userIds);
+			roleRepository.deleteAllById(roleIds);
+			permissionRepository.deleteAllById(permissionIds);
+			clientRepository.deleteById(client.getId());
+		});
+	}
+
+	@Test
+	void entityGraphLoadsUserRolesAndPermissionsInOneStatement() {
+		long statements = counter.count(() -> transactionTemplate.executeWithoutResult(status -> {
+			User user = userRepository.findWithRolesAndPermissionsById(userIds.get(0)).orElseThrow();
+			assertEquals(ROLES * PERMISSIONS_PER_ROLE - (ROLES - 1), countPermissions(List.of(user)));
+		}));
+		assertEquals(1, statements);
+	}
+
+	@Test
+	void entityGraphLoadsUsersByPermissionInOneStatement() {
+		long statements = counter.count(() -> transactionTemplate.executeWithoutResult(status -> {
+			List<User> users = userRepository.findWithRolesAndPermissionsByPermissionNameAndClientId(
+					sharedPermission, client.getId());
+			assertEquals(USERS, users.size());
+			countPermissions(users);
+		}));
+		assertEquals(1, statements);
+	}
+
+	@Test
+	void lazyTraversalIsBatchFetched() {
+		counter.assertAtMost(3, "findByClientId + roles + permisos", () ->
+				transactionTemplate.executeWithoutResult(status ->
+						countPermissions(userRepository.findByClientId(client.getId()))));
+	}
+
+	@Test
+	void rolesWithPermissionsLoadInOneStatement() {
+		long statements = counter.count(() -> transactionTemplate.executeWithoutResult(status ->
+				roleRepository.findWithPermissionsByClientId(client.getId())
+						.forEach(role -> assertEquals(PERMISSIONS_PER_ROLE, role.getPermissions().size()))));
+		assertEquals(1, statements);
+	}
+
+	// Recorre User -> Role -> Permission y devuelve el número de permisos distintos
+	private static long countPermissions(Collection<User> users) {
+		return users.stream()
+				.flatMap(user -> user.getRoles().stream())
+				.flatMap(role -> role.getPermissions().stream())
+				.map(Permission::getName)
+				.distinct()
+				.count();
+	}
+}
@@ -0,0 +1,174 @@
+package com.vehiclemonitoring.auth.repository;
+
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.JwtToken;
+import com.vehiclemonitoring.auth.model.Permission;
+import com.vehiclemonitoring.auth.model.Role;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.repository.projection.UserListItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class KeysetFinderTests {
+
+	private static final int PAGE = 2;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private PermissionRepository permissionRepository;
+
+	@Autowired
+	private JwtTokenRepository jwtTokenRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Client client;
+	private Permission permission;
+	private final List<UUID> roleIds = new ArrayList<>();
+	private final List<UUID> userIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		String suffix = UUID.randomUUID().toString();
+		transactionTemplate.executeWithoutResult(status -> {
+			client = clientRepository.save(new Client("keyset-" + suffix, "keyset-" + suffix));
+			permission = permissionRepository.save(new Permission("keyset:" + suffix));
+			// Dos roles con el mismo permiso: cada usuario aparece dos veces en el producto de la join
+			List<Role> roles = new ArrayList<>();
+			for (int r = 0; r < 2; r++) {
+				Role role = roleRepository.save(new Role(client, "keyset-" + r));
+				role.addPermission(permission);
+				roles.add(role);
+				roleIds.add(role.getId());
+			}
+			for (int u = 0; u < 7; u++) {
+				User user = userRepository.save(new User(client, "keyset-" + u + "-" + suffix + "@example.com", "hash"));
+				// Los dos últimos usuarios no tienen el permiso
+				if (u < 5) {
+					roles.forEach(user::addRole);
+				}
+				userIds.add(user.getId());
+			}
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		for (UUID userId : userIds) {
+			jdbcTemplate.update("DELETE FROM auth.jwt_tokens WHERE user_id = ?", userId);
+			jdbcTemplate.update("DELETE FROM auth.user_roles WHERE user_id = ?", userId);
+			jdbcTemplate.update("DELETE FROM auth.users WHERE id = ?", userId);
+		}
+		for (UUID roleId : roleIds) {
+			jdbcTemplate.update("DELETE FROM auth.role_permissions WHERE role_id = ?", roleId);
+			jdbcTemplate.update("DELETE FROM auth.roles WHERE id = ?", roleId);
+		}
+		jdbcTemplate.update("DELETE FROM auth.permissions WHERE id = ?", permission.getId());
+		clientRepository.deleteById(client.getId());
+	}
+
+	@Test
+	void usersByPermissionArePagedWithoutDuplicates() {
+		List<UserListItem> all = new ArrayList<>();
+		List<UserListItem> page = userRepository.findPageByPermissionNameAndClientId(
+				permission.getName(), client.getId(), Limit.of(PAGE));
+		while (!page.isEmpty()) {
+			assertTrue(page.size() <= PAGE);
+			all.addAll(page);
+			UserListItem last = page.get(page.size() - 1);
+			page = userRepository.findPageByPermissionNameAndClientIdAfter(
+					permission.getName(), client.getId(), last.createdAt(), last.id(), Limit.of(PAGE));
+		}
+
+		Set<UUID> ids = new HashSet<>();
+		all.forEach(u -> ids.add(u.id()));
+		assertEquals(Set.copyOf(userIds.subList(0, 5)), ids);
+		assertEquals(5, all.size());
+		for (int i = 1; i < all.size(); i++) {
+			assertTrue(!all.get(i).createdAt().isAfter(all.get(i - 1).createdAt()), "orden descendente");
+		}
+	}
+
+	@Test
+	void activeTokensByUserArePagedAndSkipRevokedAndExpired() {
+		UUID userId = userIds.get(0);
+		OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+		Set<UUID> active = new HashSet<>();
+		for (int i = 0; i < 5; i++) {
+			active.add(insertToken(userId, now.minusMinutes(i), now.plusHours(1), null));
+		}
+		insertToken(userId, now.minusMinutes(10), now.plusHours(1), now);
+		insertToken(userId, now.minusHours(3), now.minusHours(2), null);
+
+		Set<UUID> seen = new HashSet<>();
+		List<JwtToken> page = jwtTokenRepository.findActivePageByUserId(userId, Limit.of(PAGE));
+		while (!page.isEmpty()) {
+			assertTrue(page.size() <= PAGE);
+			page.forEach(t -> assertTrue(seen.add(t.getId()), "token repetido entre páginas"));
+			JwtToken last = page.get(page.size() - 1);
+			page = jwtTokenRepository.findActivePageByUserIdAfter(userId, last.getIssuedAt(), last.getId(), Limit.of(PAGE));
+		}
+
+		assertEquals(active, seen);
+	}
+
+	@Test
+	void tokensIssuedSinceArePagedWithinTheWindow() {
+		OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+		OffsetDateTime since = now.minusHours(1);
+		Set<UUID> recent = new HashSet<>();
+		for (int i = 0; i < 5; i++) {
+			recent.add(insertToken(userIds.get(i), now.minusMinutes(i), now.plusHours(1), null));
+		}
+		insertToken(userIds.get(0), now.minusHours(2), now.plusHours(1), null);
+
+		Set<UUID> seen = new HashSet<>();
+		List<JwtToken> page = jwtTokenRepository.findPageIssuedAfterAndClientId(since, client.getId(), Limit.of(PAGE));
+		while (!page.isEmpty()) {
+			page.forEach(t -> assertTrue(seen.add(t.getId()), "token repetido entre páginas"));
+			JwtToken last = page.get(page.size() - 1);
+			page = jwtTokenRepository.findPageIssuedAfterAndClientIdAfter(since, client.getId(),
+					last.getIssuedAt(), last.getId(), Limit.of(PAGE));
+		}
+
+		assertEquals(recent, seen);
+	}
+
+	private UUID insertToken(UUID userId, OffsetDateTime issuedAt, OffsetDateTime expiresAt, OffsetDateTime revokedAt) {
+		UUID id = UUID.randomUUID();
+		jdbcTemplate.update("INSERT INTO auth.jwt_tokens (id, jti, token_type, user_id, client_id, issued_at, expires_at, revoked_at) " +
+						"VALUES (?, ?, 'refresh', ?, ?, ?, ?, ?)",
+				id, "keyset-" + id, userId, client.getId(), issuedAt, expiresAt, revokedAt);
+		return id;
+	}
+}
@@ -0,0 +1,111 @@
+package com.vehiclemonitoring.auth.repository;
+
+import com.vehiclemonitoring.auth.model.CacheRegions;
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.Permission;
+import com.vehiclemonitoring.auth.model.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SecondLevelCacheTests {
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private PermissionRepository permissionRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private String suffix;
+	private Client client;
+	private Permission permission;
+	private Role role;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		suffix = UUID.randomUUID().toString();
+		client = clientRepository.save(new Client("cache-" + suffix, "cache-" + suffix));
+		permission = permissionRepository.save(new Permission("cache:" + suffix, "antes"));
+		role = roleRepository.save(new Role(client, "cache-" + suffix));
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		transactionTemplate.executeWithoutResult(status -> {
+			roleRepository.deleteById(role.getId());
+			permissionRepository.findByName("cache:" + suffix).ifPresent(permissionRepository::delete);
+			clientRepository.deleteById(client.getId());
+		});
+	}
+
+	@Test
+	void permissionIsServedFromCacheAndInvalidatedOnUpdate() {
+		permissionRepository.findById(permission.getId());
+		permissionRepository.findById(permission.getId());
+		assertTrue(regionHits(CacheRegions.PERMISSION) > 0);
+
+		transactionTemplate.executeWithoutResult(status ->
+				permissionRepository.findById(permission.getId()).orElseThrow().setDescription("después"));
+
+		assertEquals("después", permissionRepository.findById(permission.getId()).orElseThrow().getDescription());
+	}
+
+	@Test
+	void clientIsServedFromCacheAndInvalidatedOnUpdate() {
+		clientRepository.findById(client.getId());
+		clientRepository.findById(client.getId());
+		assertTrue(regionHits(CacheRegions.CLIENT) > 0);
+
+		transactionTemplate.executeWithoutResult(status ->
+				clientRepository.findById(client.getId()).orElseThrow().setName("renombrado-" + suffix));
+
+		assertEquals("renombrado-" + suffix, clientRepository.findById(client.getId()).orElseThrow().getName());
+	}
+
+	@Test
+	void rolePermissionsCollectionIsInvalidatedOnChange() {
+		assertEquals(0, permissionCount());
+		permissionCount();
+		assertTrue(regionHits(CacheRegions.ROLE_PERMISSIONS) > 0);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			Role managed = roleRepository.findById(role.getId()).orElseThrow();
+			managed.getPermissions().add(permissionRepository.findById(permission.getId()).orElseThrow());
+		});
+
+		assertEquals(1, permissionCount());
+	}
+
+	private int permissionCount() {
+		return transactionTemplate.execute(status ->
+				roleRepository.findById(role.getId()).orElseThrow().getPermissions().size());
+	}
+
+	private long regionHits(String region) {
+		return statistics.getDomainDataRegionStatistics(region).getHitCount();
+	}
+}
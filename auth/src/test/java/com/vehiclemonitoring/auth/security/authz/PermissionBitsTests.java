@@ -0,0 +1,49 @@
+package com.vehiclemonitoring.auth.security.authz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionBitsTests {
+
+	@Test
+	void containsOnlyTheGivenIds() {
+		// Ids a ambos lados del límite de palabra
+		PermissionBits bits = PermissionBits.of(0, 63, 64, 130);
+
+		assertTrue(bits.contains(0));
+		assertTrue(bits.contains(63));
+		assertTrue(bits.contains(64));
+		assertTrue(bits.contains(130));
+		assertFalse(bits.contains(1));
+		assertFalse(bits.contains(65));
+		assertFalse(bits.contains(1000));
+		assertFalse(bits.contains(-1));
+		assertEquals(4, bits.cardinality());
+	}
+
+	@Test
+	void unionCombinesSetsOfDifferentLengths() {
+		PermissionBits union = PermissionBits.union(List.of(PermissionBits.of(1), PermissionBits.of(200), PermissionBits.EMPTY));
+
+		assertTrue(union.contains(1));
+		assertTrue(union.contains(200));
+		assertEquals(2, union.cardinality());
+		assertEquals(PermissionBits.of(1, 200), union);
+		assertEquals(PermissionBits.of(1, 200).hashCode(), union.hashCode());
+	}
+
+	@Test
+	void emptySets() {
+		assertSame(PermissionBits.EMPTY, PermissionBits.of());
+		assertSame(PermissionBits.EMPTY, PermissionBits.union(List.of()));
+		assertTrue(PermissionBits.EMPTY.isEmpty());
+		assertFalse(PermissionBits.EMPTY.contains(0));
+		assertEquals(PermissionBits.EMPTY, PermissionBits.union(List.of(PermissionBits.EMPTY)));
+	}
+}
@@ -0,0 +1,32 @@
+package com.vehiclemonitoring.auth.security.authz;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class PermissionIdRegistryTests {
+
+	@Test
+	void idsAreDenseAndStable() {
+		PermissionIdRegistry registry = new PermissionIdRegistry();
+
+		int read = registry.register("users.read");
+		int write = registry.register("users.write");
+
+		assertEquals(0, read);
+		assertEquals(1, write);
+		assertEquals(read, registry.register("users.read"));
+		assertEquals(read, registry.idOf("users.read"));
+		assertEquals(2, registry.size());
+	}
+
+	@Test
+	void unknownPermissionHasNoId() {
+		PermissionIdRegistry registry = new PermissionIdRegistry();
+		registry.register("users.read");
+
+		assertEquals(-1, registry.idOf("users.delete"));
+		assertNotEquals(-1, registry.idOf("users.read"));
+	}
+}
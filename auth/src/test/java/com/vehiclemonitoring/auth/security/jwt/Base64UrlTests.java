@@ -0,0 +1,80 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Base64UrlTests {
+
+	@Test
+	void matchesTheJdkEncoderForEveryRemainder() {
+		Random random = new Random(42);
+		for (int length = 0; length < 100; length++) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			String expected = Base64.getUrlEncoder().withoutPadding().encodeToString(data);
+
+			byte[] encoded = new byte[Base64Url.encodedLength(length)];
+			int written = Base64Url.encode(data, 0, length, encoded, 0);
+
+			assertEquals(expected.length(), written);
+			assertEquals(expected, new String(encoded, StandardCharsets.US_ASCII));
+
+			byte[] decoded = new byte[Base64Url.decodedLength(written)];
+			assertEquals(length, Base64Url.decode(encoded, 0, written, decoded, 0));
+			assertArrayEquals(data, decoded);
+		}
+	}
+
+	@Test
+	void honoursOffsets() {
+		byte[] src = "xxhelloxx".getBytes(StandardCharsets.US_ASCII);
+		byte[] dst = new byte[16];
+
+		int written = Base64Url.encode(src, 2, 5, dst, 3);
+
+		assertEquals("aGVsbG8", new String(dst, 3, written, StandardCharsets.US_ASCII));
+		byte[] decoded = new byte[8];
+		assertEquals(5, Base64Url.decode(dst, 3, written, decoded, 1));
+		assertEquals("hello", new String(decoded, 1, 5, StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	void rejectsCharactersOutsideTheAlphabet() {
+		assertInvalid("aGVs+G8");
+		assertInvalid("aGVs/G8");
+		assertInvalid("aGVsbG8=");
+		assertInvalid("aGV sbG8");
+		assertInvalid("aGVsáG8");
+	}
+
+	@Test
+	void rejectsImpossibleLengths() {
+		assertInvalid("a");
+		assertInvalid("aGVsb");
+	}
+
+	@Test
+	void rejectsNonCanonicalTrailingBits() {
+		// "QQ" y "QUI" son las formas canónicas de "A" y "AB"; los bits sobrantes deben ser cero
+		assertEquals(1, decode("QQ"));
+		assertInvalid("QR");
+		assertEquals(2, decode("QUI"));
+		assertInvalid("QUJ");
+	}
+
+	private static int decode(String value) {
+		byte[] src = value.getBytes(StandardCharsets.ISO_8859_1);
+		return Base64Url.decode(src, 0, src.length, new byte[src.length], 0);
+	}
+
+	private static void assertInvalid(String value) {
+		assertEquals(-1, decode(value), () -> "se aceptó " + Arrays.toString(value.toCharArray()));
+	}
+}
@@ -0,0 +1,63 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtClaimsCodecTests {
+
+	@Test
+	void roundTripsEscapedAndNonAsciiValues() {
+		JwtClaims claims = new JwtClaims("jti-\"1\"", "usuario\\ñandú\u0001", "cliente-🚗", null, 10, 20);
+		byte[] buffer = new byte[JwtClaimsCodec.maxEncodedLength(claims)];
+
+		int length = JwtClaimsCodec.write(claims, buffer, 0);
+
+		assertEquals(claims, JwtClaimsCodec.read(buffer, 0, length));
+	}
+
+	@Test
+	void readsUnknownClaimsWithoutFailing() {
+		JwtClaims claims = read(" { \"iss\" : \"x\", \"jti\":\"a\\u0062c\", \"roles\":[[1,2],{\"k\":\"]\"}],"
+				+ " \"exp\": 1700000000.75, \"active\":false, \"typ\":\"refresh\" } ");
+
+		assertEquals("abc", claims.jti());
+		assertEquals(1_700_000_000L, claims.expiresAt());
+		assertEquals("refresh", claims.tokenType());
+		assertEquals(0, claims.issuedAt());
+		assertNull(claims.subject());
+	}
+
+	@Test
+	void requiresJtiAndExp() {
+		assertMalformed("{\"exp\":1}");
+		assertMalformed("{\"jti\":\"a\"}");
+		assertMalformed("{}");
+	}
+
+	@Test
+	void rejectsMalformedJson() {
+		assertMalformed("");
+		assertMalformed("{\"jti\":\"a\",\"exp\":1");
+		assertMalformed("{\"jti\":\"a\" \"exp\":1}");
+		assertMalformed("{\"jti\":\"a\",\"exp\":}");
+		assertMalformed("{\"jti\":\"a\\q\",\"exp\":1}");
+		assertMalformed("{\"jti\":\"a\\u00\",\"exp\":1}");
+		assertMalformed("{\"jti\":\"a\",\"exp\":99999999999999999999}");
+		assertMalformed("{\"jti\":\"a\",\"exp\":1,\"x\":[1,2}");
+	}
+
+	private static JwtClaims read(String json) {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		return JwtClaimsCodec.read(bytes, 0, bytes.length);
+	}
+
+	private static void assertMalformed(String json) {
+		JwtValidationException e = assertThrows(JwtValidationException.class, () -> read(json), json);
+		assertEquals(JwtValidationException.Reason.MALFORMED, e.getReason());
+	}
+}
@@ -0,0 +1,183 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtEngineTests {
+
+	private static final long NOW = 1_700_000_000L;
+	private static final String HS256_HEADER = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+
+	private final byte[] secret = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+	private final JwtSigningKeys hmacKeys = JwtSigningKeys.hmac(secret, null);
+	private final JwtEngine hmac = new JwtEngine(hmacKeys);
+
+	private final JwtClaims claims = new JwtClaims("0190a2b3-c4d5-7e6f-8a9b-0c1d2e3f4a5b",
+			"user-1", "client-1", "access", NOW, NOW + 900);
+
+	@Test
+	void hs256RoundTrip() {
+		String token = hmac.issue(claims);
+
+		assertEquals(claims, hmac.verify(token, NOW));
+		assertEquals(HS256_HEADER, decode(token.split("\\.")[0]));
+	}
+
+	@Test
+	void es256RoundTrip() throws Exception {
+		KeyPair pair = ecKeyPair();
+		JwtEngine signer = new JwtEngine(JwtSigningKeys.ecdsa(pair.getPrivate(), pair.getPublic(), "k1"));
+		JwtEngine verifier = new JwtEngine(JwtSigningKeys.ecdsa(null, pair.getPublic(), "k1"));
+
+		String token = signer.issue(claims);
+
+		assertEquals(claims, verifier.verify(token, NOW));
+		assertEquals("{\"alg\":\"ES256\",\"typ\":\"JWT\",\"kid\":\"k1\"}", decode(token.split("\\.")[0]));
+	}
+
+	@Test
+	void es256RejectsAnotherKey() throws Exception {
+		JwtEngine signer = new JwtEngine(JwtSigningKeys.ecdsa(ecKeyPair().getPrivate(), ecKeyPair().getPublic(), null));
+		JwtEngine verifier = new JwtEngine(JwtSigningKeys.ecdsa(null, ecKeyPair().getPublic(), null));
+
+		assertReason(JwtValidationException.Reason.INVALID_SIGNATURE, verifier, signer.issue(claims));
+	}
+
+	@Test
+	void tamperedSignatureIsRejected() {
+		String[] parts = hmac.issue(claims).split("\\.");
+		char first = parts[2].charAt(0);
+		String signature = (first == 'A' ? 'B' : 'A') + parts[2].substring(1);
+
+		assertReason(JwtValidationException.Reason.INVALID_SIGNATURE, hmac, parts[0] + "." + parts[1] + "." + signature);
+		assertReason(JwtValidationException.Reason.INVALID_SIGNATURE, hmac, parts[0] + "." + parts[1] + ".");
+	}
+
+	@Test
+	void tamperedPayloadIsRejected() {
+		String[] parts = hmac.issue(claims).split("\\.");
+		String payload = encode("{\"jti\":\"" + claims.jti() + "\",\"sub\":\"admin\",\"exp\":" + (NOW + 900) + "}");
+
+		assertReason(JwtValidationException.Reason.INVALID_SIGNATURE, hmac, parts[0] + "." + payload + "." + parts[2]);
+	}
+
+	@Test
+	void tamperedHeaderIsRejected() {
+		String[] parts = hmac.issue(claims).split("\\.");
+		String header = encode("{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"other\"}");
+
+		assertReason(JwtValidationException.Reason.UNSUPPORTED_HEADER, hmac, header + "." + parts[1] + "." + parts[2]);
+	}
+
+	@Test
+	void algNoneIsRejected() {
+		String payload = encode("{\"jti\":\"x\",\"exp\":" + (NOW + 900) + "}");
+
+		assertReason(JwtValidationException.Reason.UNSUPPORTED_HEADER, hmac,
+				encode("{\"alg\":\"none\",\"typ\":\"JWT\"}") + "." + payload + ".");
+	}
+
+	@Test
+	void algConfusionIsRejected() throws Exception {
+		// Un HS256 firmado con la clave pública como secreto no se acepta en un verificador ES256
+		KeyPair pair = ecKeyPair();
+		JwtEngine verifier = new JwtEngine(JwtSigningKeys.ecdsa(null, pair.getPublic(), null));
+		String confused = new JwtEngine(JwtSigningKeys.hmac(pair.getPublic().getEncoded(), null)).issue(claims);
+
+		assertReason(JwtValidationException.Reason.UNSUPPORTED_HEADER, verifier, confused);
+
+		// Y un ES256 no se acepta en un verificador HS256
+		String es256 = new JwtEngine(JwtSigningKeys.ecdsa(pair.getPrivate(), pair.getPublic(), null)).issue(claims);
+		assertReason(JwtValidationException.Reason.UNSUPPORTED_HEADER, hmac, es256);
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		String token = hmac.issue(claims);
+
+		assertEquals(claims, hmac.verify(token, claims.expiresAt() - 1));
+		assertReason(JwtValidationException.Reason.EXPIRED, hmac, token, claims.expiresAt());
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		String token = hmac.issue(claims);
+
+		assertReason(JwtValidationException.Reason.MALFORMED, hmac, "sin-puntos");
+		assertReason(JwtValidationException.Reason.MALFORMED, hmac, token + ".extra");
+		assertReason(JwtValidationException.Reason.MALFORMED, hmac, token.replace('A', 'á'));
+	}
+
+	@Test
+	void nonCanonicalBase64IsRejected() {
+		String[] parts = hmac.issue(claims).split("\\.");
+
+		assertReason(JwtValidationException.Reason.INVALID_SIGNATURE, hmac, parts[0] + "." + parts[1] + "." + parts[2] + "=");
+		assertReason(JwtValidationException.Reason.INVALID_SIGNATURE, hmac,
+				parts[0] + "." + parts[1] + "." + parts[2].replace('-', '+').replace('_', '/') + "+");
+
+		// Payload firmado con un carácter sobrante: su longitud no es una codificación posible
+		String payload = encode("{\"jti\":\"x\",\"exp\":" + (NOW + 900) + "}");
+		payload += payload.length() % 4 == 0 ? "A" : "A".repeat(5 - payload.length() % 4);
+		assertReason(JwtValidationException.Reason.MALFORMED, hmac, sign(encode(HS256_HEADER), payload));
+	}
+
+	@Test
+	void missingRequiredClaimsAreRejected() {
+		assertReason(JwtValidationException.Reason.MALFORMED, hmac,
+				sign(encode(HS256_HEADER), encode("{\"jti\":\"x\",\"sub\":\"u\"}")));
+		assertReason(JwtValidationException.Reason.MALFORMED, hmac,
+				sign(encode(HS256_HEADER), encode("{\"sub\":\"u\",\"exp\":" + (NOW + 900) + "}")));
+	}
+
+	@Test
+	void extraClaimsAreSkipped() {
+		String payload = encode("{\"aud\":[\"a\",{\"b\":\"}\"}],\"jti\":\"x\",\"nbf\":1.5e9,\"admin\":true,"
+				+ "\"exp\":" + (NOW + 900) + ",\"note\":null}");
+
+		JwtClaims read = hmac.verify(sign(encode(HS256_HEADER), payload), NOW);
+
+		assertEquals("x", read.jti());
+		assertEquals(NOW + 900, read.expiresAt());
+		assertNull(read.subject());
+	}
+
+	private String sign(String header, String payload) {
+		byte[] input = (header + "." + payload).getBytes(StandardCharsets.US_ASCII);
+		byte[] signature = new byte[JwtAlgorithm.HS256.getSignatureLength()];
+		hmacKeys.sign(input, 0, input.length, signature, 0);
+		return header + "." + payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+	}
+
+	private static void assertReason(JwtValidationException.Reason reason, JwtEngine engine, String token) {
+		assertReason(reason, engine, token, NOW);
+	}
+
+	private static void assertReason(JwtValidationException.Reason reason, JwtEngine engine, String token, long now) {
+		JwtValidationException e = assertThrows(JwtValidationException.class, () -> engine.verify(token, now));
+		assertEquals(reason, e.getReason(), e.getMessage());
+	}
+
+	private static String encode(String json) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String decode(String part) {
+		return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+	}
+
+	private static KeyPair ecKeyPair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		return generator.generateKeyPair();
+	}
+}
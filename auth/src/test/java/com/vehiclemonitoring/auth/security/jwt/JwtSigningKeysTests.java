@@ -0,0 +1,65 @@
+package com.vehiclemonitoring.auth.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtSigningKeysTests {
+
+	private static final byte[] DATA = "header.payload".getBytes(StandardCharsets.US_ASCII);
+
+	@Test
+	void hmacRequiresAStrongSecret() {
+		assertThrows(IllegalArgumentException.class, () -> JwtSigningKeys.hmac(new byte[31], null));
+		assertThrows(IllegalArgumentException.class, () -> JwtSigningKeys.hmac(null, null));
+	}
+
+	@Test
+	void hmacSignsAndVerifies() {
+		JwtSigningKeys keys = JwtSigningKeys.hmac(new byte[32], "k");
+		byte[] signature = new byte[40];
+
+		int length = keys.sign(DATA, 0, DATA.length, signature, 4);
+
+		assertEquals(32, length);
+		assertTrue(keys.verify(DATA, 0, DATA.length, signature, 4, length));
+		assertFalse(keys.verify(DATA, 0, DATA.length - 1, signature, 4, length));
+		assertFalse(keys.verify(DATA, 0, DATA.length, signature, 4, length - 1));
+		signature[10] ^= 1;
+		assertFalse(keys.verify(DATA, 0, DATA.length, signature, 4, length));
+	}
+
+	@Test
+	void ecdsaSignsInFixedLengthFormat() throws Exception {
+		KeyPair pair = ecKeyPair();
+		JwtSigningKeys keys = JwtSigningKeys.ecdsa(pair.getPrivate(), pair.getPublic(), null);
+		byte[] signature = new byte[64];
+
+		assertEquals(64, keys.sign(DATA, 0, DATA.length, signature, 0));
+		assertTrue(keys.verify(DATA, 0, DATA.length, signature, 0, 64));
+		signature[0] ^= 1;
+		assertFalse(keys.verify(DATA, 0, DATA.length, signature, 0, 64));
+	}
+
+	@Test
+	void verifyOnlyKeysCannotSign() throws Exception {
+		JwtSigningKeys keys = JwtSigningKeys.ecdsa(null, ecKeyPair().getPublic(), null);
+
+		assertThrows(IllegalStateException.class, () -> keys.sign(DATA, 0, DATA.length, new byte[64], 0));
+		assertThrows(IllegalArgumentException.class, () -> JwtSigningKeys.ecdsa(null, null, null));
+	}
+
+	private static KeyPair ecKeyPair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		return generator.generateKeyPair();
+	}
+}
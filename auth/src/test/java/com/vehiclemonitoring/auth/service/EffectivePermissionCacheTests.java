@@ -0,0 +1,171 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.Permission;
+import com.vehiclemonitoring.auth.model.Role;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import com.vehiclemonitoring.auth.repository.PermissionRepository;
+import com.vehiclemonitoring.auth.repository.RoleRepository;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import com.vehiclemonitoring.auth.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class EffectivePermissionCacheTests {
+
+	@Autowired
+	private EffectivePermissionCache cache;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private PermissionRepository permissionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private SqlStatementCounter counter;
+
+	private Client client;
+	private Role role;
+	private Permission permission;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		counter = new SqlStatementCounter(entityManagerFactory);
+		String suffix = UUID.randomUUID().toString();
+		client = clientRepository.save(new Client("perm-" + suffix, "perm-" + suffix));
+		role = roleRepository.save(new Role(client, "role-" + suffix));
+		permission = permissionRepository.save(new Permission("perm-" + suffix));
+		user = userRepository.save(new User(client, "perm-" + suffix + "@example.com", "hash"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM auth.user_roles WHERE user_id = ?", user.getId());
+		jdbcTemplate.update("DELETE FROM auth.role_permissions WHERE role_id = ?", role.getId());
+		jdbcTemplate.update("DELETE FROM auth.users WHERE id = ?", user.getId());
+		jdbcTemplate.update("DELETE FROM auth.roles WHERE id = ?", role.getId());
+		jdbcTemplate.update("DELETE FROM auth.permissions WHERE id = ?", permission.getId());
+		clientRepository.deleteById(client.getId());
+	}
+
+	@Test
+	void addPermissionInvalidatesMembersOfTheRole() {
+		grantRole();
+		assertFalse(cache.hasPermission(user.getId(), client.getId(), permission.getName()));
+
+		grantPermission();
+
+		assertTrue(cache.hasPermission(user.getId(), client.getId(), permission.getName()));
+	}
+
+	@Test
+	void removePermissionInvalidatesMembersOfTheRole() {
+		grantRole();
+		grantPermission();
+		assertTrue(cache.hasPermission(user.getId(), client.getId(), permission.getName()));
+
+		transactionTemplate.executeWithoutResult(status -> roleRepository.findById(role.getId()).orElseThrow()
+				.removePermission(permissionRepository.findById(permission.getId()).orElseThrow()));
+
+		assertFalse(cache.hasPermission(user.getId(), client.getId(), permission.getName()));
+	}
+
+	@Test
+	void addRoleInvalidatesTheUser() {
+		grantPermission();
+		assertFalse(cache.hasPermission(user.getId(), client.getId(), permission.getName()));
+
+		grantRole();
+
+		assertTrue(cache.hasPermission(user.getId(), client.getId(), permission.getName()));
+	}
+
+	@Test
+	void removeRoleInvalidatesTheUser() {
+		grantPermission();
+		grantRole();
+		EffectivePermissions granted = cache.get(user.getId(), client.getId());
+		assertTrue(granted.hasRole(role.getName()));
+		assertSame(granted, cache.get(user.getId(), client.getId()), "la segunda lectura no salió de la caché");
+
+		transactionTemplate.executeWithoutResult(status -> userRepository.findById(user.getId()).orElseThrow()
+				.removeRole(roleRepository.findById(role.getId()).orElseThrow()));
+
+		assertFalse(cache.hasPermission(user.getId(), client.getId(), permission.getName()));
+	}
+
+	@Test
+	void rolePermissionChangeRebuildsMembersInMemory() {
+		grantRole();
+		EffectivePermissions before = cache.get(user.getId(), client.getId());
+
+		grantPermission();
+
+		// La entrada del miembro se recalculó al recompilar el rol: leerla no consulta la base de datos
+		long statements = counter.count(() ->
+				assertTrue(cache.hasPermission(user.getId(), client.getId(), permission.getName())));
+		assertEquals(0, statements, "la entrada del miembro se volvió a cargar");
+		assertEquals(before.roleIds(), cache.get(user.getId(), client.getId()).roleIds());
+	}
+
+	@Test
+	void userRoleChangeOnlyCompilesTheNewRole() {
+		grantPermission();
+		grantRole();
+		assertTrue(cache.hasPermission(user.getId(), client.getId(), permission.getName()));
+		Role second = roleRepository.save(new Role(client, "second-" + role.getName()));
+		try {
+			transactionTemplate.executeWithoutResult(status -> userRepository.findById(user.getId()).orElseThrow()
+					.addRole(roleRepository.findById(second.getId()).orElseThrow()));
+
+			// Los roles del usuario y los permisos del rol nuevo; el rol ya compilado no se consulta
+			long statements = counter.count(() -> assertTrue(cache.hasRole(user.getId(), client.getId(), second.getName())));
+			assertEquals(2, statements);
+			assertTrue(cache.hasPermission(user.getId(), client.getId(), permission.getName()));
+		} finally {
+			jdbcTemplate.update("DELETE FROM auth.user_roles WHERE role_id = ?", second.getId());
+			jdbcTemplate.update("DELETE FROM auth.roles WHERE id = ?", second.getId());
+		}
+	}
+
+	private void grantRole() {
+		transactionTemplate.executeWithoutResult(status -> userRepository.findById(user.getId()).orElseThrow()
+				.addRole(roleRepository.findById(role.getId()).orElseThrow()));
+	}
+
+	private void grantPermission() {
+		transactionTemplate.executeWithoutResult(status -> roleRepository.findById(role.getId()).orElseThrow()
+				.addPermission(permissionRepository.findById(permission.getId()).orElseThrow()));
+	}
+}
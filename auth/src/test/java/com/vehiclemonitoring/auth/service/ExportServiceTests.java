@@ -0,0 +1,107 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import com.vehiclemonitoring.auth.repository.ExportQueryHints;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ExportServiceTests {
+
+	// Una fila más que el tamaño de lote: el cursor sigue abierto mientras se escribe el primero
+	private static final int USERS = Integer.parseInt(ExportQueryHints.FETCH_SIZE) + 1;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Client client;
+
+	@BeforeEach
+	void setUp() {
+		String suffix = UUID.randomUUID().toString();
+		client = clientRepository.save(new Client("export-" + suffix, "export-" + suffix));
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			users.add(new User(client, "export-" + i + "-" + suffix + "@example.com", "hash"));
+		}
+		userRepository.saveAll(users);
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM auth.users WHERE client_id = ?", client.getId());
+		clientRepository.deleteById(client.getId());
+	}
+
+	@Test
+	void exportStreamsThroughServerSideCursor() {
+		ConnectionProbe out = new ConnectionProbe();
+
+		long rows = exportService.exportUsers(client.getId(), out);
+
+		assertEquals(USERS, rows);
+		assertTrue(out.probed, "la exportación no escribió mientras leía");
+		assertFalse(out.autoCommit, "la exportación se ejecutó con autocommit");
+		assertTrue(out.openCursors > 0, "la exportación no abrió un cursor de servidor");
+	}
+
+	/**
+	 * Consulta la conexión de la exportación en curso cuando esta escribe: se ejecuta en el
+	 * mismo hilo y dentro de la misma transacción, así que ve su cursor
+	 */
+	private final class ConnectionProbe extends ByteArrayOutputStream {
+
+		boolean probed;
+		boolean autoCommit = true;
+		int openCursors;
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) {
+			probe();
+			super.write(b, off, len);
+		}
+
+		@Override
+		public synchronized void write(int b) {
+			probe();
+			super.write(b);
+		}
+
+		private void probe() {
+			if (probed) {
+				return;
+			}
+			probed = true;
+			autoCommit = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) Connection::getAutoCommit));
+			Integer cursors = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_cursors", Integer.class);
+			openCursors = cursors == null ? 0 : cursors;
+		}
+	}
+}
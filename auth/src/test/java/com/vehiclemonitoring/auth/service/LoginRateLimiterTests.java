@@ -0,0 +1,43 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.LoginRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTests {
+
+	private static final int ACCOUNT_LIMIT = 3;
+
+	private final LoginRateLimiter limiter = new LoginRateLimiter(
+			new LoginRateLimitProperties(true, Duration.ofMinutes(1), ACCOUNT_LIMIT, 1000,
+					Duration.ofSeconds(30), Duration.ofHours(1), 1000),
+			new SimpleMeterRegistry());
+
+	@Test
+	void emailVariantsShareTheAccountLimit() {
+		assertTrue(limiter.tryAcquire("Driver@Fleet.example", "fleet", "10.0.0.1").allowed());
+		assertTrue(limiter.tryAcquire(" driver@fleet.example", "fleet", "10.0.0.2").allowed());
+		assertTrue(limiter.tryAcquire("DRIVER@FLEET.EXAMPLE ", "fleet", "10.0.0.3").allowed());
+
+		LoginRateLimitDecision decision = limiter.tryAcquire("driver@fleet.example", "fleet", "10.0.0.4");
+
+		assertEquals(LoginRateLimitDecision.Scope.ACCOUNT, decision.scope());
+	}
+
+	@Test
+	void otherAccountsAndClientsKeepTheirOwnLimit() {
+		for (int i = 0; i < ACCOUNT_LIMIT; i++) {
+			limiter.tryAcquire("owner@fleet.example", "fleet", "10.0.1." + i);
+		}
+		assertEquals(LoginRateLimitDecision.Scope.ACCOUNT,
+				limiter.tryAcquire("Owner@fleet.example", "fleet", "10.0.1.9").scope());
+
+		assertTrue(limiter.tryAcquire("owner@fleet.example", "other-fleet", "10.0.1.10").allowed());
+		assertTrue(limiter.tryAcquire("other@fleet.example", "fleet", "10.0.1.11").allowed());
+	}
+}
@@ -0,0 +1,143 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.PasswordHashingProperties;
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import com.vehiclemonitoring.auth.security.password.Pbkdf2PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PasswordHashingServiceTests {
+
+	private static final int OLD_ITERATIONS = 1_000;
+	private static final int NEW_ITERATIONS = 2_000;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final List<PasswordHashingService> services = new ArrayList<>();
+	private Client client;
+
+	@AfterEach
+	void tearDown() {
+		services.forEach(PasswordHashingService::shutdown);
+		if (client != null) {
+			jdbcTemplate.update("DELETE FROM auth.users WHERE client_id = ?", client.getId());
+			clientRepository.deleteById(client.getId());
+		}
+	}
+
+	@Test
+	void rejectsWhenTheQueueIsFull() {
+		PasswordHashingService service = service(2_000_000, 1, Duration.ofSeconds(30));
+		// Uno en ejecución y otro esperando: la cola de capacidad 1 queda llena
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.hash("running"));
+		awaitTrue(() -> meterRegistry.get("auth.passwords.queue.wait").timer().count() == 1);
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.hash("queued"));
+		awaitTrue(() -> service.queueDepth() == 1);
+
+		PasswordHashingRejectedException rejected = assertThrows(PasswordHashingRejectedException.class,
+				() -> service.hash("rejected"));
+
+		assertEquals("queue-full", rejected.getReason());
+		assertEquals(1.0, meterRegistry.get("auth.passwords.rejected").tag("reason", "queue-full").counter().count());
+		running.join();
+		queued.join();
+	}
+
+	@Test
+	void rejectsUpFrontWhenTheEstimatedWaitExceedsTheDeadline() {
+		PasswordHashingService service = service(500_000, 1, Duration.ofMillis(5));
+		// La primera operación no tiene latencia media con la que estimar: vence esperando el resultado
+		PasswordHashingRejectedException timedOut = assertThrows(PasswordHashingRejectedException.class,
+				() -> service.hash("first"));
+		assertEquals("timeout", timedOut.getReason());
+		awaitTrue(() -> meterRegistry.get("auth.passwords.latency").tag("operation", "hash").timer().count() == 1);
+
+		// Con la media ya medida, la espera estimada supera el plazo y se rechaza sin encolar
+		PasswordHashingRejectedException rejected = assertThrows(PasswordHashingRejectedException.class,
+				() -> service.hash("second"));
+
+		assertEquals("deadline", rejected.getReason());
+		assertEquals(0, service.queueDepth());
+		assertEquals(1, meterRegistry.get("auth.passwords.queue.wait").timer().count());
+	}
+
+	@Test
+	void rehashesOnlyIfTheStoredHashIsUnchanged() {
+		PasswordHashingService service = service(NEW_ITERATIONS, 2, Duration.ofSeconds(30));
+		Pbkdf2PasswordHasher oldHasher = new Pbkdf2PasswordHasher(OLD_ITERATIONS, 16);
+		Pbkdf2PasswordHasher newHasher = new Pbkdf2PasswordHasher(NEW_ITERATIONS, 16);
+		String suffix = UUID.randomUUID().toString();
+		client = clientRepository.save(new Client("hashing-" + suffix, "hashing-" + suffix));
+
+		String staleHash = oldHasher.hash("secret");
+		String changedHash = newHasher.hash("changed");
+		User changed = userRepository.save(new User(client, "changed-" + suffix + "@example.com", changedHash));
+		String outdatedHash = oldHasher.hash("secret");
+		User outdated = userRepository.save(new User(client, "outdated-" + suffix + "@example.com", outdatedHash));
+
+		// La contraseña cambió después de leer el hash: el rehash no debe pisarla
+		assertTrue(service.verifyAndUpgrade(changed.getId(), "secret", staleHash));
+		assertTrue(service.verifyAndUpgrade(outdated.getId(), "secret", outdatedHash));
+		assertFalse(service.verifyAndUpgrade(outdated.getId(), "wrong", outdatedHash));
+
+		// El hilo de rehash es único: cuando termina el segundo, el primero ya terminó
+		awaitTrue(() -> !outdatedHash.equals(storedHash(outdated.getId())));
+		String upgraded = storedHash(outdated.getId());
+		assertNotEquals(outdatedHash, upgraded);
+		assertFalse(newHasher.needsRehash(upgraded));
+		assertTrue(service.verify("secret", upgraded));
+		assertEquals(changedHash, storedHash(changed.getId()));
+		assertEquals(1.0, meterRegistry.get("auth.passwords.rehashed").counter().count());
+	}
+
+	private PasswordHashingService service(int iterations, int queueCapacity, Duration deadline) {
+		PasswordHashingService service = new PasswordHashingService(
+				new PasswordHashingProperties(iterations, 16, 1, queueCapacity, deadline), userRepository, meterRegistry);
+		services.add(service);
+		return service;
+	}
+
+	private String storedHash(UUID userId) {
+		return jdbcTemplate.queryForObject("SELECT password_hash FROM auth.users WHERE id = ?", String.class, userId);
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() - deadline > 0) {
+				throw new AssertionError("La condición no se cumplió a tiempo");
+			}
+			LockSupport.parkNanos(1_000_000);
+		}
+	}
+}
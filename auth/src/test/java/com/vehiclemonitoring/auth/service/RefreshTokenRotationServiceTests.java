@@ -0,0 +1,125 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import com.vehiclemonitoring.auth.repository.projection.RevokedJti;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RefreshTokenRotationServiceTests {
+
+	private static final int THREADS = 32;
+
+	@Autowired
+	private RefreshTokenRotationService rotationService;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private TokenRevocationIndex revocationIndex;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Client client;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		String suffix = UUID.randomUUID().toString();
+		client = clientRepository.save(new Client("rotation-" + suffix, "rotation-" + suffix));
+		user = userRepository.save(new User(client, "rotation-" + suffix + "@example.com", "hash"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM auth.jwt_tokens WHERE user_id = ?", user.getId());
+		userRepository.deleteById(user.getId());
+		clientRepository.deleteById(client.getId());
+	}
+
+	@RepeatedTest(5)
+	void concurrentRotationOfSameTokenHasExactlyOneWinner() throws Exception {
+		IssuedToken issued = jwtService.issueRefreshToken(user);
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<RotationResult>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return rotationService.rotate(issued.token());
+				}));
+			}
+			start.countDown();
+
+			Map<RotationResult.Outcome, Integer> outcomes = new EnumMap<>(RotationResult.Outcome.class);
+			String winner = null;
+			for (Future<RotationResult> future : futures) {
+				RotationResult result = future.get();
+				outcomes.merge(result.outcome(), 1, Integer::sum);
+				if (result.isRotated()) {
+					winner = result.claims().jti();
+				}
+			}
+			assertEquals(1, outcomes.get(RotationResult.Outcome.ROTATED));
+			assertEquals(THREADS - 1, outcomes.get(RotationResult.Outcome.CONCURRENT_RETRY));
+			assertEquals(winner, jdbcTemplate.queryForObject(
+					"SELECT replaced_by_jti FROM auth.jwt_tokens WHERE jti = ?", String.class, issued.entity().getJti()));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Integer children = jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM auth.jwt_tokens WHERE user_id = ? AND revoked_at IS NULL",
+				Integer.class, user.getId());
+		assertEquals(1, children);
+	}
+
+	@Test
+	void reuseAfterGraceRevokesWholeChain() {
+		IssuedToken issued = jwtService.issueRefreshToken(user);
+
+		RotationResult first = rotationService.rotate(issued.token());
+		RotationResult second = rotationService.rotate(first.token());
+		assertTrue(second.isRotated());
+
+		jdbcTemplate.update("UPDATE auth.jwt_tokens SET revoked_at = now() - interval '1 hour' WHERE jti = ?",
+				issued.entity().getJti());
+		RotationResult reuse = rotationService.rotate(issued.token());
+
+		assertEquals(RotationResult.Outcome.REUSE_DETECTED, reuse.outcome());
+		assertEquals(List.of(second.claims().jti()), reuse.revoked().stream().map(RevokedJti::jti).toList());
+		assertTrue(revocationIndex.isRevoked(second.claims().jti()));
+		assertEquals(RotationResult.Outcome.INVALID, rotationService.rotate(second.token()).outcome());
+	}
+}
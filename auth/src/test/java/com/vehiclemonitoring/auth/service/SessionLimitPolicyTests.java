@@ -0,0 +1,146 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.SessionLimitProperties;
+import com.vehiclemonitoring.auth.event.JwtTokensExpiredEvent;
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class SessionLimitPolicyTests {
+
+	private static final int MAX = 3;
+
+	@Autowired
+	private ActiveSessionCounter counter;
+
+	@Autowired
+	private TokenRevocationService revocationService;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Client client;
+	private User user;
+	private final List<String> jtis = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		String suffix = UUID.randomUUID().toString();
+		client = clientRepository.save(new Client("sessions-" + suffix, "sessions-" + suffix));
+		user = userRepository.save(new User(client, "sessions-" + suffix + "@example.com", "hash"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM auth.jwt_tokens WHERE user_id = ?", user.getId());
+		jdbcTemplate.update("DELETE FROM auth.users WHERE id = ?", user.getId());
+		clientRepository.deleteById(client.getId());
+		counter.reconcile();
+	}
+
+	@Test
+	void rejectNewestRefusesOnceTheUserIsAtTheLimit() {
+		SessionLimitPolicy policy = policy(SessionLimitProperties.Policy.REJECT_NEWEST);
+		for (int i = 0; i < MAX - 1; i++) {
+			openSession(i);
+		}
+		policy.admit(user.getId());
+
+		openSession(MAX - 1);
+
+		assertThrows(SessionLimitExceededException.class, () -> policy.admit(user.getId()));
+		assertEquals(MAX, counter.activeSessions(user.getId()));
+		assertEquals(0, revokedSessions());
+	}
+
+	@Test
+	void evictOldestRevokesTheOldestSessionsToMakeRoom() {
+		SessionLimitPolicy policy = policy(SessionLimitProperties.Policy.EVICT_OLDEST);
+		for (int i = 0; i < MAX; i++) {
+			openSession(i);
+		}
+
+		transactionTemplate.executeWithoutResult(status -> policy.admit(user.getId()));
+
+		assertEquals(List.of(jtis.get(0)), jdbcTemplate.queryForList(
+				"SELECT jti FROM auth.jwt_tokens WHERE user_id = ? AND revoked_at IS NOT NULL", String.class, user.getId()));
+		assertEquals(MAX - 1, counter.activeSessions(user.getId()));
+	}
+
+	@Test
+	void revokedSessionIsNotDiscountedAgainWhenItExpires() {
+		openSession(0);
+		openSession(1);
+		transactionTemplate.executeWithoutResult(status -> revocationService.revokeOldestSessions(user.getId(), 1, user.getId()));
+		assertEquals(1, counter.activeSessions(user.getId()));
+
+		counter.onTokensExpired(new JwtTokensExpiredEvent(List.of(
+				new JwtTokensExpiredEvent.ExpiredToken(jtis.get(0), user.getId(), JwtService.REFRESH_TOKEN))));
+
+		assertEquals(1, counter.activeSessions(user.getId()));
+	}
+
+	@Test
+	void reconcileCorrectsDriftFromTheGroupedCount() {
+		openSession(0);
+		openSession(1);
+		// Sesión contada en memoria que no existe en la base de datos
+		counter.track(user.getId(), OffsetDateTime.now(ZoneOffset.UTC).plusHours(1));
+		assertEquals(3, counter.activeSessions(user.getId()));
+
+		counter.reconcile();
+
+		assertEquals(2, counter.activeSessions(user.getId()));
+	}
+
+	private SessionLimitPolicy policy(SessionLimitProperties.Policy policy) {
+		return new SessionLimitPolicy(counter, revocationService,
+				new SessionLimitProperties(MAX, policy, Duration.ofMinutes(10)));
+	}
+
+	private void openSession(int age) {
+		OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+		String jti = "sessions-" + UUID.randomUUID();
+		// Cuanto menor es el índice, más antigua es la sesión
+		jdbcTemplate.update("INSERT INTO auth.jwt_tokens (id, jti, token_type, user_id, client_id, issued_at, expires_at) " +
+						"VALUES (?, ?, ?, ?, ?, ?, ?)",
+				UUID.randomUUID(), jti, JwtService.REFRESH_TOKEN, user.getId(), client.getId(),
+				now.minusMinutes(10 - age), now.plusHours(1));
+		counter.track(user.getId(), now.plusHours(1));
+		jtis.add(jti);
+	}
+
+	private int revokedSessions() {
+		Integer count = jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM auth.jwt_tokens WHERE user_id = ? AND revoked_at IS NOT NULL", Integer.class, user.getId());
+		return count == null ? 0 : count;
+	}
+}
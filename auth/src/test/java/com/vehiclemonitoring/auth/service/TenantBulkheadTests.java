@@ -0,0 +1,77 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.TenantBulkheadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantBulkheadTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void compartmentsAreBoundedAndTheirMetersRemoved() {
+		TenantBulkhead bulkhead = bulkhead(2, 8, Duration.ofMinutes(10));
+
+		for (int i = 0; i < 100; i++) {
+			bulkhead.run(UUID.randomUUID(), TenantBulkhead.Workload.STANDARD, () -> { });
+		}
+		bulkhead.cleanUp();
+
+		long tenants = meterRegistry.find("auth.db.bulkhead.in-flight").gauges().stream()
+				.filter(gauge -> !"shared".equals(gauge.getId().getTag("tenant")))
+				.count();
+		assertTrue(tenants <= 2, "compartimentos con métricas: " + tenants);
+	}
+
+	@Test
+	void tenantIsLimitedToItsOwnCompartment() throws Exception {
+		TenantBulkhead bulkhead = bulkhead(100, 1, Duration.ofMinutes(10));
+		UUID noisy = UUID.randomUUID();
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> busy = executor.submit(() -> bulkhead.run(noisy, TenantBulkhead.Workload.STANDARD, () -> {
+				holding.countDown();
+				await(release);
+			}));
+			assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+			assertThrows(TenantBulkheadFullException.class,
+					() -> bulkhead.run(noisy, TenantBulkhead.Workload.STANDARD, () -> { }));
+			assertEquals("ok", bulkhead.call(UUID.randomUUID(), TenantBulkhead.Workload.STANDARD, () -> "ok"));
+
+			release.countDown();
+			busy.get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private TenantBulkhead bulkhead(long maxTenants, int maxPerTenant, Duration idleTimeout) {
+		TenantBulkheadProperties properties = new TenantBulkheadProperties(true, maxPerTenant, 1, 1,
+				Duration.ofMillis(50), maxTenants, idleTimeout);
+		return new TenantBulkhead(properties, new DriverManagerDataSource(), meterRegistry);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
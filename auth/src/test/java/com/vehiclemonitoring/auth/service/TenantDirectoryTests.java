@@ -0,0 +1,68 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TenantDirectoryTests {
+
+	@Autowired
+	private TenantDirectory tenantDirectory;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private Client client;
+
+	@BeforeEach
+	void setUp() {
+		String suffix = UUID.randomUUID().toString();
+		client = clientRepository.save(new Client("tenant-" + suffix, "tenant-" + suffix));
+	}
+
+	@AfterEach
+	void tearDown() {
+		clientRepository.deleteById(client.getId());
+	}
+
+	@Test
+	void deactivationTakesEffectOnTheNextRequest() throws Exception {
+		mockMvc.perform(get("/api/clients/{id}/users", client.getId())).andExpect(status().isOk());
+		assertTrue(tenantDirectory.findActiveBySlug(client.getSlug()).isPresent());
+
+		transactionTemplate.executeWithoutResult(status ->
+				clientRepository.findById(client.getId()).orElseThrow().setIsActive(false));
+
+		assertFalse(tenantDirectory.findActiveBySlug(client.getSlug()).isPresent());
+		assertThrows(TenantNotFoundException.class, () -> tenantDirectory.requireActive(client.getId()));
+		mockMvc.perform(get("/api/clients/{id}/users", client.getId())).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void unknownClientIsNotFound() throws Exception {
+		mockMvc.perform(get("/api/clients/{id}/users", UUID.randomUUID())).andExpect(status().isNotFound());
+	}
+}
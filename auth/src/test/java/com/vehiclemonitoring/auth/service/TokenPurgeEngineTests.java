@@ -0,0 +1,188 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.TokenPurgeProperties;
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TokenPurgeEngineTests {
+
+	// Muy atrás en el tiempo: ningún otro test deja tokens antes del corte
+	private static final Duration RETENTION = Duration.ofDays(3650);
+	private static final OffsetDateTime BASE = OffsetDateTime.now(ZoneOffset.UTC).minusYears(20);
+	private static final int CHUNK = 2;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private Client client;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		new ResourceDatabasePopulator(new ClassPathResource("db/token_purge_checkpoints.sql")).execute(dataSource);
+		jdbcTemplate.update("DELETE FROM auth.token_purge_checkpoints");
+		String suffix = UUID.randomUUID().toString();
+		client = clientRepository.save(new Client("purge-" + suffix, "purge-" + suffix));
+		user = userRepository.save(new User(client, "purge-" + suffix + "@example.com", "hash"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM auth.token_purge_checkpoints");
+		jdbcTemplate.update("DELETE FROM auth.jwt_tokens WHERE user_id = ?", user.getId());
+		jdbcTemplate.update("DELETE FROM auth.users WHERE id = ?", user.getId());
+		clientRepository.deleteById(client.getId());
+	}
+
+	@Test
+	void expiredTokensAreDeletedInChunks() {
+		for (int i = 0; i < 5; i++) {
+			insertToken(BASE.plusSeconds(i), null);
+		}
+		ChunkCountingJdbcTemplate counting = new ChunkCountingJdbcTemplate(dataSource);
+
+		PurgeReport report = engine(counting).run(TokenPurgeEngine.Job.EXPIRED);
+
+		assertTrue(report.completed());
+		assertEquals(5, report.rowsDeleted());
+		// 2 + 2 + 1: el último lote incompleto cierra la ejecución
+		assertEquals(3, counting.chunks);
+		assertEquals(0, remainingTokens());
+	}
+
+	@Test
+	void partialRunResumesFromItsCursor() {
+		for (int i = 0; i < 5; i++) {
+			insertToken(BASE.plusSeconds(i), null);
+		}
+		ChunkCountingJdbcTemplate counting = new ChunkCountingJdbcTemplate(dataSource);
+		TokenPurgeEngine interrupted = engine(counting);
+		counting.stopAfter(2, interrupted);
+
+		PurgeReport partial = interrupted.run(TokenPurgeEngine.Job.EXPIRED);
+
+		assertFalse(partial.completed());
+		assertEquals(2 * CHUNK, partial.rowsDeleted());
+		Map<String, Object> checkpoint = jdbcTemplate.queryForMap(
+				"SELECT cutoff, last_key, completed FROM auth.token_purge_checkpoints WHERE job = 'EXPIRED'");
+		assertEquals(Boolean.FALSE, checkpoint.get("completed"));
+
+		// Una fila anterior al cursor no la ve la reanudación: sigue el cursor y el corte guardados
+		insertToken(BASE.minusSeconds(1), null);
+		PurgeReport resumed = engine(new JdbcTemplate(dataSource)).run(TokenPurgeEngine.Job.EXPIRED);
+
+		assertTrue(resumed.completed());
+		assertEquals(1, resumed.rowsDeleted());
+		assertEquals(checkpoint.get("cutoff"), jdbcTemplate.queryForObject(
+				"SELECT cutoff FROM auth.token_purge_checkpoints WHERE job = 'EXPIRED'", Object.class));
+		assertEquals(1, remainingTokens());
+
+		// La siguiente ejecución completa empieza de nuevo con un corte nuevo
+		PurgeReport fresh = engine(new JdbcTemplate(dataSource)).run(TokenPurgeEngine.Job.EXPIRED);
+		assertEquals(1, fresh.rowsDeleted());
+		assertEquals(0, remainingTokens());
+	}
+
+	@Test
+	void revokedJobSkipsUnexpiredTokens() {
+		OffsetDateTime future = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1);
+		insertToken(BASE, BASE);
+		insertToken(BASE.plusSeconds(1), BASE);
+		insertToken(future, BASE);
+		insertToken(future.plusSeconds(1), BASE);
+
+		PurgeReport report = engine(new JdbcTemplate(dataSource)).run(TokenPurgeEngine.Job.REVOKED);
+
+		assertTrue(report.completed());
+		assertEquals(2, report.rowsDeleted());
+		assertEquals(2, remainingTokens());
+		assertEquals(2, jdbcTemplate.queryForObject(
+				"SELECT count(*) FROM auth.jwt_tokens WHERE user_id = ? AND expires_at > now()",
+				Integer.class, user.getId()));
+	}
+
+	private TokenPurgeEngine engine(JdbcTemplate template) {
+		TokenPurgeProperties properties = new TokenPurgeProperties(true, Duration.ofMinutes(5), RETENTION, RETENTION,
+				CHUNK, CHUNK, CHUNK, Duration.ofMillis(200), 1.0, Duration.ofMinutes(1));
+		return new TokenPurgeEngine(template, transactionTemplate, dataSource, properties, new SimpleMeterRegistry());
+	}
+
+	private void insertToken(OffsetDateTime expiresAt, OffsetDateTime revokedAt) {
+		jdbcTemplate.update("INSERT INTO auth.jwt_tokens (id, jti, token_type, user_id, client_id, issued_at, expires_at, revoked_at) " +
+						"VALUES (?, ?, 'refresh', ?, ?, ?, ?, ?)",
+				UUID.randomUUID(), "purge-" + UUID.randomUUID(), user.getId(), client.getId(),
+				expiresAt.minusHours(1), expiresAt, revokedAt);
+	}
+
+	private int remainingTokens() {
+		Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM auth.jwt_tokens WHERE user_id = ?",
+				Integer.class, user.getId());
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * Cuenta los lotes DELETE y puede detener el motor tras un número dado, como haría un apagado
+	 */
+	private static final class ChunkCountingJdbcTemplate extends JdbcTemplate {
+
+		int chunks;
+		private int stopAfter = Integer.MAX_VALUE;
+		private TokenPurgeEngine engine;
+
+		ChunkCountingJdbcTemplate(DataSource dataSource) {
+			super(dataSource);
+		}
+
+		void stopAfter(int chunks, TokenPurgeEngine engine) {
+			this.stopAfter = chunks;
+			this.engine = engine;
+		}
+
+		@Override
+		public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+			List<T> rows = super.query(sql, rowMapper, args);
+			if (sql.contains("DELETE FROM auth.jwt_tokens") && ++chunks == stopAfter) {
+				engine.stop();
+			}
+			return rows;
+		}
+	}
+}
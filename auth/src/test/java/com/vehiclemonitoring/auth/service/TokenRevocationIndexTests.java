@@ -0,0 +1,163 @@
+package com.vehiclemonitoring.auth.service;
+
+import com.vehiclemonitoring.auth.config.RevocationIndexProperties;
+import com.vehiclemonitoring.auth.event.JwtTokensExpiredEvent;
+import com.vehiclemonitoring.auth.model.Client;
+import com.vehiclemonitoring.auth.model.JwtToken;
+import com.vehiclemonitoring.auth.model.User;
+import com.vehiclemonitoring.auth.repository.ClientRepository;
+import com.vehiclemonitoring.auth.repository.JwtTokenRepository;
+import com.vehiclemonitoring.auth.repository.UserRepository;
+import com.vehiclemonitoring.auth.util.CoarseClock;
+import com.vehiclemonitoring.auth.util.UuidV7;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TokenRevocationIndexTests {
+
+	@Autowired
+	private TokenRevocationIndex revocationIndex;
+
+	@Autowired
+	private JwtTokenRepository jwtTokenRepository;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Client client;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		String suffix = UUID.randomUUID().toString();
+		client = clientRepository.save(new Client("revocation-" + suffix, "revocation-" + suffix));
+		user = userRepository.save(new User(client, "revocation-" + suffix + "@example.com", "hash"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM auth.jwt_tokens WHERE user_id = ?", user.getId());
+		jdbcTemplate.update("DELETE FROM auth.users WHERE id = ?", user.getId());
+		clientRepository.deleteById(client.getId());
+	}
+
+	@Test
+	void startupLoadsOnlyLiveRevocations() {
+		OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+		String live = insertToken(now.plusHours(1), now.minusMinutes(1));
+		String expired = insertToken(now.minusMinutes(1), now.minusHours(1));
+		String active = insertToken(now.plusHours(1), null);
+		TokenRevocationIndex index = newIndex();
+
+		index.load();
+
+		assertTrue(index.isRevoked(live));
+		assertFalse(index.isRevoked(expired));
+		assertFalse(index.isRevoked(active));
+	}
+
+	@Test
+	void revokeAndReplaceUpdateTheIndexOnCommit() {
+		JwtToken revoked = saveToken();
+		JwtToken replaced = saveToken();
+		assertFalse(revocationIndex.isRevoked(revoked.getJti()));
+		assertFalse(revocationIndex.isRevoked(replaced.getJti()));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			jwtTokenRepository.findById(revoked.getId()).orElseThrow().revoke(user.getId());
+			jwtTokenRepository.findById(replaced.getId()).orElseThrow().markAsReplaced(UuidV7.generate().toString());
+		});
+
+		assertTrue(revocationIndex.isRevoked(revoked.getJti()));
+		assertTrue(revocationIndex.isRevoked(replaced.getJti()));
+	}
+
+	@Test
+	void expiredTokenEventRemovesTheEntry() {
+		TokenRevocationIndex index = newIndex();
+		index.markRevoked("jti-expired", OffsetDateTime.now(ZoneOffset.UTC).plusHours(1));
+		assertTrue(index.isRevoked("jti-expired"));
+
+		index.onTokensExpired(new JwtTokensExpiredEvent(
+				List.of(new JwtTokensExpiredEvent.ExpiredToken("jti-expired", user.getId(), "access"))));
+
+		assertFalse(index.isRevoked("jti-expired"));
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	void sweepDropsEntriesOnceTheyExpire() throws InterruptedException {
+		TokenRevocationIndex index = newIndex();
+		OffsetDateTime soon = OffsetDateTime.now(ZoneOffset.UTC).plus(Duration.ofMillis(100));
+		index.markRevoked("jti-soon", soon);
+		index.markRevoked("jti-later", OffsetDateTime.now(ZoneOffset.UTC).plusHours(1));
+		// Un token ya expirado no llega a entrar
+		index.markRevoked("jti-past", OffsetDateTime.now(ZoneOffset.UTC).minusSeconds(1));
+		assertEquals(2, index.size());
+
+		Thread.sleep(100 + 3 * CoarseClock.TICK_MILLIS);
+		assertFalse(index.isRevoked("jti-soon"));
+		index.sweep();
+
+		assertEquals(1, index.size());
+		assertTrue(index.isRevoked("jti-later"));
+	}
+
+	@Test
+	void answersStayExactBeyondTheExpectedCapacity() {
+		TokenRevocationIndex index = new TokenRevocationIndex(jwtTokenRepository,
+				new RevocationIndexProperties(10, 0.01, Duration.ofMinutes(1)));
+		OffsetDateTime later = OffsetDateTime.now(ZoneOffset.UTC).plusHours(1);
+		for (int i = 0; i < 1_000; i++) {
+			index.markRevoked("revoked-" + i, later);
+		}
+		index.sweep();
+
+		for (int i = 0; i < 1_000; i++) {
+			assertTrue(index.isRevoked("revoked-" + i));
+			assertFalse(index.isRevoked("active-" + i));
+		}
+	}
+
+	private TokenRevocationIndex newIndex() {
+		return new TokenRevocationIndex(jwtTokenRepository, new RevocationIndexProperties(1_000, 0.001, Duration.ofMinutes(1)));
+	}
+
+	private JwtToken saveToken() {
+		return jwtTokenRepository.save(new JwtToken(UuidV7.generate().toString(), "refresh", user,
+				OffsetDateTime.now(ZoneOffset.UTC).plusHours(1)));
+	}
+
+	private String insertToken(OffsetDateTime expiresAt, OffsetDateTime revokedAt) {
+		String jti = "revocation-" + UUID.randomUUID();
+		jdbcTemplate.update("INSERT INTO auth.jwt_tokens (id, jti, token_type, user_id, client_id, issued_at, expires_at, revoked_at) " +
+						"VALUES (?, ?, 'refresh', ?, ?, ?, ?, ?)",
+				UUID.randomUUID(), jti, user.getId(), client.getId(), expiresAt.minusHours(2), expiresAt, revokedAt);
+		return jti;
+	}
+}
@@ -0,0 +1,39 @@
+package com.vehiclemonitoring.auth.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara durante una operación, para que
+ * los tests fallen si una regresión reintroduce consultas N+1
+ */
+public final class SqlStatementCounter {
+
+	private final Statistics statistics;
+
+	public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+		this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		this.statistics.setStatisticsEnabled(true);
+	}
+
+	/**
+	 * @return número de sentencias preparadas por la operación
+	 */
+	public long count(Runnable operation) {
+		statistics.clear();
+		operation.run();
+		return statistics.getPrepareStatementCount();
+	}
+
+	/**
+	 * Ejecuta la operación y falla si prepara más de {@code max} sentencias
+	 */
+	public void assertAtMost(long max, String operationName, Runnable operation) {
+		long statements = count(operation);
+		assertTrue(statements <= max,
+				operationName + ": " + statements + " sentencias SQL, se esperaban como máximo " + max);
+	}
+}
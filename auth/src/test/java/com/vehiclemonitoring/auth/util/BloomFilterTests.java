@@ -0,0 +1,74 @@
+package com.vehiclemonitoring.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+	@Test
+	void isSizedForTheRequestedFalsePositiveRate() {
+		// m = -n ln(p) / ln(2)^2, k = m / n ln(2)
+		BloomFilter filter = BloomFilter.create(1000, 0.01);
+
+		assertEquals(9586, filter.bitSize());
+		assertEquals(7, filter.hashFunctions());
+		assertEquals(64, BloomFilter.create(0, 0.5).bitSize());
+	}
+
+	@Test
+	void rejectsInvalidRates() {
+		assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 0));
+		assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 1));
+	}
+
+	@Test
+	void neverReturnsFalseNegatives() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.001);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("jti-" + i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("jti-" + i), "falso negativo para jti-" + i);
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheTarget() {
+		double target = 0.01;
+		BloomFilter filter = BloomFilter.create(10_000, target);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("revoked-" + i);
+		}
+
+		int probes = 100_000;
+		int falsePositives = 0;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("active-" + i)) {
+				falsePositives++;
+			}
+		}
+
+		double rate = (double) falsePositives / probes;
+		assertTrue(rate < target * 2, "tasa de falsos positivos " + rate);
+	}
+
+	@Test
+	void overfilledFilterDegradesGracefully() {
+		BloomFilter filter = BloomFilter.create(100, 0.01);
+		for (int i = 0; i < 1_000; i++) {
+			filter.put("revoked-" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 1_000; i++) {
+			if (filter.mightContain("active-" + i)) {
+				falsePositives++;
+			}
+		}
+		// Con diez veces su capacidad deja de filtrar: por eso el índice lo reconstruye al crecer
+		assertTrue(falsePositives > 500, "falsos positivos " + falsePositives);
+	}
+}
@@ -0,0 +1,38 @@
+package com.vehiclemonitoring.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoarseClockTests {
+
+	@Test
+	void staysCloseToTheSystemClock() {
+		long before = System.currentTimeMillis();
+		long coarse = CoarseClock.currentTimeMillis();
+		long after = System.currentTimeMillis();
+
+		// El valor se refresca cada TICK_MILLIS; se deja margen para un hilo retrasado por el planificador
+		assertTrue(coarse >= before - 10 * CoarseClock.TICK_MILLIS, "atrasado " + (before - coarse) + " ms");
+		assertTrue(coarse <= after, "adelantado respecto al reloj del sistema");
+	}
+
+	@Test
+	void advancesOverTime() throws InterruptedException {
+		long start = CoarseClock.currentTimeMillis();
+
+		Thread.sleep(5 * CoarseClock.TICK_MILLIS);
+
+		assertTrue(CoarseClock.currentTimeMillis() > start);
+	}
+
+	@Test
+	void epochSecondMatchesMillis() {
+		long millis = CoarseClock.currentTimeMillis();
+		long seconds = CoarseClock.currentEpochSecond();
+
+		assertTrue(seconds - millis / 1000 <= 1);
+		assertEquals(millis / 1000, seconds, 1);
+	}
+}
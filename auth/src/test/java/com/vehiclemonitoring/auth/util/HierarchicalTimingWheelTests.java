@@ -0,0 +1,148 @@
+package com.vehiclemonitoring.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTests {
+
+	private static final long TICK = 10;
+	// 4 ranuras y 2 niveles: el nivel 0 cubre 4 ticks y el nivel 1, 16
+	private static final int WHEEL_SIZE = 4;
+	private static final int LEVELS = 2;
+
+	@Test
+	void rejectsInvalidConfiguration() {
+		assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(0, 4, 2, 0));
+		assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(TICK, 6, 2, 0));
+		assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(TICK, 4, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(TICK, 1 << 16, 4, 0));
+	}
+
+	@Test
+	void itemsDueInTheSameTickFireInOneBatch() {
+		HierarchicalTimingWheel<String> wheel = wheel();
+		wheel.schedule("a", 21);
+		wheel.schedule("b", 25);
+		wheel.schedule("c", 30);
+		wheel.schedule("later", 31);
+
+		assertEquals(List.of(), wheel.advance(20));
+		assertEquals(List.of("a", "b", "c"), sorted(wheel.advance(30)));
+		assertEquals(1, wheel.size());
+		assertEquals(List.of("later"), wheel.advance(40));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void neverFiresBeforeItsDeadline() {
+		HierarchicalTimingWheel<String> wheel = wheel();
+		wheel.schedule("token", 21);
+
+		// 21 ms se redondea al tick 3: a los 29 ms aún no ha vencido
+		assertEquals(List.of(), wheel.advance(29));
+		assertEquals(List.of("token"), wheel.advance(30));
+	}
+
+	@Test
+	void itemsInAHigherLevelCascadeDownAndFireOnTime() {
+		HierarchicalTimingWheel<String> wheel = wheel();
+		// Tick 10: fuera del nivel 0 al programarlo, entra en el nivel 1
+		wheel.schedule("token", 100);
+
+		for (long now = TICK; now < 100; now += TICK) {
+			assertEquals(List.of(), wheel.advance(now), "venció antes de tiempo a los " + now + " ms");
+		}
+		assertEquals(1, wheel.size());
+		assertEquals(List.of("token"), wheel.advance(100));
+	}
+
+	@Test
+	void itemsBeyondTheWheelSpanWaitInOverflowAndFireOnTime() {
+		HierarchicalTimingWheel<String> wheel = wheel();
+		// Tick 50: más allá de los 16 ticks que cubren los dos niveles
+		wheel.schedule("far", 500);
+		wheel.schedule("near", 30);
+
+		List<Long> fired = new ArrayList<>();
+		for (long now = TICK; now <= 600; now += TICK) {
+			if (wheel.advance(now).contains("far")) {
+				fired.add(now);
+			}
+		}
+
+		assertEquals(List.of(500L), fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void aLongJumpFiresEverythingDueInOneBatch() {
+		HierarchicalTimingWheel<Integer> wheel = wheel();
+		for (int i = 1; i <= 100; i++) {
+			wheel.schedule(i, i * 37L);
+		}
+
+		List<Integer> expired = wheel.advance(3700);
+
+		assertEquals(100, expired.size());
+		assertEquals(0, wheel.size());
+		assertEquals(List.of(), wheel.advance(10_000));
+	}
+
+	@Test
+	void itemsScheduledInThePastFireOnTheNextAdvance() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, LEVELS, 1000);
+		wheel.schedule("expired", 500);
+
+		assertEquals(List.of("expired"), wheel.advance(1000));
+	}
+
+	@Test
+	void scheduleIsSafeFromManyThreads() throws InterruptedException {
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, 64, 4, 0);
+		int threads = 4;
+		int perThread = 10_000;
+		List<Thread> producers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int base = t * perThread;
+			producers.add(Thread.ofPlatform().start(() -> {
+				for (int i = 0; i < perThread; i++) {
+					wheel.schedule(base + i, 1 + (base + i) % 5000);
+				}
+			}));
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+
+		assertEquals(threads * perThread, wheel.size());
+		assertEquals(threads * perThread, wheel.advance(5000).size());
+	}
+
+	@Test
+	void currentTimeMillisReportsHowFarTheWheelHasAdvanced() {
+		HierarchicalTimingWheel<String> wheel = wheel();
+		assertEquals(0, wheel.currentTimeMillis());
+
+		wheel.advance(57);
+
+		assertEquals(50, wheel.currentTimeMillis());
+		assertTrue(wheel.advance(10).isEmpty(), "retroceder no avanza la rueda");
+		assertEquals(50, wheel.currentTimeMillis());
+	}
+
+	private static <T> HierarchicalTimingWheel<T> wheel() {
+		return new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, LEVELS, 0);
+	}
+
+	private static List<String> sorted(List<String> items) {
+		List<String> copy = new ArrayList<>(items);
+		copy.sort(null);
+		return copy;
+	}
+}
@@ -0,0 +1,135 @@
+package com.vehiclemonitoring.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowLimiterTests {
+
+	private static final long WINDOW = 1000;
+	private static final int LIMIT = 10;
+	private static final long BASE_LOCKOUT = 100;
+	private static final long MAX_LOCKOUT = 1000;
+
+	@Test
+	void allowsUpToTheLimitWithinAWindow() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter();
+		for (int i = 0; i < LIMIT; i++) {
+			assertEquals(SlidingWindowLimiter.ALLOWED, acquire(limiter, 10_000 + i, 0));
+		}
+
+		// Sin bloqueo, el rechazo indica lo que falta para la siguiente ventana
+		assertEquals(WINDOW - 500, acquire(limiter, 10_500, 0));
+		assertEquals(0, limiter.strikes());
+	}
+
+	@Test
+	void previousWindowIsWeightedByItsOverlap() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter();
+		for (int i = 0; i < LIMIT; i++) {
+			acquire(limiter, 10_000, 0);
+		}
+
+		// Al empezar la ventana siguiente la anterior pesa entera
+		assertTrue(acquire(limiter, 11_000, 0) > 0);
+
+		// A mitad de ventana pesa la mitad: caben LIMIT / 2 intentos más
+		for (int i = 0; i < LIMIT / 2; i++) {
+			assertEquals(SlidingWindowLimiter.ALLOWED, acquire(limiter, 11_500, 0));
+		}
+		assertTrue(acquire(limiter, 11_500, 0) > 0);
+	}
+
+	@Test
+	void windowsOlderThanThePreviousOneAreForgotten() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter();
+		for (int i = 0; i < LIMIT; i++) {
+			acquire(limiter, 10_000, 0);
+		}
+
+		for (int i = 0; i < LIMIT; i++) {
+			assertEquals(SlidingWindowLimiter.ALLOWED, acquire(limiter, 12_000, 0));
+		}
+	}
+
+	@Test
+	void lockoutDoublesWithEachStrikeUpToTheMaximum() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter();
+		long now = 10_000;
+		for (int i = 0; i < LIMIT; i++) {
+			acquire(limiter, now, BASE_LOCKOUT);
+		}
+
+		long[] expected = {100, 200, 400, 800, 1000, 1000};
+		for (int strike = 0; strike < expected.length; strike++) {
+			long retryAfter = acquire(limiter, now, BASE_LOCKOUT);
+			assertEquals(expected[strike], retryAfter, "strike " + (strike + 1));
+			assertEquals(strike + 1, limiter.strikes());
+			// Durante el bloqueo los intentos no suman strikes
+			assertEquals(retryAfter - 1, acquire(limiter, now + 1, BASE_LOCKOUT));
+			assertEquals(strike + 1, limiter.strikes());
+			// Al vencer el bloqueo la ventana sigue llena: el siguiente intento reincide.
+			// La ventana se mueve con el tiempo, así que se vuelve a llenar en la nueva
+			now += retryAfter;
+			while (acquire(limiter, now, 0) == SlidingWindowLimiter.ALLOWED) {
+				// llena la ventana actual sin bloquear
+			}
+		}
+	}
+
+	@Test
+	void resetClearsStrikesAndLockout() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter();
+		for (int i = 0; i < LIMIT; i++) {
+			acquire(limiter, 10_000, BASE_LOCKOUT);
+		}
+		assertEquals(BASE_LOCKOUT, acquire(limiter, 10_000, BASE_LOCKOUT));
+
+		limiter.reset();
+
+		assertEquals(0, limiter.strikes());
+		// La ventana sigue llena, pero el siguiente bloqueo vuelve a ser el primero
+		assertEquals(BASE_LOCKOUT, acquire(limiter, 10_001, BASE_LOCKOUT));
+		assertEquals(1, limiter.strikes());
+	}
+
+	@Test
+	void concurrentExcessCountsASingleStrike() throws Exception {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter();
+		for (int i = 0; i < LIMIT; i++) {
+			acquire(limiter, 10_000, BASE_LOCKOUT);
+		}
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Long>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return acquire(limiter, 10_000, BASE_LOCKOUT);
+				}));
+			}
+			start.countDown();
+			for (Future<Long> result : results) {
+				assertEquals(BASE_LOCKOUT, result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, limiter.strikes());
+	}
+
+	private static long acquire(SlidingWindowLimiter limiter, long now, long baseLockout) {
+		return limiter.tryAcquire(now, WINDOW, LIMIT, baseLockout, MAX_LOCKOUT);
+	}
+}